@@ -0,0 +1,88 @@
+package net.sattler22.stats.benchmark;
+
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.config.StatisticsServiceProperties.NumericMode;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics Ingestion Benchmarks
+ * <p>
+ * Every iteration adds a fixed batch of transactions per thread to a freshly constructed (empty) service, so the
+ * window never grows beyond a single batch, no matter how long the benchmark runs. Use the {@code jmh.threads} Maven
+ * property to vary the number of concurrent benchmark threads.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@Warmup(iterations = 3, batchSize = StatisticsIngestBenchmark.BATCH_SIZE)
+@Measurement(iterations = 5, batchSize = StatisticsIngestBenchmark.BATCH_SIZE)
+public class StatisticsIngestBenchmark {
+
+    static final int BATCH_SIZE = 1_000_000;
+    private static final Duration EXPIRY_INTERVAL = Duration.ofHours(1);  //Nothing expires during an iteration
+    private static final int MAX_INPUT_SCALE = 4;
+    private static final int TRANSACTION_POOL_SIZE = 1_024;  //Must be a power of two
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("12.30"), new BigDecimal("0.99"), new BigDecimal("100"), new BigDecimal("57.125")
+    };
+
+    @Param({ "LIST", "BUCKETED", "STRIPED", "OFF_HEAP" })
+    private Engine engine;
+
+    @Param({ "DECIMAL", "SCALED_LONG" })
+    private NumericMode numericMode;
+
+    private StatisticsService statsService;
+    private StatisticsTransaction[] transactionPool;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        statsService = TestEngines.newService(engine, EXPIRY_INTERVAL, Runtime.getRuntime().availableProcessors(),
+                TestEngines.maxInputScale(numericMode, MAX_INPUT_SCALE));
+        final long now = Instant.now().getEpochSecond();
+        transactionPool = new StatisticsTransaction[TRANSACTION_POOL_SIZE];
+        for (int i = 0; i < TRANSACTION_POOL_SIZE; i++)
+            transactionPool[i] = new StatisticsTransaction(AMOUNTS[i % AMOUNTS.length], now);
+    }
+
+    /**
+     * Per-thread position within the transaction pool
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position;
+
+        int next() {
+            return position++ & (TRANSACTION_POOL_SIZE - 1);
+        }
+    }
+
+    @Benchmark
+    public void add(Cursor cursor) {
+        statsService.add(transactionPool[cursor.next()]);
+    }
+}
@@ -0,0 +1,64 @@
+package net.sattler22.stats.benchmark;
+
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics JSON (De)serialization Benchmarks
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatisticsJsonBenchmark {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private byte[] transactionJson;
+    private byte[] queryResultJson;
+    private StatisticsQueryResult queryResult;
+
+    @Setup
+    public void setUp() {
+        final long now = Instant.now().getEpochSecond();
+        transactionJson = String.format("{\"amount\": 12.3, \"timestamp\": %d}", now).getBytes(StandardCharsets.UTF_8);
+        queryResult = new StatisticsQueryResult(new BigDecimal("1000.00"), new BigDecimal("100.00"),
+                new BigDecimal("200.00"), new BigDecimal("50.00"), 10L);
+        queryResultJson = jsonMapper.writeValueAsBytes(queryResult);
+    }
+
+    @Benchmark
+    public StatisticsTransaction readTransaction() {
+        return jsonMapper.readValue(transactionJson, StatisticsTransaction.class);
+    }
+
+    @Benchmark
+    public StatisticsQueryResult readQueryResult() {
+        return jsonMapper.readValue(queryResultJson, StatisticsQueryResult.class);
+    }
+
+    @Benchmark
+    public byte[] writeQueryResult() {
+        return jsonMapper.writeValueAsBytes(queryResult);
+    }
+}
@@ -0,0 +1,207 @@
+package net.sattler22.stats.benchmark;
+
+import net.sattler22.stats.StatisticsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Real-Time Statistics HTTP Load Test
+ * <p>
+ * Starts the application once with platform threads and once with virtual threads and drives both with the same
+ * closed-loop load of concurrent clients posting transactions (plus an occasional statistics query). Every mode runs
+ * in its own forked JVM, so neither benefits from the JIT warm-up of the other. Throughput, p50 and p99 latencies are
+ * reported for each mode. The load is tuned using system properties (which are passed on to the forked JVMs):
+ * <ul>
+ *     <li><i>loadtest.clients</i> - the number of concurrent clients (default 400)</li>
+ *     <li><i>loadtest.warmup</i> - the warm-up duration that is not measured (default PT10S)</li>
+ *     <li><i>loadtest.duration</i> - the measured duration (default PT30S)</li>
+ *     <li><i>loadtest.engine</i> - the statistics engine (default list)</li>
+ * </ul>
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class StatisticsLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 400);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private static final String ENGINE = System.getProperty("loadtest.engine", "list");
+    private static final int QUERY_EVERY = 100;  //One statistics query per hundred transactions
+    private static final String RESULT_PREFIX = "loadtest.result=";
+
+    private StatisticsLoadTest() {
+        throw new AssertionError("Cannot be instantiated");
+    }
+
+    /**
+     * Run the load test
+     *
+     * @param args None to fork a JVM per mode. Otherwise, the single mode ({@code platform} or {@code virtual}) to run
+     *             in this JVM.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1) {
+            final Result result = run("virtual".equals(args[0]));
+            System.out.printf(Locale.ROOT, "%s%s,%f,%d,%d,%d%n", RESULT_PREFIX, result.mode(), result.throughput(),
+                    result.p50Micros(), result.p99Micros(), result.errors());
+            return;
+        }
+        final List<Result> results = new ArrayList<>();
+        for (final String mode : new String[] { "platform", "virtual" })
+            results.add(fork(mode));
+        System.out.printf("%nengine=%s, clients=%d, warmup=%s, duration=%s%n", ENGINE, CLIENTS, WARMUP, DURATION);
+        System.out.printf("%-10s %15s %12s %12s %10s%n", "threads", "requests/sec", "p50 (us)", "p99 (us)", "errors");
+        for (final Result result : results)
+            System.out.printf(Locale.ROOT, "%-10s %15.1f %12d %12d %10d%n", result.mode(), result.throughput(),
+                    result.p50Micros(), result.p99Micros(), result.errors());
+    }
+
+    /**
+     * Run a single mode in a fresh JVM (with the same JVM arguments and class path as this one)
+     */
+    private static Result fork(String mode) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StatisticsLoadTest.class.getName());
+        command.add(mode);
+        final Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        Result result = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null)
+                if (line.startsWith(RESULT_PREFIX)) {
+                    final String[] fields = line.substring(RESULT_PREFIX.length()).split(",");
+                    result = new Result(fields[0], Double.parseDouble(fields[1]), Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]), Long.parseLong(fields[4]));
+                }
+                else
+                    System.out.println(line);
+        }
+        final int exitCode = process.waitFor();
+        if (exitCode != 0 || result == null)
+            throw new IllegalStateException(String.format("The %s thread run failed with exit code %d", mode, exitCode));
+        return result;
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        final String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StatisticsApplication.class)
+                .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "stats-api.service.engine=" + ENGINE,
+                            "logging.level.ROOT=WARN")
+                .run()) {
+            final int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            final URI baseUri = URI.create("http://localhost:" + port + "/stats-api/v2");
+            try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                final long warmupEndNanos = System.nanoTime() + WARMUP.toNanos();
+                final long endNanos = warmupEndNanos + DURATION.toNanos();
+                final List<Future<Client>> futures = new ArrayList<>(CLIENTS);
+                for (int i = 0; i < CLIENTS; i++)
+                    futures.add(clients.submit(() -> new Client(httpClient, baseUri).run(warmupEndNanos, endNanos)));
+                long[] latencies = new long[0];
+                long errors = 0L;
+                for (final Future<Client> future : futures) {
+                    final Client client = future.get();
+                    final int offset = latencies.length;
+                    latencies = Arrays.copyOf(latencies, offset + client.count);
+                    System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+                    errors += client.errors;
+                }
+                Arrays.sort(latencies);
+                return new Result(mode, latencies.length / (double) DURATION.toSeconds(),
+                        percentileMicros(latencies, 0.50), percentileMicros(latencies, 0.99), errors);
+            }
+        }
+    }
+
+    private static long percentileMicros(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0)
+            return 0L;
+        final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000L;
+    }
+
+    /**
+     * A single closed-loop client that records the latency of every measured request
+     */
+    private static final class Client {
+
+        private final HttpClient httpClient;
+        private final HttpRequest queryRequest;
+        private final URI transactionsUri;
+        private long[] latencies = new long[1_024];
+        private int count;
+        private long errors;
+
+        private Client(HttpClient httpClient, URI baseUri) {
+            this.httpClient = httpClient;
+            this.queryRequest = HttpRequest.newBuilder(URI.create(baseUri + "/statistics")).GET().build();
+            this.transactionsUri = URI.create(baseUri + "/transactions");
+        }
+
+        private Client run(long warmupEndNanos, long endNanos) {
+            long requests = 0L;
+            long startNanos;
+            while ((startNanos = System.nanoTime()) < endNanos) {
+                final HttpRequest request = ++requests % QUERY_EVERY == 0 ? queryRequest : transactionRequest();
+                try {
+                    final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400)
+                        errors++;
+                }
+                catch (Exception e) {
+                    errors++;
+                }
+                if (startNanos >= warmupEndNanos)
+                    record(System.nanoTime() - startNanos);
+            }
+            return this;
+        }
+
+        private HttpRequest transactionRequest() {
+            final String body = String.format(Locale.ROOT, "{\"amount\": %d.%02d, \"timestamp\": %d}",
+                    ThreadLocalRandom.current().nextInt(1_000), ThreadLocalRandom.current().nextInt(100),
+                    Instant.now().getEpochSecond());
+            return HttpRequest.newBuilder(transactionsUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private void record(long latencyNanos) {
+            if (count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+        }
+    }
+
+    private record Result(String mode, double throughput, long p50Micros, long p99Micros, long errors) {
+    }
+}
@@ -0,0 +1,85 @@
+package net.sattler22.stats.benchmark;
+
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.config.StatisticsServiceProperties.NumericMode;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.ManualClock;
+import net.sattler22.stats.test.util.TestEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics Replay Benchmarks
+ * <p>
+ * Every invocation replays one second of traffic against a manual clock: the second's transactions are added, the
+ * statistics are collected and the clock is moved on, so the window keeps rolling and expired transactions are
+ * evicted as in production. Hours of traffic are replayed without waiting for the wall clock.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)  //The clock is moved by a single thread
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatisticsReplayBenchmark {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int CALC_SCALE = 2;
+    private static final RoundingMode CALC_ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int MAX_INPUT_SCALE = 4;
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("12.30"), new BigDecimal("0.99"), new BigDecimal("100"), new BigDecimal("57.125")
+    };
+
+    @Param({ "LIST", "BUCKETED", "STRIPED", "OFF_HEAP" })
+    private Engine engine;
+
+    @Param({ "DECIMAL", "SCALED_LONG" })
+    private NumericMode numericMode;
+
+    @Param({ "100", "10000" })
+    private int transactionsPerSecond;
+
+    private ManualClock clock;
+    private StatisticsService statsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clock = new ManualClock();
+        statsService = TestEngines.newService(engine, EXPIRY_INTERVAL, Runtime.getRuntime().availableProcessors(),
+                TestEngines.maxInputScale(numericMode, MAX_INPUT_SCALE), null, clock, false);
+    }
+
+    @Benchmark
+    public StatisticsQueryResult replaySecond() {
+        final long now = clock.epoch();
+        for (int i = 0; i < transactionsPerSecond; i++)
+            statsService.add(new StatisticsTransaction(AMOUNTS[i % AMOUNTS.length], now));
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        clock.advance(TICK);
+        return queryResult;
+    }
+}
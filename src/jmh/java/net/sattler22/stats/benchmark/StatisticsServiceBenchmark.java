@@ -0,0 +1,90 @@
+package net.sattler22.stats.benchmark;
+
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.config.StatisticsServiceProperties.NumericMode;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics Service Benchmarks
+ * <p>
+ * Every engine is queried against a pre-populated window. Use the {@code jmh.threads} Maven property to vary the
+ * number of concurrent benchmark threads. Adding transactions is measured by {@link StatisticsIngestBenchmark}, since
+ * the window would otherwise keep growing for as long as the benchmark runs.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatisticsServiceBenchmark {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofHours(1);  //Nothing expires during a run
+    private static final int CALC_SCALE = 2;
+    private static final RoundingMode CALC_ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int MAX_INPUT_SCALE = 4;
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("12.30"), new BigDecimal("0.99"), new BigDecimal("100"), new BigDecimal("57.125")
+    };
+
+    @Param({ "LIST", "BUCKETED", "STRIPED", "OFF_HEAP" })
+    private Engine engine;
+
+    @Param({ "DECIMAL", "SCALED_LONG" })
+    private NumericMode numericMode;
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    private int population;
+
+    private StatisticsService statsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statsService = TestEngines.newService(engine, EXPIRY_INTERVAL, Runtime.getRuntime().availableProcessors(),
+                TestEngines.maxInputScale(numericMode, MAX_INPUT_SCALE));
+        //Spread the window population across the first half of the expiry interval:
+        final long now = Instant.now().getEpochSecond();
+        final long spreadSecs = EXPIRY_INTERVAL.toSeconds() / 2;
+        for (int i = 0; i < population; i++)
+            statsService.add(new StatisticsTransaction(AMOUNTS[i % AMOUNTS.length], now - i % spreadSecs));
+    }
+
+    @Benchmark
+    public StatisticsQueryResult collect() {
+        return statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+    }
+
+    @Benchmark
+    public boolean hasTransactions() {
+        return statsService.hasTransactions();
+    }
+
+    @Benchmark
+    public void removeIfExpired() {
+        statsService.removeIfExpired();
+    }
+}
@@ -1,39 +1,106 @@
 package net.sattler22.stats;
 
+import net.sattler22.stats.config.StatisticsAdmissionProperties;
+import net.sattler22.stats.config.StatisticsClusterProperties;
+import net.sattler22.stats.config.StatisticsEventTimeProperties;
+import net.sattler22.stats.config.StatisticsIngestProperties;
+import net.sattler22.stats.config.StatisticsJournalProperties;
 import net.sattler22.stats.config.StatisticsServiceProperties;
+import net.sattler22.stats.config.StatisticsStreamProperties;
 import net.sattler22.stats.config.SwaggerProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.List;
+import java.util.OptionalLong;
 
 /**
  * Real-Time Statistics Application
+ * <p>
+ * Request handling and the scheduled expiry clean-up run on virtual threads when <i>spring.threads.virtual.enabled</i>
+ * is set. The statistics engines only use {@link java.util.concurrent.locks.ReentrantLock} and lock-free structures,
+ * so they never pin a carrier thread.
+ * <p>
+ * The start-up time and the resident set size are logged once the application is ready, so the start-up footprint
+ * of the plain, AOT-processed (with or without a CDS archive) and native builds can be compared.
  *
  * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
  * @author Pete Sattler
  * @since July 2018
- * @version May 2025
+ * @version October 2026
  */
 @SpringBootApplication
 @EnableConfigurationProperties(value = {
         StatisticsServiceProperties.class,
+        StatisticsJournalProperties.class,
+        StatisticsEventTimeProperties.class,
+        StatisticsStreamProperties.class,
+        StatisticsClusterProperties.class,
+        StatisticsAdmissionProperties.class,
+        StatisticsIngestProperties.class,
         SwaggerProperties.class
 })
 @EnableScheduling
 public class StatisticsApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(StatisticsApplication.class);
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final String RSS_PREFIX = "VmRSS:";
 
     public static void main(String[] args) {
-        SpringApplication.run(StatisticsApplication.class, args);
+        final ConfigurableApplicationContext context = SpringApplication.run(StatisticsApplication.class, args);
+        logThreads(context.getEnvironment());
+        logStartup();
         logMemory();
     }
 
+    private static void logThreads(Environment environment) {
+        final boolean virtualThreads = environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, Boolean.FALSE);
+        logger.info("Request handling and scheduling use {} threads", virtualThreads ? "virtual" : "platform");
+    }
+
+    private static void logStartup() {
+        if (logger.isInfoEnabled()) {
+            final NumberFormat numberFormat = NumberFormat.getInstance();
+            final OptionalLong residentSetSize = residentSetSize();
+            logger.info("Ready {} ms after the JVM started", numberFormat.format(ManagementFactory.getRuntimeMXBean().getUptime()));
+            logger.info("Resident set size: {}", residentSetSize.isPresent() ?
+                    numberFormat.format(residentSetSize.getAsLong() / 1024) + " MB" : "unavailable");
+        }
+    }
+
+    /**
+     * Get the resident set size of the process (in kilobytes)
+     *
+     * @return The resident set size or empty if it is not available (only Linux reports it)
+     */
+    private static OptionalLong residentSetSize() {
+        try {
+            if (Files.isReadable(PROC_STATUS)) {
+                final List<String> lines = Files.readAllLines(PROC_STATUS);
+                for (final String line : lines)
+                    if (line.startsWith(RSS_PREFIX))  //e.g. "VmRSS:    123456 kB"
+                        return OptionalLong.of(Long.parseLong(line.substring(RSS_PREFIX.length()).replace("kB", "").strip()));
+            }
+        }
+        catch (IOException | NumberFormatException ex) {
+            logger.debug("Unable to read the resident set size", ex);
+        }
+        return OptionalLong.empty();
+    }
+
     private static void logMemory() {
         if (logger.isInfoEnabled()) {
             final Runtime runtime = Runtime.getRuntime();
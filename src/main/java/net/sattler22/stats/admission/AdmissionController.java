@@ -0,0 +1,276 @@
+package net.sattler22.stats.admission;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.exception.AdmissionException;
+import net.sattler22.stats.exception.BatchTooLargeException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Real-Time Statistics Admission Controller
+ * <p>
+ * Sheds load in front of the statistics service, so bursts are answered immediately instead of queueing up behind
+ * the writers. Two independent limits can be enabled:
+ * <ul>
+ *     <li>A token bucket bounds the ingestion rate (in transactions per second) while allowing short bursts. It is
+ *     implemented as a generic cell rate algorithm, i.e. a single theoretical arrival time advanced with a CAS, so
+ *     admission is lock-free. A request is admitted as long as the bucket is not empty and is then charged its full
+ *     weight, so a batch can run the bucket into debt (and delays the requests after it) instead of never fitting.
+ *     A batch heavier than the burst is rejected outright, since its debt alone would lock every client out.</li>
+ *     <li>A concurrency limit bounds the number of requests inside the service at any time. Permits are never waited
+ *     for.</li>
+ * </ul>
+ * The concurrency permit is taken before the bucket is charged (and released if the bucket turns out to be empty),
+ * so a request shed by either limit never runs the bucket into debt.
+ * A request that is not admitted is rejected with an {@link AdmissionException}, unless lossy mode is enabled: lossy
+ * permits are then handed out instead, so the caller can still count the transaction in the aggregates without
+ * retaining it.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class AdmissionController {
+
+    private static final long MAX_CHARGE_NANOS = TimeUnit.DAYS.toNanos(365);
+
+    /**
+     * Admission controller that admits every request
+     */
+    public static final AdmissionController UNLIMITED = new AdmissionController(0.0, 0L, 0, Duration.ofSeconds(1), false);
+
+    private final long intervalNanos;
+    private final long burst;
+    private final long toleranceNanos;  //How far the theoretical arrival time may run ahead of now
+    private final int maxConcurrency;
+    private final Semaphore concurrency;
+    private final Duration retryAfter;
+    private final boolean lossy;
+    private final AtomicLong theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder rateLimitedCount = new LongAdder();
+    private final LongAdder saturatedCount = new LongAdder();
+    private final LongAdder lossyCount = new LongAdder();
+    private final Permit releasingPermit;
+
+    /**
+     * Constructs a new admission controller
+     *
+     * @param rate The sustained ingestion rate in transactions per second (zero or less for no rate limit)
+     * @param burst The number of transactions that can be admitted at once above the sustained rate
+     * @param maxConcurrency The maximum number of requests inside the service (zero or less for no concurrency limit)
+     * @param retryAfter How long a client should wait before retrying when the service is saturated
+     * @param lossy True to hand out lossy permits instead of rejecting. Otherwise, false to reject.
+     */
+    public AdmissionController(double rate, long burst, int maxConcurrency, Duration retryAfter, boolean lossy) {
+        if (rate > 0.0 && burst < 1L)
+            throw new IllegalArgumentException("Burst must be at least one");
+        this.intervalNanos = rate > 0.0 ? Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / rate)) : 0L;
+        this.burst = intervalNanos > 0L ? burst : Long.MAX_VALUE;
+        this.toleranceNanos = toNanos(intervalNanos, burst - 1L);
+        this.maxConcurrency = maxConcurrency;
+        this.concurrency = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        this.retryAfter = Objects.requireNonNull(retryAfter, "Retry after is required");
+        this.lossy = lossy;
+        this.releasingPermit = concurrency == null ? Permit.ADMITTED : new Permit(false, concurrency);
+    }
+
+    /**
+     * Admit a request (never waits)
+     *
+     * @param weight The number of transactions in the request
+     * @return The permit, which must be closed once the request has been processed
+     * @throws AdmissionException If the request is not admitted (and lossy mode is disabled)
+     * @throws BatchTooLargeException If the request is heavier than the burst
+     */
+    public Permit acquire(long weight) {
+        return acquire(weight, lossy);
+    }
+
+    /**
+     * Admit a request whose transactions cannot be counted in the aggregates only, e.g. a batch (never waits)
+     *
+     * @param weight The number of transactions in the request
+     * @return The permit (never lossy), which must be closed once the request has been processed
+     * @throws AdmissionException If the request is not admitted (even in lossy mode)
+     * @throws BatchTooLargeException If the request is heavier than the burst
+     */
+    public Permit acquireStrict(long weight) {
+        return acquire(weight, false);
+    }
+
+    private Permit acquire(long weight, boolean lossyAllowed) {
+        checkWeight(weight);
+        if (concurrency != null && !concurrency.tryAcquire()) {
+            if (lossyAllowed)
+                return lossyPermit();
+            saturatedCount.increment();
+            throw new AdmissionException("Too many concurrent requests", false, retryAfter);
+        }
+        if (intervalNanos > 0L) {
+            final long delayNanos = tryConsume(Math.max(1L, weight));
+            if (delayNanos > 0L) {
+                if (concurrency != null)
+                    concurrency.release();
+                if (lossyAllowed)
+                    return lossyPermit();
+                rateLimitedCount.increment();
+                throw new AdmissionException("Ingestion rate exceeded", true, roundUpToSeconds(delayNanos));
+            }
+        }
+        return releasingPermit;
+    }
+
+    /**
+     * Check whether a request can ever be admitted
+     *
+     * @param weight The number of transactions in the request
+     * @throws BatchTooLargeException If the request is heavier than the burst
+     */
+    public void checkWeight(long weight) {
+        if (weight > burst)
+            throw new BatchTooLargeException(String.format("Batch of %d transactions exceeds the burst of %d", weight, burst));
+    }
+
+    /**
+     * Charge transactions that were only counted once the request had been admitted (e.g. of a stream)
+     *
+     * @param weight The number of additional transactions
+     */
+    public void charge(long weight) {
+        if (intervalNanos > 0L && weight > 0L) {
+            final long chargeNanos = toNanos(intervalNanos, weight);
+            theoreticalArrivalNanos.getAndAccumulate(chargeNanos, (tat, charge) -> Math.max(tat, System.nanoTime()) + charge);
+        }
+    }
+
+    /**
+     * Refund transactions that were charged, but were never applied (e.g. of a batch that turned out to be too large)
+     *
+     * @param weight The number of refunded transactions
+     */
+    public void refund(long weight) {
+        if (intervalNanos > 0L && weight > 0L)
+            theoreticalArrivalNanos.addAndGet(-toNanos(intervalNanos, weight));
+    }
+
+    /**
+     * Try to consume tokens from the bucket
+     *
+     * @return Zero if the tokens were consumed. Otherwise, how long it takes until the bucket is no longer empty.
+     */
+    private long tryConsume(long weight) {
+        final long chargeNanos = toNanos(intervalNanos, weight);
+        while (true) {
+            final long now = System.nanoTime();
+            final long tat = theoreticalArrivalNanos.get();
+            final long backlogNanos = tat - now;
+            if (backlogNanos > toleranceNanos)
+                return backlogNanos - toleranceNanos;
+            if (theoreticalArrivalNanos.compareAndSet(tat, Math.max(tat, now) + chargeNanos))
+                return 0L;
+        }
+    }
+
+    /**
+     * Get the emission interval of a number of transactions (saturated well below overflow, so it can still be added to
+     * a nano time)
+     */
+    private static long toNanos(long intervalNanos, long weight) {
+        try {
+            return Math.min(Math.multiplyExact(intervalNanos, weight), MAX_CHARGE_NANOS);
+        }
+        catch (ArithmeticException e) {
+            return MAX_CHARGE_NANOS;
+        }
+    }
+
+    private Permit lossyPermit() {
+        lossyCount.increment();
+        return Permit.LOSSY;
+    }
+
+    private static Duration roundUpToSeconds(long nanos) {
+        return Duration.ofSeconds(Math.ceilDiv(nanos, TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Get the number of requests rejected because the ingestion rate was exceeded
+     *
+     * @return The number of rate-limited requests
+     */
+    public long rateLimitedCount() {
+        return rateLimitedCount.sum();
+    }
+
+    /**
+     * Get the number of requests rejected because the service was saturated
+     *
+     * @return The number of requests rejected by the concurrency limit
+     */
+    public long saturatedCount() {
+        return saturatedCount.sum();
+    }
+
+    /**
+     * Get the number of lossy permits handed out
+     *
+     * @return The number of requests that were not admitted in lossy mode
+     */
+    public long lossyCount() {
+        return lossyCount.sum();
+    }
+
+    /**
+     * Get the number of requests inside the service
+     *
+     * @return The number of concurrency permits in use (always zero without a concurrency limit)
+     */
+    public int inFlight() {
+        return concurrency == null ? 0 : maxConcurrency - concurrency.availablePermits();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [intervalNanos=%d, burst=%d, maxConcurrency=%d, lossy=%s]",
+                getClass().getSimpleName(), intervalNanos, burst, maxConcurrency, lossy);
+    }
+
+    /**
+     * Admission Permit
+     * <p>
+     * Closing the permit releases its concurrency permit (if any).
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private static final Permit ADMITTED = new Permit(false, null);
+        private static final Permit LOSSY = new Permit(true, null);
+        private final boolean lossy;
+        private final Semaphore concurrency;
+
+        private Permit(boolean lossy, Semaphore concurrency) {
+            this.lossy = lossy;
+            this.concurrency = concurrency;
+        }
+
+        /**
+         * Lossy permit check
+         *
+         * @return True if the request was not admitted, but may still be counted in the aggregates. Otherwise, returns
+         *         false if the request was admitted.
+         */
+        public boolean isLossy() {
+            return lossy;
+        }
+
+        @Override
+        public void close() {
+            if (concurrency != null)
+                concurrency.release();
+        }
+    }
+}
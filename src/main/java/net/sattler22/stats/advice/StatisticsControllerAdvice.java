@@ -2,6 +2,8 @@ package net.sattler22.stats.advice;
 
 import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.NotNull;
+import net.sattler22.stats.exception.AdmissionException;
+import net.sattler22.stats.exception.BatchTooLargeException;
 import net.sattler22.stats.exception.ExpirationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -12,27 +14,47 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+import tools.jackson.core.JacksonException;
 
 /**
  * Real-Time Statistics REST Controller Exception Aspect
  *
  * @author Pete Sattler
  * @since March 2022
- * @version November 2025
+ * @version October 2026
  */
 @RestControllerAdvice
 public final class StatisticsControllerAdvice extends ResponseEntityExceptionHandler {
 
+    @ExceptionHandler(AdmissionException.class)
+    public ResponseEntity<Object> handleAdmissionException(AdmissionException exception, WebRequest webRequest) {
+        final HttpStatus statusCode = exception.isRateLimited() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1L, exception.retryAfter().toSeconds())));
+        //Not logged, since shed requests are counted by the admission meters and arrive in bursts:
+        return super.handleExceptionInternal(exception, problemDetail(exception, statusCode), headers, statusCode, webRequest);
+    }
+
     @ExceptionHandler(ArithmeticException.class)
     public ResponseEntity<Object> handleArithmeticException(ArithmeticException exception, WebRequest webRequest) {
         return handleExceptionImpl(exception, HttpStatus.PRECONDITION_FAILED, webRequest);
     }
 
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Object> handleBatchTooLargeException(BatchTooLargeException exception, WebRequest webRequest) {
+        return handleExceptionImpl(exception, HttpStatus.CONTENT_TOO_LARGE, webRequest);
+    }
+
     @ExceptionHandler(ExpirationException.class)
     public ResponseEntity<Object> handleExpirationException(ExpirationException exception, WebRequest webRequest) {
         return handleExceptionImpl(exception, HttpStatus.CONFLICT, webRequest);
     }
 
+    @ExceptionHandler(JacksonException.class)
+    public ResponseEntity<Object> handleJacksonException(JacksonException exception, WebRequest webRequest) {
+        return handleExceptionImpl(exception, HttpStatus.BAD_REQUEST, webRequest);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<Object> handleValidationException(ValidationException exception, WebRequest webRequest) {
         return handleExceptionImpl(exception, HttpStatus.UNPROCESSABLE_CONTENT, webRequest);
@@ -48,12 +70,17 @@ public final class StatisticsControllerAdvice extends ResponseEntityExceptionHan
      */
     private ResponseEntity<Object> handleExceptionImpl(@NotNull Exception exception, @NotNull HttpStatusCode statusCode,
                                                        @NotNull WebRequest webRequest) {
-        final ProblemDetail body = ProblemDetail.forStatusAndDetail(statusCode, exception.getMessage());
-        body.setProperty("timestamp", System.currentTimeMillis());
+        final ProblemDetail body = problemDetail(exception, statusCode);
         if (statusCode.is5xxServerError())
             logger.error(exception.getMessage(), exception);
         else
             logger.warn(exception.getMessage());
         return super.handleExceptionInternal(exception, body, HttpHeaders.EMPTY, statusCode, webRequest);
     }
+
+    private static ProblemDetail problemDetail(Exception exception, HttpStatusCode statusCode) {
+        final ProblemDetail body = ProblemDetail.forStatusAndDetail(statusCode, exception.getMessage());
+        body.setProperty("timestamp", System.currentTimeMillis());
+        return body;
+    }
 }
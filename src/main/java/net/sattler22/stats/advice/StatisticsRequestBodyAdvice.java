@@ -0,0 +1,69 @@
+package net.sattler22.stats.advice;
+
+import net.sattler22.stats.controller.StatisticsController;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Real-Time Statistics REST Controller Request Body Aspect
+ * <p>
+ * Times how long it takes to parse (deserialize) each request body.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ControllerAdvice(assignableTypes = StatisticsController.class)
+public final class StatisticsRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final StatisticsMetricsRecorder metricsRecorder;
+
+    StatisticsRequestBodyAdvice(ObjectProvider<StatisticsMetricsRecorder> metricsRecorderProvider) {
+        this.metricsRecorder = metricsRecorderProvider.getIfAvailable(() -> StatisticsMetricsRecorder.NOOP);
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        return new TimedInputMessage(inputMessage, System.nanoTime());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (inputMessage instanceof TimedInputMessage timedInputMessage)
+            metricsRecorder.recordParse(System.nanoTime() - timedInputMessage.startNanos());
+        return body;
+    }
+
+    /**
+     * Input message that remembers when its body started being read
+     */
+    private record TimedInputMessage(HttpInputMessage delegate, long startNanos) implements HttpInputMessage {
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
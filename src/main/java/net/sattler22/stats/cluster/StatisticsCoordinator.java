@@ -0,0 +1,223 @@
+package net.sattler22.stats.cluster;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Real-Time Statistics Cluster Coordinator
+ * <p>
+ * Every node exports the per-second partials of its own live window in CBOR. The coordinator pulls the partials of
+ * every peer concurrently and merges them with its own into one global query result. The fan-out never waits longer
+ * than the timeout: a peer that has not answered by then (or has failed) contributes the last partials it returned,
+ * whose expired buckets are skipped by the merge.
+ * <p>
+ * Peer partials are cached for the cache time-to-live, so frequent global queries only fan out once per interval,
+ * and concurrent queries share the same in-flight requests. A peer that is down is only reported once (when its
+ * first pull fails) until it answers again.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class StatisticsCoordinator implements AutoCloseable {
+
+    /**
+     * Path of the partials endpoint (relative to the statistics API base path)
+     */
+    public static final String PARTIALS_PATH = "/statistics/partials";
+    private static final String API_BASE_PATH = "/stats-api/v2";  //See StatisticsController
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsCoordinator.class);
+    private static final String APPLICATION_CBOR_VALUE = "application/cbor";
+    private final StatisticsService statisticsService;
+    private final List<URI> peerPartialsUris;
+    private final Duration timeout;
+    private final long cacheTtlNanos;
+    private final HttpClient httpClient;
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final ConcurrentMap<URI, PeerPartials> peerPartials = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new statistics coordinator
+     *
+     * @param statisticsService The statistics service
+     * @param peers The base URLs of the other nodes (e.g. {@code http://localhost:8081})
+     * @param timeout The maximum time a global query waits for the peers
+     * @param cacheTtl How long the partials of a peer are reused before they are pulled again
+     */
+    public StatisticsCoordinator(StatisticsService statisticsService, List<URI> peers, Duration timeout, Duration cacheTtl) {
+        this.statisticsService = Objects.requireNonNull(statisticsService, "Statistics service is required");
+        this.peerPartialsUris = Objects.requireNonNull(peers, "Peers are required").stream()
+                .map(StatisticsCoordinator::toPartialsUri)
+                .toList();
+        this.timeout = Objects.requireNonNull(timeout, "Timeout is required");
+        this.cacheTtlNanos = Objects.requireNonNull(cacheTtl, "Cache time-to-live is required").toNanos();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    private static URI toPartialsUri(URI peer) {
+        final String baseUrl = peer.toString();
+        return URI.create((baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl) + API_BASE_PATH + PARTIALS_PATH);
+    }
+
+    /**
+     * Export the partials of this node
+     *
+     * @return The CBOR-encoded partials of the live window
+     */
+    public byte[] exportPartials() {
+        return cborMapper.writeValueAsBytes(statisticsService.collectPartials());
+    }
+
+    /**
+     * Collect the statistics of the whole cluster
+     *
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The statistics based on the real-time transactions of every node
+     */
+    public StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode) {
+        return statisticsService.collect(pullPeerPartials(), calcScale, calcRoundingMode);
+    }
+
+    /**
+     * Pull the partials of every peer (reusing the cached partials until they are due)
+     *
+     * @return The latest partials of every peer that has answered at least once
+     */
+    List<StatisticsPartials> pullPeerPartials() {
+        final long now = System.nanoTime();
+        final List<PeerPartials> pulls = new ArrayList<>(peerPartialsUris.size());
+        for (final URI partialsUri : peerPartialsUris)
+            pulls.add(peerPartials.compute(partialsUri, (uri, cached) ->
+                    cached != null && now - cached.requestedNanos < cacheTtlNanos ? cached :
+                            new PeerPartials(uri, request(uri), now, cached)));
+        final long deadline = now + timeout.toNanos();
+        final List<StatisticsPartials> partials = new ArrayList<>(pulls.size());
+        for (final PeerPartials pull : pulls) {
+            final StatisticsPartials latest = pull.await(deadline);
+            if (latest != null)
+                partials.add(latest);
+        }
+        if (logger.isDebugEnabled())
+            logger.debug("Pulled the partials of [{}] of [{}] peers, elapsed time: {} ns", partials.size(),
+                    pulls.size(), System.nanoTime() - now);
+        return partials;
+    }
+
+    private CompletableFuture<StatisticsPartials> request(URI partialsUri) {
+        final HttpRequest request = HttpRequest.newBuilder(partialsUri)
+                .header("Accept", APPLICATION_CBOR_VALUE)
+                .timeout(timeout)
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200)
+                        throw new IllegalStateException(String.format("Peer [%s] answered with status %d",
+                                partialsUri, response.statusCode()));
+                    return cborMapper.readValue(response.body(), StatisticsPartials.class);
+                });
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [peers=%s, timeout=%s]", getClass().getSimpleName(), peerPartialsUris, timeout);
+    }
+
+    /**
+     * The latest pull of a peer's partials
+     */
+    private static final class PeerPartials {
+
+        private final URI partialsUri;
+        private final CompletableFuture<StatisticsPartials> pending;
+        private final long requestedNanos;
+        private final StatisticsPartials previous;
+        private final boolean wasDown;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        /**
+         * Constructs a new pull of a peer's partials
+         *
+         * @param partialsUri The URI of the peer's partials
+         * @param pending The partials being pulled
+         * @param requestedNanos When the pull was requested
+         * @param previousPull The previous pull (or null if there is none)
+         */
+        private PeerPartials(URI partialsUri, CompletableFuture<StatisticsPartials> pending, long requestedNanos,
+                             PeerPartials previousPull) {
+            this.partialsUri = partialsUri;
+            this.pending = pending;
+            this.requestedNanos = requestedNanos;
+            this.previous = previousPull == null ? null : previousPull.latest();
+            this.wasDown = previousPull != null && previousPull.isDown();
+        }
+
+        /**
+         * Get the partials that are available now (without waiting)
+         */
+        private StatisticsPartials latest() {
+            return pending.isDone() && !pending.isCompletedExceptionally() ? pending.join() : previous;
+        }
+
+        /**
+         * Down check (a pull that has failed or is still outstanding once the next one is due)
+         */
+        private boolean isDown() {
+            return !pending.isDone() || pending.isCompletedExceptionally();
+        }
+
+        /**
+         * Wait for the partials until the deadline
+         */
+        private StatisticsPartials await(long deadline) {
+            try {
+                final StatisticsPartials partials = pending.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (wasDown && reported.compareAndSet(false, true))
+                    logger.info("Peer [{}] is up again", partialsUri);
+                return partials;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return previous;
+            }
+            catch (ExecutionException | TimeoutException e) {
+                //Only once per peer until it answers again (rather than on every query):
+                if (!wasDown && reported.compareAndSet(false, true))
+                    logger.warn("Peer [{}] is down, using its previous partials until it answers again: {}", partialsUri, e.toString());
+                else if (logger.isDebugEnabled())
+                    logger.debug("Using the previous partials of peer [{}]: {}", partialsUri, e.toString());
+                return previous;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.sattler22.stats.config;
+
+import net.sattler22.stats.admission.AdmissionController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Real-Time Statistics Admission Control Configuration
+ *
+ * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@Configuration
+public class StatisticsAdmissionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsAdmissionConfig.class);
+
+    @Bean
+    public AdmissionController admissionController(StatisticsAdmissionProperties admissionProperties) {
+        if (!admissionProperties.enabled())
+            return AdmissionController.UNLIMITED;
+        logger.info("Admission Control Rate: {} transactions/second", admissionProperties.rate());
+        logger.info("Admission Control Burst: {} transactions", admissionProperties.burst());
+        logger.info("Admission Control Maximum Concurrency: {}", admissionProperties.maxConcurrency());
+        logger.info("Admission Control Retry After: {} seconds", admissionProperties.retryAfter().toSeconds());
+        logger.info("Admission Control Lossy Mode: {}", admissionProperties.lossy());
+        return new AdmissionController(admissionProperties.rate(), admissionProperties.burst(),
+                admissionProperties.maxConcurrency(), admissionProperties.retryAfter(), admissionProperties.lossy());
+    }
+}
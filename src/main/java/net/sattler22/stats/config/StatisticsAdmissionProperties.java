@@ -0,0 +1,26 @@
+package net.sattler22.stats.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Admission Control Properties
+ *
+ * @param enabled True to shed load in front of the statistics service. Otherwise, false to admit every request.
+ * @param rate The sustained ingestion rate in transactions per second (zero for no rate limit)
+ * @param burst The number of transactions admitted at once above the sustained rate
+ * @param maxConcurrency The maximum number of ingestion requests inside the service (zero for no concurrency limit)
+ * @param retryAfter How long a client should wait before retrying when the service is saturated
+ * @param lossy True to count the transactions of requests that are not admitted in the aggregates only (without
+ *              retaining them). Otherwise, false to reject them.
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.admission")
+public record StatisticsAdmissionProperties(@DefaultValue("false") boolean enabled, @DefaultValue("0") double rate,
+                                            @DefaultValue("100") long burst, @DefaultValue("0") int maxConcurrency,
+                                            @DefaultValue("1s") Duration retryAfter,
+                                            @DefaultValue("false") boolean lossy) {
+}
@@ -0,0 +1,31 @@
+package net.sattler22.stats.config;
+
+import net.sattler22.stats.cluster.StatisticsCoordinator;
+import net.sattler22.stats.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Real-Time Statistics Cluster Configuration
+ *
+ * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@Configuration
+public class StatisticsClusterConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsClusterConfig.class);
+
+    @Bean
+    public StatisticsCoordinator statisticsCoordinator(StatisticsService statisticsService,
+                                                       StatisticsClusterProperties clusterProperties) {
+        logger.info("Statistics Cluster Peers: {}", clusterProperties.peers());
+        logger.info("Statistics Cluster Timeout: {} ms", clusterProperties.timeout().toMillis());
+        logger.info("Statistics Cluster Cache Time-to-Live: {} ms", clusterProperties.cacheTtl().toMillis());
+        return new StatisticsCoordinator(statisticsService, clusterProperties.peers(), clusterProperties.timeout(),
+                clusterProperties.cacheTtl());
+    }
+}
@@ -0,0 +1,22 @@
+package net.sattler22.stats.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Real-Time Statistics Cluster Properties
+ *
+ * @param peers The base URLs of the other nodes whose partials are merged into the global statistics
+ * @param timeout The maximum time a global query waits for the peers
+ * @param cacheTtl How long the partials of a peer are reused before they are pulled again
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.cluster")
+public record StatisticsClusterProperties(@DefaultValue List<URI> peers, @DefaultValue("250ms") Duration timeout,
+                                          @DefaultValue("1s") Duration cacheTtl) {
+}
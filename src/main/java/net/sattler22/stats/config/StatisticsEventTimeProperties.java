@@ -0,0 +1,20 @@
+package net.sattler22.stats.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Event-Time Ingestion Properties
+ *
+ * @param enabled True to bound the accepted event times and count late and future transactions on side counters
+ * @param allowedLateness How far behind the current second a transaction is still accepted (null means the expiration interval)
+ * @param allowedSkew How far ahead of the current second a transaction is still accepted
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.event-time")
+public record StatisticsEventTimeProperties(@DefaultValue("false") boolean enabled, Duration allowedLateness,
+                                            @DefaultValue("5s") Duration allowedSkew) {
+}
@@ -0,0 +1,42 @@
+package net.sattler22.stats.config;
+
+import net.sattler22.stats.ingest.AsyncTransactionIngestor;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Real-Time Statistics Ingestion Configuration
+ *
+ * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@Configuration
+public class StatisticsIngestConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsIngestConfig.class);
+
+    /**
+     * The ingestor is closed (draining its ring buffer) when the context is closed, i.e. after the web server has
+     * stopped taking requests and before the statistics service and its journal are destroyed
+     */
+    @Bean
+    @ConditionalOnProperty(name = "stats-api.ingest.async", havingValue = "true")
+    public AsyncTransactionIngestor asyncTransactionIngestor(StatisticsService statisticsService,
+                                                             ObjectProvider<StatisticsMetricsRecorder> metricsRecorderProvider,
+                                                             StatisticsIngestProperties ingestProperties) {
+        logger.info("Asynchronous Ingestion Buffer Size: {} transactions", ingestProperties.bufferSize());
+        logger.info("Asynchronous Ingestion Batch Size: {} transactions", ingestProperties.batchSize());
+        logger.info("Asynchronous Ingestion Wait Strategy: {}", ingestProperties.waitStrategy());
+        logger.info("Asynchronous Ingestion Drain Timeout: {} ms", ingestProperties.drainTimeout().toMillis());
+        return new AsyncTransactionIngestor(statisticsService,
+                metricsRecorderProvider.getIfAvailable(() -> StatisticsMetricsRecorder.NOOP), ingestProperties.bufferSize(),
+                ingestProperties.batchSize(), ingestProperties.waitStrategy(), ingestProperties.drainTimeout());
+    }
+}
@@ -0,0 +1,26 @@
+package net.sattler22.stats.config;
+
+import net.sattler22.stats.ingest.AsyncTransactionIngestor.WaitStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Ingestion Properties
+ *
+ * @param async True to publish single transactions into a ring buffer applied by a single writer thread. Otherwise,
+ *              false to apply them on the request threads.
+ * @param bufferSize The number of transactions the ring buffer can hold (a power of two)
+ * @param batchSize The maximum number of transactions the writer applies at once
+ * @param waitStrategy How the writer waits for new transactions
+ * @param drainTimeout The maximum time spent applying the transactions left in the ring buffer at shutdown
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.ingest")
+public record StatisticsIngestProperties(@DefaultValue("false") boolean async, @DefaultValue("65536") int bufferSize,
+                                         @DefaultValue("1024") int batchSize,
+                                         @DefaultValue("BLOCKING") WaitStrategy waitStrategy,
+                                         @DefaultValue("10s") Duration drainTimeout) {
+}
@@ -0,0 +1,24 @@
+package net.sattler22.stats.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Transaction Journal Properties
+ *
+ * @param enabled True to journal every accepted transaction and replay the journal at startup
+ * @param directory The directory holding the journal segments
+ * @param segmentSize The size of each journal segment
+ * @param flushInterval How often the journal is forced to disk (group commit)
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.journal")
+public record StatisticsJournalProperties(@DefaultValue("false") boolean enabled, @DefaultValue("journal") Path directory,
+                                          @DefaultValue("64MB") DataSize segmentSize,
+                                          @DefaultValue("10ms") Duration flushInterval) {
+}
@@ -0,0 +1,56 @@
+package net.sattler22.stats.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.sattler22.stats.admission.AdmissionController;
+import net.sattler22.stats.ingest.AsyncTransactionIngestor;
+import net.sattler22.stats.metrics.MicrometerStatisticsMetricsRecorder;
+import net.sattler22.stats.metrics.StatisticsAdmissionMeterBinder;
+import net.sattler22.stats.metrics.StatisticsIngestMeterBinder;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.metrics.StatisticsServiceMeterBinder;
+import net.sattler22.stats.metrics.StatisticsStreamMeterBinder;
+import net.sattler22.stats.service.EventTimePolicy;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.stream.StatisticsStreamPublisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Real-Time Statistics Metrics Configuration
+ *
+ * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@Configuration
+public class StatisticsMetricsConfig {
+
+    @Bean
+    public StatisticsMetricsRecorder statisticsMetricsRecorder(MeterRegistry meterRegistry) {
+        return new MicrometerStatisticsMetricsRecorder(meterRegistry);
+    }
+
+    @Bean
+    public StatisticsServiceMeterBinder statisticsServiceMeterBinder(StatisticsService statisticsService,
+                                                                     ObjectProvider<EventTimePolicy> eventTimePolicyProvider) {
+        return new StatisticsServiceMeterBinder(statisticsService, eventTimePolicyProvider.getIfAvailable());
+    }
+
+    @Bean
+    public StatisticsAdmissionMeterBinder statisticsAdmissionMeterBinder(AdmissionController admissionController) {
+        return new StatisticsAdmissionMeterBinder(admissionController);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "stats-api.ingest.async", havingValue = "true")
+    public StatisticsIngestMeterBinder statisticsIngestMeterBinder(AsyncTransactionIngestor ingestor) {
+        return new StatisticsIngestMeterBinder(ingestor);
+    }
+
+    @Bean
+    public StatisticsStreamMeterBinder statisticsStreamMeterBinder(StatisticsStreamPublisher streamPublisher) {
+        return new StatisticsStreamMeterBinder(streamPublisher);
+    }
+}
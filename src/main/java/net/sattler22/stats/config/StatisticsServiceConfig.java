@@ -1,19 +1,31 @@
 package net.sattler22.stats.config;
 
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.journal.MappedTransactionJournal;
+import net.sattler22.stats.journal.TransactionJournal;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.EventTimePolicy;
 import net.sattler22.stats.service.StatisticsService;
 import net.sattler22.stats.service.StatisticsServiceImpl;
+import net.sattler22.stats.time.CoarseClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.time.Duration;
+
 /**
  * Real-Time Statistics Service Configuration
  *
  * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
  * @author Pete Sattler
  * @since July 2018
- * @version May 2025
+ * @version October 2026
  */
 @Configuration
 public class StatisticsServiceConfig {
@@ -21,9 +33,108 @@ public class StatisticsServiceConfig {
     private static final Logger logger = LoggerFactory.getLogger(StatisticsServiceConfig.class);
 
     @Bean
-    public StatisticsService statisticsService(StatisticsServiceProperties statsServiceProperties) {
+    public StatisticsService statisticsService(StatisticsServiceProperties statsServiceProperties,
+                                               ObjectProvider<StatisticsMetricsRecorder> metricsRecorderProvider,
+                                               TransactionJournal transactionJournal,
+                                               ObjectProvider<EventTimePolicy> eventTimePolicyProvider,
+                                               Clock statisticsClock) {
         logger.info("Transaction Expiry Interval: {} seconds", statsServiceProperties.expiryInterval().toSeconds());
         logger.info("Transaction Expiry Clean-up Interval: {} seconds", statsServiceProperties.expiryCleanUpInterval().toSeconds());
-        return new StatisticsServiceImpl(statsServiceProperties.expiryInterval());
+        logger.info("Statistics Service Engine: {}", statsServiceProperties.engine());
+        final int maxInputScale = maxInputScale(statsServiceProperties);
+        logger.info("Statistics Service Distribution Sketch: {}", statsServiceProperties.distribution() ? "enabled" : "disabled");
+        final StatisticsMetricsRecorder metricsRecorder = metricsRecorderProvider.getIfAvailable(() -> StatisticsMetricsRecorder.NOOP);
+        final EventTimePolicy eventTimePolicy = eventTimePolicyProvider.getIfAvailable();
+        final StatisticsService statisticsService = switch (statsServiceProperties.engine()) {
+            case LIST, OFF_HEAP -> {
+                final int collectParallelism = collectParallelism(statsServiceProperties);
+                yield new StatisticsServiceImpl(statsServiceProperties.expiryInterval(), maxInputScale, metricsRecorder,
+                        transactionJournal, statsServiceProperties.engine() == Engine.OFF_HEAP, collectParallelism,
+                        statsServiceProperties.parallelCollectThreshold(), eventTimePolicy, statisticsClock,
+                        statsServiceProperties.distribution());
+            }
+            case BUCKETED -> new BucketedStatisticsServiceImpl(statsServiceProperties.expiryInterval(), 1, maxInputScale,
+                    metricsRecorder, transactionJournal, eventTimePolicy, statisticsClock, statsServiceProperties.distribution());
+            case STRIPED -> {
+                final int stripes = stripeCount(statsServiceProperties.stripes());
+                logger.info("Statistics Service Ingestion Stripes: {}", stripes);
+                yield new BucketedStatisticsServiceImpl(statsServiceProperties.expiryInterval(), stripes, maxInputScale,
+                        metricsRecorder, transactionJournal, eventTimePolicy, statisticsClock,
+                        statsServiceProperties.distribution());
+            }
+        };
+        transactionJournal.recover(statisticsService::addAll);
+        return statisticsService;
+    }
+
+    @Bean
+    public Clock statisticsClock(StatisticsServiceProperties statsServiceProperties) {
+        final Duration clockTick = statsServiceProperties.clockTick();
+        if (clockTick.isZero() || clockTick.isNegative()) {
+            logger.info("Statistics Clock: system");
+            return Clock.systemUTC();
+        }
+        logger.info("Statistics Clock Tick: {} ms", clockTick.toMillis());
+        return new CoarseClock(clockTick);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "stats-api.event-time.enabled", havingValue = "true")
+    public EventTimePolicy eventTimePolicy(StatisticsEventTimeProperties eventTimeProperties,
+                                           StatisticsServiceProperties statsServiceProperties) {
+        final Duration allowedLateness = eventTimeProperties.allowedLateness() == null ?
+                statsServiceProperties.expiryInterval() : eventTimeProperties.allowedLateness();
+        logger.info("Event-Time Allowed Lateness: {} seconds", allowedLateness.toSeconds());
+        logger.info("Event-Time Allowed Skew: {} seconds", eventTimeProperties.allowedSkew().toSeconds());
+        return new EventTimePolicy(statsServiceProperties.expiryInterval(), allowedLateness, eventTimeProperties.allowedSkew());
+    }
+
+    @Bean
+    public TransactionJournal transactionJournal(StatisticsJournalProperties journalProperties,
+                                                 StatisticsServiceProperties statsServiceProperties,
+                                                 Clock statisticsClock) {
+        if (!journalProperties.enabled())
+            return TransactionJournal.NOOP;
+        logger.info("Transaction Journal Directory: {}", journalProperties.directory().toAbsolutePath());
+        logger.info("Transaction Journal Segment Size: {} MB", journalProperties.segmentSize().toMegabytes());
+        logger.info("Transaction Journal Flush Interval: {} ms", journalProperties.flushInterval().toMillis());
+        return new MappedTransactionJournal(journalProperties.directory(), statsServiceProperties.expiryInterval(),
+                journalProperties.segmentSize().toBytes(), statisticsClock);
+    }
+
+    /**
+     * Resolve the maximum input scale of the numeric mode
+     */
+    private static int maxInputScale(StatisticsServiceProperties statsServiceProperties) {
+        logger.info("Statistics Service Numeric Mode: {}", statsServiceProperties.numericMode());
+        return switch (statsServiceProperties.numericMode()) {
+            case DECIMAL -> StatisticsService.DECIMAL_ARITHMETIC;
+            case SCALED_LONG -> {
+                logger.info("Statistics Service Maximum Input Scale: {}", statsServiceProperties.maxInputScale());
+                yield statsServiceProperties.maxInputScale();
+            }
+        };
+    }
+
+    /**
+     * Resolve the number of threads rebuilding the live window in parallel
+     */
+    private static int collectParallelism(StatisticsServiceProperties statsServiceProperties) {
+        if (statsServiceProperties.parallelCollectThreshold() <= 0L)
+            return 0;
+        final int collectParallelism = statsServiceProperties.collectParallelism() > 0 ?
+                statsServiceProperties.collectParallelism() : Runtime.getRuntime().availableProcessors();
+        logger.info("Statistics Service Parallel Collect Threshold: {} transactions", statsServiceProperties.parallelCollectThreshold());
+        logger.info("Statistics Service Collect Parallelism: {}", collectParallelism);
+        return collectParallelism;
+    }
+
+    /**
+     * Resolve the number of ingestion stripes
+     *
+     * @param stripes The configured number of stripes (zero or less means one per available processor)
+     */
+    private static int stripeCount(int stripes) {
+        return stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
     }
 }
@@ -1,6 +1,7 @@
 package net.sattler22.stats.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 import java.time.Duration;
 
@@ -9,8 +10,57 @@ import java.time.Duration;
  *
  * @author Pete Sattler
  * @since March 2022
- * @version May 2025
+ * @version October 2026
  */
 @ConfigurationProperties(prefix = "stats-api.service")
-public record StatisticsServiceProperties(Duration expiryInterval, Duration expiryCleanUpInterval) {
+public record StatisticsServiceProperties(Duration expiryInterval, Duration expiryCleanUpInterval,
+                                          @DefaultValue("LIST") Engine engine, @DefaultValue("0") int stripes,
+                                          @DefaultValue("DECIMAL") NumericMode numericMode,
+                                          @DefaultValue("4") int maxInputScale,
+                                          @DefaultValue("0") long parallelCollectThreshold,
+                                          @DefaultValue("0") int collectParallelism,
+                                          @DefaultValue("10ms") Duration clockTick,
+                                          @DefaultValue("false") boolean distribution) {
+
+    /**
+     * Real-Time Statistics Service Engine
+     */
+    public enum Engine {
+
+        /**
+         * Keeps every transaction until it is cleaned up (time and memory grow with the transaction rate)
+         */
+        LIST,
+
+        /**
+         * Aggregates transactions into per-second buckets (constant time and memory)
+         */
+        BUCKETED,
+
+        /**
+         * Aggregates transactions into per-second buckets spread across several ingestion stripes (scales with cores)
+         */
+        STRIPED,
+
+        /**
+         * Keeps every transaction as a raw record in off-heap memory (the Java heap stays flat for very large windows)
+         */
+        OFF_HEAP
+    }
+
+    /**
+     * Real-Time Statistics Numeric Mode
+     */
+    public enum NumericMode {
+
+        /**
+         * All arithmetic is done using BigDecimal
+         */
+        DECIMAL,
+
+        /**
+         * Amounts up to the maximum input scale are aggregated as scaled longs (falls back to BigDecimal on overflow)
+         */
+        SCALED_LONG
+    }
 }
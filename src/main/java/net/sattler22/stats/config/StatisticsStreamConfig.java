@@ -0,0 +1,32 @@
+package net.sattler22.stats.config;
+
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.stream.StatisticsStreamPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Real-Time Statistics Stream Configuration
+ *
+ * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@Configuration
+public class StatisticsStreamConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsStreamConfig.class);
+
+    @Bean
+    public StatisticsStreamPublisher statisticsStreamPublisher(StatisticsService statisticsService, JsonMapper jsonMapper,
+                                                               StatisticsStreamProperties statsStreamProperties) {
+        logger.info("Statistics Stream Tick Interval: {} ms", statsStreamProperties.tickInterval().toMillis());
+        logger.info("Statistics Stream Buffer Size: {} events", statsStreamProperties.bufferSize());
+        logger.info("Statistics Stream Maximum Subscribers: {}", statsStreamProperties.maxSubscribers());
+        return new StatisticsStreamPublisher(statisticsService, jsonMapper, statsStreamProperties.bufferSize(),
+                statsStreamProperties.maxSubscribers(), statsStreamProperties.timeout());
+    }
+}
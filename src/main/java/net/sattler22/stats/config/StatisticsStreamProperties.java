@@ -0,0 +1,21 @@
+package net.sattler22.stats.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Stream Properties
+ *
+ * @param tickInterval How often the statistics are collected and pushed to every subscriber
+ * @param bufferSize The maximum number of events queued per subscriber before it is dropped as a slow consumer
+ * @param maxSubscribers The maximum number of concurrent subscribers
+ * @param timeout How long a subscription stays open before the client has to reconnect
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ConfigurationProperties(prefix = "stats-api.stream")
+public record StatisticsStreamProperties(@DefaultValue("1s") Duration tickInterval, @DefaultValue("8") int bufferSize,
+                                         @DefaultValue("1000") int maxSubscribers, @DefaultValue("30m") Duration timeout) {
+}
@@ -7,18 +7,23 @@ import io.swagger.v3.oas.models.servers.Server;
 import jakarta.servlet.ServletContext;
 import net.sattler22.stats.annotation.StatisticsAPI;
 import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Real-Time Statistics API Swagger Configuration
+ * <p>
+ * Left out along with the rest of SpringDoc when <i>springdoc.api-docs.enabled</i> is set to false (see the
+ * {@code lean} profile), which saves its start-up time and memory.
  *
  * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
  * @author Pete Sattler
  * @since March 2022
- * @version May 2025
+ * @version October 2026
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
     private final SwaggerProperties swaggerProperties;
@@ -0,0 +1,153 @@
+package net.sattler22.stats.controller;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Real-Time Statistics Query Result Encoder
+ * <p>
+ * Encodes query results as JSON, CBOR or Smile. The statistics service hands out the same result instance for as
+ * long as the statistics are unchanged, so the encoded body (along with its entity tag) is cached per encoding,
+ * calculation scale, rounding mode and query options, and only re-encoded once a new result shows up. Cached bodies
+ * are written to the response as they are.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class QueryResultEncoder {
+
+    static final int MAX_CACHED_BODIES = 256;
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    private final Map<Encoding, ObjectMapper> mappers;
+    private final ConcurrentMap<EncodingKey, EncodedQueryResult> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new query result encoder
+     *
+     * @param jsonMapper The JSON mapper
+     */
+    QueryResultEncoder(JsonMapper jsonMapper) {
+        this.mappers = Map.of(Encoding.JSON, jsonMapper,
+                              Encoding.CBOR, CBORMapper.builder().build(),
+                              Encoding.SMILE, SmileMapper.builder().build());
+    }
+
+    /**
+     * Encode a query result (reusing the cached body if the result has not changed)
+     *
+     * @param queryResult The query result
+     * @param encoding The encoding
+     * @param calcScale The calculation scale of the result
+     * @param calcRoundingMode The calculation rounding mode of the result
+     * @param queryOptions The query options of the result
+     * @return The encoded query result
+     */
+    EncodedQueryResult encode(StatisticsQueryResult queryResult, Encoding encoding, int calcScale,
+                              RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions) {
+        final EncodingKey encodingKey = new EncodingKey(encoding, calcScale, calcRoundingMode, queryOptions);
+        final EncodedQueryResult cached = cache.get(encodingKey);
+        if (cached != null && cached.queryResult() == queryResult)
+            return cached;
+        final EncodedQueryResult encoded = encode(queryResult, encoding);
+        if (cache.size() >= MAX_CACHED_BODIES)
+            cache.clear();  //Only reachable with an unusual mix of query options
+        cache.put(encodingKey, encoded);
+        return encoded;
+    }
+
+    /**
+     * Encode a query result (without caching)
+     *
+     * @param queryResult The query result
+     * @param encoding The encoding
+     * @return The encoded query result
+     */
+    EncodedQueryResult encode(StatisticsQueryResult queryResult, Encoding encoding) {
+        return new EncodedQueryResult(queryResult, encoding.mediaType, mappers.get(encoding).writeValueAsBytes(queryResult),
+                eTag(queryResult, encoding));
+    }
+
+    /**
+     * Build a strong entity tag that changes whenever any part of the response body (or its encoding) changes
+     */
+    private static String eTag(StatisticsQueryResult queryResult, Encoding encoding) {
+        final StringBuilder eTag = new StringBuilder(String.format("\"%s_%s_%s_%s_%d", queryResult.sum(), queryResult.avg(),
+                queryResult.max(), queryResult.min(), queryResult.count()));
+        if (queryResult.variance() != null)
+            eTag.append('_').append(queryResult.variance()).append('_').append(queryResult.stdDev());
+        if (queryResult.percentiles() != null)
+            for (final Map.Entry<String, BigDecimal> percentile : queryResult.percentiles().entrySet())
+                eTag.append('_').append(percentile.getKey()).append('=').append(percentile.getValue());
+        return eTag.append(encoding.eTagSuffix).append('"').toString();
+    }
+
+    /**
+     * Select the encoding preferred by the client
+     *
+     * @param acceptedMediaTypes The media types accepted by the client (as resolved by the content negotiation manager)
+     * @return The encoding of the most specific, highest quality accepted media type (JSON if the client accepts anything)
+     */
+    static Encoding select(List<MediaType> acceptedMediaTypes) {
+        final List<MediaType> compatibleMediaTypes = new ArrayList<>();
+        for (final MediaType acceptedMediaType : acceptedMediaTypes)
+            for (final Encoding encoding : Encoding.values())  //JSON comes first, so wildcards select JSON
+                if (acceptedMediaType.isCompatibleWith(encoding.mediaType))
+                    compatibleMediaTypes.add(encoding.mediaType.copyQualityValue(acceptedMediaType));
+        MimeTypeUtils.sortBySpecificity(compatibleMediaTypes);  //Stable, so ties keep the order above
+        for (final MediaType compatibleMediaType : compatibleMediaTypes)
+            for (final Encoding encoding : Encoding.values())
+                if (encoding.mediaType.equalsTypeAndSubtype(compatibleMediaType))
+                    return encoding;
+        return Encoding.JSON;
+    }
+
+    /**
+     * Query result encoding
+     */
+    enum Encoding {
+
+        JSON(MediaType.APPLICATION_JSON, ""),
+        CBOR(MediaType.APPLICATION_CBOR, "_cbor"),
+        SMILE(APPLICATION_SMILE, "_smile");
+
+        private final MediaType mediaType;
+        private final String eTagSuffix;
+
+        Encoding(MediaType mediaType, String eTagSuffix) {
+            this.mediaType = mediaType;
+            this.eTagSuffix = eTagSuffix;
+        }
+    }
+
+    /**
+     * An encoded query result
+     *
+     * @param queryResult The query result
+     * @param mediaType The media type of the body
+     * @param body The encoded body
+     * @param eTag The entity tag of the body
+     */
+    record EncodedQueryResult(StatisticsQueryResult queryResult, MediaType mediaType, byte[] body, String eTag) {
+    }
+
+    private record EncodingKey(Encoding encoding, int calcScale, RoundingMode calcRoundingMode,
+                               StatisticsQueryOptions queryOptions) {
+    }
+}
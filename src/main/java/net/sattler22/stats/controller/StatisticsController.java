@@ -2,16 +2,35 @@ package net.sattler22.stats.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.ValidationException;
+import net.sattler22.stats.admission.AdmissionController;
 import net.sattler22.stats.annotation.StatisticsAPI;
+import net.sattler22.stats.cluster.StatisticsCoordinator;
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
 import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
 import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.exception.AdmissionException;
+import net.sattler22.stats.exception.BatchTooLargeException;
+import net.sattler22.stats.ingest.AsyncTransactionIngestor;
 import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.stream.StatisticsStreamPublisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,11 +38,22 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.InputStream;
 import java.math.RoundingMode;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,7 +63,7 @@ import java.util.stream.Collectors;
  * @implSpec This class is not designed to be extended, but could not be made final due to Spring's use of the proxy pattern
  * @author Pete Sattler
  * @since July 2018
- * @version November 2025
+ * @version October 2026
  */
 @RestController
 @RequestMapping("/stats-api/v2")
@@ -41,14 +71,43 @@ import java.util.stream.Collectors;
 public class StatisticsController {
 
     private static final int MAX_CALC_SCALE = 9;
+    private static final int STREAMING_CHUNK_SIZE = 1_024;
+    private static final Duration INGEST_RETRY_AFTER = Duration.ofSeconds(1);
     private final StatisticsService statisticsService;
+    private final JsonMapper jsonMapper;
+    private final ObjectReader transactionReader;
+    private final StatisticsStreamPublisher streamPublisher;
+    private final StatisticsCoordinator coordinator;
+    private final AdmissionController admissionController;
+    private final AsyncTransactionIngestor asyncIngestor;
+    private final QueryResultEncoder queryResultEncoder;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    StatisticsController(StatisticsService statisticsService) {
+    StatisticsController(StatisticsService statisticsService, JsonMapper jsonMapper, StatisticsStreamPublisher streamPublisher,
+                         StatisticsCoordinator coordinator, AdmissionController admissionController,
+                         ObjectProvider<AsyncTransactionIngestor> asyncIngestorProvider,
+                         ContentNegotiationManager contentNegotiationManager) {
         this.statisticsService = statisticsService;
+        this.jsonMapper = jsonMapper;
+        //Reads one element of a batch at a time, so the rest of the array must not count as trailing tokens:
+        this.transactionReader = jsonMapper.readerFor(StatisticsTransaction.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.streamPublisher = streamPublisher;
+        this.coordinator = coordinator;
+        this.admissionController = admissionController;
+        this.asyncIngestor = asyncIngestorProvider.getIfAvailable();
+        this.queryResultEncoder = new QueryResultEncoder(jsonMapper);
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
     /**
      * Add a new transaction
+     * <p>
+     * In lossy mode, a transaction that is not admitted is counted in the aggregates only (without being retained) and
+     * answered with a 202 (Accepted). In asynchronous ingestion mode, the transaction is queued for the writer thread
+     * and answered with a 202 (Accepted) as well, or shed with a 503 (Service Unavailable) if the queue is full. In
+     * event-time mode, a late or future transaction is counted by the event-time policy instead of being added, and
+     * answered with a 202 (Accepted) without a location.
      *
      * @param transaction A real-time statistics transaction
      * @return The HTTP response entity
@@ -56,15 +115,109 @@ public class StatisticsController {
     @StatisticsAPI
     @Operation(summary = "Add a new transaction")
     @ApiResponse(responseCode = "201", description = "Transaction added successfully")
+    @ApiResponse(responseCode = "202", description = "Transaction queued (asynchronous ingestion), added to the aggregates only (lossy admission) or counted as late or future (event-time mode)")
     @ApiResponse(responseCode = "409", description = "Transaction has expired")
+    @ApiResponse(responseCode = "429", description = "Ingestion rate exceeded (see Retry-After)")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests or ingestion queue full (see Retry-After)")
     @PostMapping(value = "/transactions", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Object> addTransaction(@RequestBody StatisticsTransaction transaction) {
-        statisticsService.add(transaction);
+        try (AdmissionController.Permit permit = admissionController.acquire(1L)) {
+            if (permit.isLossy()) {
+                statisticsService.addAggregateOnly(transaction);
+                return ResponseEntity.accepted().build();
+            }
+            if (asyncIngestor != null) {
+                if (!asyncIngestor.publish(transaction))
+                    throw new AdmissionException("Ingestion queue is full", false, INGEST_RETRY_AFTER);
+                final URI location = getStatsCollectionUri(ServletUriComponentsBuilder.fromCurrentRequest());
+                return ResponseEntity.accepted().location(location).build();
+            }
+            if (!statisticsService.add(transaction))
+                return ResponseEntity.accepted().build();  //Counted as late or future, so there is nothing to locate
+        }
         final URI location = getStatsCollectionUri(ServletUriComponentsBuilder.fromCurrentRequest());
         return ResponseEntity.created(location).build();
     }
 
+    /**
+     * Add a batch of new transactions
+     * <p>
+     * The request is admitted before the body is read, so a shed batch is never deserialized. The array is then read
+     * one transaction at a time and rejected as soon as it exceeds the burst (refunding its admission), otherwise it is
+     * charged the rest of its transactions like a stream.
+     *
+     * @param body The real-time statistics transactions (JSON array)
+     * @return The number of added and expired transactions
+     */
+    @StatisticsAPI
+    @Operation(summary = "Add a batch of new transactions (JSON array)")
+    @ApiResponse(responseCode = "200", description = "Batch processed successfully (expired transactions are skipped)")
+    @ApiResponse(responseCode = "400", description = "Malformed JSON found")
+    @ApiResponse(responseCode = "413", description = "Batch exceeds the ingestion burst")
+    @ApiResponse(responseCode = "422", description = "Batch is not a JSON array")
+    @ApiResponse(responseCode = "429", description = "Ingestion rate exceeded (see Retry-After)")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests (see Retry-After)")
+    @PostMapping(value = "/transactions:batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public StatisticsBatchResult addTransactionsJson(InputStream body) {
+        try (AdmissionController.Permit permit = admissionController.acquireStrict(1L)) {
+            final List<StatisticsTransaction> transactions;
+            try {
+                transactions = readTransactions(body);
+            }
+            catch (BatchTooLargeException e) {
+                admissionController.refund(1L);  //Never applied, so it must not delay the requests after it
+                throw e;
+            }
+            admissionController.charge(transactions.size() - 1L);
+            return statisticsService.addAll(transactions);
+        }
+    }
+
+    /**
+     * Read a JSON array of transactions, stopping as soon as it holds more than the admission controller can admit
+     */
+    private List<StatisticsTransaction> readTransactions(InputStream body) {
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new ValidationException("Transactions must be a JSON array");
+            final List<StatisticsTransaction> transactions = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                admissionController.checkWeight(transactions.size() + 1L);
+                transactions.add(transactionReader.readValue(parser));
+            }
+            return transactions;
+        }
+    }
+
+    /**
+     * Add a stream of new transactions
+     *
+     * @param body The real-time statistics transactions (newline delimited JSON)
+     * @return The number of added and expired transactions
+     */
+    @StatisticsAPI
+    @Operation(summary = "Add a stream of new transactions (newline delimited JSON)")
+    @ApiResponse(responseCode = "200", description = "Stream processed successfully (expired transactions are skipped)")
+    @ApiResponse(responseCode = "400", description = "Malformed JSON found")
+    @ApiResponse(responseCode = "422", description = "Invalid transaction found")
+    @ApiResponse(responseCode = "429", description = "Ingestion rate exceeded (see Retry-After)")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests (see Retry-After)")
+    @PostMapping(value = "/transactions:batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public StatisticsBatchResult addTransactionsNdjson(InputStream body) {
+        try (AdmissionController.Permit permit = admissionController.acquireStrict(1L)) {
+            final StatisticsBatchResult batchResult =
+                    new StreamingTransactionReader(statisticsService, STREAMING_CHUNK_SIZE).read(jsonMapper, body);
+            //The size of a stream is only known once it has been read:
+            admissionController.charge(batchResult.accepted() + batchResult.expired() + batchResult.future() - 1L);
+            return batchResult;
+        }
+    }
+
     /**
      * Get real-time statistics collection URI
      *
@@ -85,22 +238,221 @@ public class StatisticsController {
 
     /**
      * Collect real-time statistics
+     * <p>
+     * The response carries an entity tag derived from its content, so clients can revalidate with a conditional GET
+     * and receive a 304 (Not Modified) while the statistics are unchanged. Clients can also ask for a compact binary
+     * encoding (CBOR or Smile). The encoded body is cached until the statistics change.
      *
      * @return The HTTP response entity
      */
     @StatisticsAPI
     @Operation(summary = "Collect real-time statistics")
-    @ApiResponse(responseCode = "200", description = "Real-time statistics collected for all recent transactions")
+    @ApiResponse(responseCode = "200", description = "Real-time statistics collected for all recent transactions",
+                 content = @Content(schema = @Schema(implementation = StatisticsQueryResult.class)))
+    @ApiResponse(responseCode = "304", description = "Real-time statistics have not been modified")
     @ApiResponse(responseCode = "412", description = "Unable to collect all statistics")
     @ApiResponse(responseCode = "422", description = "One or more invalid request parameters found")
-    @GetMapping(value = "/statistics", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/statistics", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+                                                    QueryResultEncoder.APPLICATION_SMILE_VALUE })
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<byte[]> collectStatistics(@Parameter(description = "Calculation scale")
+                                                    @RequestParam(defaultValue = "2") int calcScale,
+                                                    @Parameter(description = "Calculation rounding mode")
+                                                    @RequestParam(defaultValue = "HALF_UP") RoundingMode calcRoundingMode,
+                                                    @Parameter(description = "Include the variance and standard deviation")
+                                                    @RequestParam(defaultValue = "false") boolean deviation,
+                                                    @Parameter(description = "Approximate percentiles to include (e.g. 50,95,99)")
+                                                    @RequestParam(required = false) List<Double> percentiles,
+                                                    @Parameter(description = "Only collect the transactions with this key")
+                                                    @RequestParam(required = false) String key,
+                                                    @Parameter(description = "Lookback window (e.g. PT10S or 10s, defaults to the expiration interval)")
+                                                    @RequestParam(required = false) String window,
+                                                    @Parameter(hidden = true) NativeWebRequest webRequest) {
+        validateCalcScale(calcScale);
+        final Duration lookbackWindow = window == null ? null : toDuration("Window", window);
+        final List<Double> requestedPercentiles = percentiles == null ? List.of() : percentiles;
+        if (key != null) {
+            if (!StatisticsTransaction.isValidKey(key))
+                throw new ValidationException(String.format("Key must be between 1 and %d non-blank characters",
+                        StatisticsTransaction.MAX_KEY_LENGTH));
+            if (deviation || !requestedPercentiles.isEmpty())
+                throw new ValidationException("Deviation and percentiles are not available per key");
+            if (lookbackWindow != null)
+                throw new ValidationException("Lookback windows are not available per key");
+        }
+        final StatisticsQueryOptions queryOptions;
+        try {
+            queryOptions = new StatisticsQueryOptions(deviation, requestedPercentiles);
+        }
+        catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage(), e);
+        }
+        if ((deviation || !requestedPercentiles.isEmpty()) && !statisticsService.isDistributionEnabled())
+            throw new ValidationException("Deviation and percentiles are disabled (see stats-api.service.distribution)");
+        final QueryResultEncoder.Encoding encoding = selectEncoding(webRequest);
+        final QueryResultEncoder.EncodedQueryResult encodedResult;
+        if (key != null)
+            encodedResult = queryResultEncoder.encode(statisticsService.collect(key, calcScale, calcRoundingMode), encoding);
+        else if (lookbackWindow != null) {
+            final StatisticsQueryResult queryResult;
+            try {
+                queryResult = statisticsService.collect(lookbackWindow, calcScale, calcRoundingMode, queryOptions);
+            }
+            catch (IllegalArgumentException e) {
+                throw new ValidationException(e.getMessage(), e);  //The engine checks the window bounds
+            }
+            encodedResult = queryResultEncoder.encode(queryResult, encoding);
+        }
+        else
+            encodedResult = queryResultEncoder.encode(statisticsService.collect(calcScale, calcRoundingMode, queryOptions),
+                    encoding, calcScale, calcRoundingMode, queryOptions);
+        //Spring answers matching If-None-Match requests with 304 (Not Modified) by itself:
+        return ResponseEntity.ok()
+                .contentType(encodedResult.mediaType())
+                .eTag(encodedResult.eTag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(encodedResult.body());
+    }
+
+    /**
+     * Stream real-time statistics
+     * <p>
+     * The statistics are pushed as Server-Sent Events once per tick. Subscribers that cannot keep up are dropped and
+     * have to reconnect.
+     *
+     * @return The HTTP response entity with the event stream
+     */
+    @StatisticsAPI
+    @Operation(summary = "Stream real-time statistics (Server-Sent Events)")
+    @ApiResponse(responseCode = "200", description = "Real-time statistics streamed once per tick")
+    @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    @GetMapping(value = "/statistics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatistics() {
+        return streamPublisher.subscribe()
+                .map(emitter -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Collect the real-time statistics of the whole cluster
+     * <p>
+     * The per-second partials of every peer are pulled (within the cluster timeout) and merged with those of this
+     * node, so only the basic statistics are available.
+     *
+     * @return The statistics based on the real-time transactions of every node
+     */
+    @StatisticsAPI
+    @Operation(summary = "Collect the real-time statistics of the whole cluster")
+    @ApiResponse(responseCode = "200", description = "Real-time statistics collected for all recent transactions of every node")
+    @ApiResponse(responseCode = "422", description = "One or more invalid request parameters found")
+    @GetMapping(value = "/statistics/cluster", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public StatisticsQueryResult collectStatistics(@Parameter(description = "Calculation scale")
-                                                   @RequestParam(defaultValue = "2") int calcScale,
-                                                   @Parameter(description = "Calculation rounding mode")
-                                                   @RequestParam(defaultValue = "HALF_UP") RoundingMode calcRoundingMode) {
+    public StatisticsQueryResult collectClusterStatistics(@Parameter(description = "Calculation scale")
+                                                          @RequestParam(defaultValue = "2") int calcScale,
+                                                          @Parameter(description = "Calculation rounding mode")
+                                                          @RequestParam(defaultValue = "HALF_UP") RoundingMode calcRoundingMode) {
+        validateCalcScale(calcScale);
+        return coordinator.collect(calcScale, calcRoundingMode);
+    }
+
+    /**
+     * Export the per-second partials of this node (pulled by the cluster coordinator of the other nodes)
+     *
+     * @return The CBOR-encoded partials of the live window
+     */
+    @StatisticsAPI
+    @Operation(summary = "Export the per-second partials of this node (CBOR)")
+    @ApiResponse(responseCode = "200", description = "Partials exported for every second in the live window")
+    @GetMapping(value = StatisticsCoordinator.PARTIALS_PATH, produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<byte[]> exportPartials() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_CBOR)
+                .cacheControl(CacheControl.noStore())
+                .body(coordinator.exportPartials());
+    }
+
+    /**
+     * Collect a time series of real-time statistics
+     *
+     * @return The statistics of every point in the window (oldest first)
+     */
+    @StatisticsAPI
+    @Operation(summary = "Collect a time series of real-time statistics")
+    @ApiResponse(responseCode = "200", description = "Real-time statistics collected for every point in the window")
+    @ApiResponse(responseCode = "412", description = "Unable to collect all statistics")
+    @ApiResponse(responseCode = "422", description = "One or more invalid request parameters found")
+    @GetMapping(value = "/statistics/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<StatisticsSeriesPoint> collectStatisticsSeries(@Parameter(description = "Time covered by each point (e.g. PT1S or 1s)")
+                                                               @RequestParam(defaultValue = "1s") String resolution,
+                                                               @Parameter(description = "Lookback window (e.g. PT60S or 60s, defaults to the expiration interval)")
+                                                               @RequestParam(required = false) String window,
+                                                               @Parameter(description = "Calculation scale")
+                                                               @RequestParam(defaultValue = "2") int calcScale,
+                                                               @Parameter(description = "Calculation rounding mode")
+                                                               @RequestParam(defaultValue = "HALF_UP") RoundingMode calcRoundingMode) {
+        validateCalcScale(calcScale);
+        final Duration expiryInterval = statisticsService.expiryInterval();
+        final Duration lookbackWindow = window == null ? expiryInterval : toDuration("Window", window);
+        final Duration pointResolution = toDuration("Resolution", resolution);
+        try {
+            return statisticsService.collectSeries(lookbackWindow, pointResolution, calcScale, calcRoundingMode);
+        }
+        catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage(), e);  //The engine checks the window and resolution bounds
+        }
+    }
+
+    /**
+     * Collect the real-time statistics of the keys with the largest sums
+     *
+     * @return The statistics of the top keys ordered by descending sum
+     */
+    @StatisticsAPI
+    @Operation(summary = "Collect the real-time statistics of the keys with the largest sums")
+    @ApiResponse(responseCode = "200", description = "Real-time statistics collected for the top keys")
+    @ApiResponse(responseCode = "422", description = "One or more invalid request parameters found")
+    @GetMapping(value = "/statistics/top", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<KeyedStatisticsResult> collectTopStatistics(@Parameter(description = "Maximum number of keys")
+                                                            @RequestParam(defaultValue = "10") int limit,
+                                                            @Parameter(description = "Calculation scale")
+                                                            @RequestParam(defaultValue = "2") int calcScale,
+                                                            @Parameter(description = "Calculation rounding mode")
+                                                            @RequestParam(defaultValue = "HALF_UP") RoundingMode calcRoundingMode) {
+        if (limit < 1 || limit > StatisticsService.MAX_TOP_KEYS)
+            throw new ValidationException(String.format("Limit must be between 1 and %d", StatisticsService.MAX_TOP_KEYS));
+        validateCalcScale(calcScale);
+        return statisticsService.collectTopBySum(limit, calcScale, calcRoundingMode);
+    }
+
+    /**
+     * Parse a duration (ISO-8601 or simple format), leaving its bounds to the engine
+     */
+    private static Duration toDuration(String name, String value) {
+        try {
+            return DurationStyle.detectAndParse(value);
+        }
+        catch (IllegalArgumentException e) {
+            throw new ValidationException(String.format("%s [%s] is not a valid duration", name, value));
+        }
+    }
+
+    /**
+     * Select the query result encoding from the media types resolved by the (Spring MVC) content negotiation manager
+     */
+    private QueryResultEncoder.Encoding selectEncoding(NativeWebRequest webRequest) {
+        try {
+            return QueryResultEncoder.select(contentNegotiationManager.resolveMediaTypes(webRequest));
+        }
+        catch (HttpMediaTypeNotAcceptableException | InvalidMimeTypeException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, e.getMessage(), e);
+        }
+    }
+
+    private static void validateCalcScale(int calcScale) {
         if (calcScale < 0 || calcScale > MAX_CALC_SCALE)
             throw new ValidationException(String.format("Calculation scale must be between 0 and %d", MAX_CALC_SCALE));
-        return statisticsService.collect(calcScale, calcRoundingMode);
     }
 }
@@ -0,0 +1,127 @@
+package net.sattler22.stats.controller;
+
+import jakarta.validation.ValidationException;
+import net.jcip.annotations.NotThreadSafe;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.StatisticsService;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Real-Time Statistics Streaming Transaction Reader
+ * <p>
+ * Reads newline delimited JSON transactions straight off the request stream using Jackson's streaming parser. The
+ * amounts, timestamps and (optional) keys are handed to the statistics service in fixed-size chunks, so memory usage is bounded by the
+ * chunk size (and not by the size of the upload), and no transaction objects are created along the way.
+ *
+ * @implNote Chunks that were added before a malformed transaction is found stay added
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class StreamingTransactionReader {
+
+    private static final String AMOUNT_PROPERTY = "amount";
+    private static final String TIMESTAMP_PROPERTY = "timestamp";
+    private static final String KEY_PROPERTY = "key";
+    private final StatisticsService statisticsService;
+    private final long[] timestamps;
+    private final BigDecimal[] amounts;
+    private final String[] keys;
+    private boolean keyed;  //True if the current chunk has at least one keyed transaction
+    private int length;
+    private long accepted;
+    private long expired;
+    private long future;
+
+    /**
+     * Constructs a new streaming transaction reader
+     *
+     * @param statisticsService The statistics service
+     * @param chunkSize The maximum number of transactions buffered before they are added
+     */
+    StreamingTransactionReader(StatisticsService statisticsService, int chunkSize) {
+        this.statisticsService = statisticsService;
+        this.timestamps = new long[chunkSize];
+        this.amounts = new BigDecimal[chunkSize];
+        this.keys = new String[chunkSize];
+    }
+
+    /**
+     * Read every transaction from the stream and add them to the statistics service
+     *
+     * @param jsonMapper The JSON mapper
+     * @param body The newline delimited JSON request body
+     * @return The number of added, expired and future transactions
+     */
+    StatisticsBatchResult read(JsonMapper jsonMapper, InputStream body) {
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            long lineNumber = 0L;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                lineNumber++;
+                if (token != JsonToken.START_OBJECT)
+                    throw new ValidationException(String.format("Transaction #%d is not a JSON object", lineNumber));
+                readTransaction(parser, lineNumber);
+            }
+            flush();
+            return new StatisticsBatchResult(accepted, expired, future);
+        }
+    }
+
+    private void readTransaction(JsonParser parser, long lineNumber) {
+        BigDecimal amount = null;
+        long timestamp = 0L;
+        String key = null;
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            final String propertyName = parser.currentName();
+            final JsonToken valueToken = parser.nextToken();
+            switch (propertyName) {
+                case AMOUNT_PROPERTY -> amount = valueToken == JsonToken.VALUE_STRING ?
+                        parseAmount(parser.getValueAsString(), lineNumber) : parser.getDecimalValue();
+                case TIMESTAMP_PROPERTY -> timestamp = parser.getLongValue();
+                case KEY_PROPERTY -> key = valueToken == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        if (amount == null)
+            throw new ValidationException(String.format("Transaction #%d amount is required", lineNumber));
+        if (key != null && !StatisticsTransaction.isValidKey(key))
+            throw new ValidationException(String.format("Transaction #%d key must be between 1 and %d non-blank characters",
+                    lineNumber, StatisticsTransaction.MAX_KEY_LENGTH));
+        timestamps[length] = timestamp;
+        amounts[length] = amount;
+        keys[length] = key;
+        keyed |= key != null;
+        if (++length == timestamps.length)
+            flush();
+    }
+
+    private static BigDecimal parseAmount(String amount, long lineNumber) {
+        try {
+            return new BigDecimal(amount);
+        }
+        catch (NumberFormatException e) {
+            throw new ValidationException(String.format("Transaction #%d amount [%s] is not a number", lineNumber, amount), e);
+        }
+    }
+
+    private void flush() {
+        if (length == 0)
+            return;
+        final StatisticsBatchResult result = statisticsService.addAll(timestamps, amounts, keyed ? keys : null, length);
+        accepted += result.accepted();
+        expired += result.expired();
+        future += result.future();
+        Arrays.fill(amounts, 0, length, null);
+        Arrays.fill(keys, 0, length, null);
+        keyed = false;
+        length = 0;
+    }
+}
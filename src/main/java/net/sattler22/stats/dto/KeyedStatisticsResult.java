@@ -0,0 +1,12 @@
+package net.sattler22.stats.dto;
+
+/**
+ * Real-time Keyed Statistics Result
+ *
+ * @param key The statistics key
+ * @param statistics The statistics of the key
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public record KeyedStatisticsResult(String key, StatisticsQueryResult statistics) {
+}
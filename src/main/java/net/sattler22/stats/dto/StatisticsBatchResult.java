@@ -0,0 +1,20 @@
+package net.sattler22.stats.dto;
+
+/**
+ * Real-time Statistics Batch Result
+ *
+ * @param accepted The number of transactions added
+ * @param expired The number of transactions rejected because they have expired (or are late in event-time mode)
+ * @param future The number of transactions rejected because they are too far in the future (event-time mode only)
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public record StatisticsBatchResult(long accepted, long expired, long future) {
+
+    /**
+     * Constructs a new batch result without any future transactions
+     */
+    public StatisticsBatchResult(long accepted, long expired) {
+        this(accepted, expired, 0L);
+    }
+}
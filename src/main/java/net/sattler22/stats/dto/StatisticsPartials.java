@@ -0,0 +1,40 @@
+package net.sattler22.stats.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Real-time Statistics Partials
+ * <p>
+ * The per-second partial aggregates of a single node's live window. Partials of several nodes are merged into one
+ * global query result, so they only carry the mergeable basic statistics.
+ *
+ * @param epochSecond The second the partials were collected (in seconds from the UNIX epoch)
+ * @param buckets The non-empty per-second buckets (oldest first)
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public record StatisticsPartials(long epochSecond, List<Bucket> buckets) {
+
+    public StatisticsPartials {
+        buckets = List.copyOf(Objects.requireNonNull(buckets, "Buckets are required"));
+    }
+
+    /**
+     * Partial aggregate of a single second (encoded as a positional array to keep the partials compact)
+     *
+     * @param second The second covered by the bucket (in seconds from the UNIX epoch)
+     * @param sum The sum of the amounts
+     * @param max The maximum amount (never less than zero)
+     * @param min The minimum amount
+     * @param count The number of transactions
+     */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({ "second", "sum", "max", "min", "count" })
+    public record Bucket(long second, BigDecimal sum, BigDecimal max, BigDecimal min, long count) {
+    }
+}
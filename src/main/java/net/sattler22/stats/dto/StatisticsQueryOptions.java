@@ -0,0 +1,46 @@
+package net.sattler22.stats.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Real-time Statistics Query Options
+ *
+ * @param deviation True to include the variance and standard deviation
+ * @param percentiles The approximate percentiles to include (between 0 and 100)
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public record StatisticsQueryOptions(boolean deviation, List<Double> percentiles) {
+
+    /**
+     * No optional statistics
+     */
+    public static final StatisticsQueryOptions NONE = new StatisticsQueryOptions(false, List.of());
+
+    /**
+     * Maximum number of percentiles
+     */
+    public static final int MAX_PERCENTILES = 10;
+
+    public StatisticsQueryOptions {
+        Objects.requireNonNull(percentiles, "Percentiles are required");
+        if (percentiles.size() > MAX_PERCENTILES)
+            throw new IllegalArgumentException(String.format("No more than %d percentiles can be requested", MAX_PERCENTILES));
+        for (final Double percentile : percentiles)
+            if (percentile == null || !(percentile >= 0.0 && percentile <= 100.0))
+                throw new IllegalArgumentException("Percentiles must be between 0 and 100");
+        percentiles = List.copyOf(percentiles);
+    }
+
+    /**
+     * Get the result name of a percentile
+     *
+     * @param percentile The percentile (between 0 and 100)
+     * @return The percentile name (e.g. {@code p99} or {@code p99.9})
+     */
+    public static String percentileName(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString();
+    }
+}
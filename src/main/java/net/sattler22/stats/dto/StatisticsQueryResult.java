@@ -1,13 +1,27 @@
 package net.sattler22.stats.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
+import java.util.Map;
 
 /**
  * Real-time Statistics Query Result
+ * <p>
+ * The variance, standard deviation and percentiles are optional and are left out unless they were requested.
  *
  * @author Pete Sattler
  * @since July 2018
- * @version November 2025
+ * @version October 2026
  */
-public record StatisticsQueryResult(BigDecimal sum, BigDecimal avg, BigDecimal max, BigDecimal min, long count) {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatisticsQueryResult(BigDecimal sum, BigDecimal avg, BigDecimal max, BigDecimal min, long count,
+                                    BigDecimal variance, BigDecimal stdDev, Map<String, BigDecimal> percentiles) {
+
+    /**
+     * Constructs a new query result without any optional statistics
+     */
+    public StatisticsQueryResult(BigDecimal sum, BigDecimal avg, BigDecimal max, BigDecimal min, long count) {
+        this(sum, avg, max, min, count, null, null, null);
+    }
 }
@@ -0,0 +1,12 @@
+package net.sattler22.stats.dto;
+
+/**
+ * Real-time Statistics Series Point
+ *
+ * @param timestamp The first second covered by the point (in seconds from the UNIX epoch)
+ * @param statistics The statistics of the transactions which occurred during the point
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public record StatisticsSeriesPoint(long timestamp, StatisticsQueryResult statistics) {
+}
@@ -5,40 +5,78 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import net.jcip.annotations.Immutable;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.time.Clock;
+import java.util.HexFormat;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Real-time Statistics Transaction
+ * <p>
+ * A transaction can optionally carry a key (e.g. a merchant, region or currency) in order to also be counted towards
+ * the statistics of that key.
  *
  * @author Pete Sattler
  * @since July 2018
- * @version November 2025
+ * @version October 2026
  */
 @Immutable
 public final class StatisticsTransaction {
 
-    private final String id;
+    /**
+     * Maximum key length (in characters)
+     */
+    public static final int MAX_KEY_LENGTH = 128;
+    //Identifiers are a (random) per-process prefix plus a monotonic sequence, formatted only when requested:
+    private static final String ID_PREFIX = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+    private final long sequence;
     private final BigDecimal amount;
     private final long timestamp;
+    private final String key;
+
+    /**
+     * Constructs a new (unkeyed) statistics transaction
+     *
+     * @param amount The real-time transaction amount
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     */
+    public StatisticsTransaction(BigDecimal amount, long timestamp) {
+        this(amount, timestamp, null);
+    }
 
     /**
      * Constructs a new statistics transaction
      *
      * @param amount The real-time transaction amount
      * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     * @param key The optional statistics key (or null)
      */
     @JsonCreator
     public StatisticsTransaction(@JsonProperty("amount") BigDecimal amount,
-                                 @JsonProperty("timestamp") long timestamp) {
-        this.id = UUID.randomUUID().toString();
+                                 @JsonProperty("timestamp") long timestamp,
+                                 @JsonProperty("key") String key) {
+        if (key != null && !isValidKey(key))
+            throw new IllegalArgumentException(String.format("Key must be between 1 and %d non-blank characters", MAX_KEY_LENGTH));
+        this.sequence = ID_SEQUENCE.incrementAndGet();
         this.amount = Objects.requireNonNull(amount, "Amount is required");
         this.timestamp = timestamp;
+        this.key = key;
+    }
+
+    /**
+     * Key validity check
+     *
+     * @param key The statistics key
+     * @return True if the key is neither blank nor too long. Otherwise, returns false.
+     */
+    public static boolean isValidKey(String key) {
+        return !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
     }
 
     public String id() {
-        return id;
+        return ID_PREFIX + '-' + HexFormat.of().toHexDigits(sequence);
     }
 
     public BigDecimal amount() {
@@ -49,6 +87,15 @@ public final class StatisticsTransaction {
         return timestamp;
     }
 
+    /**
+     * Get the statistics key
+     *
+     * @return The statistics key or null if the transaction is not keyed
+     */
+    public String key() {
+        return key;
+    }
+
     /**
      * Expiration check
      *
@@ -56,12 +103,23 @@ public final class StatisticsTransaction {
      * @return True if the real-time transaction has expired. Otherwise, returns false if it is still active.
      */
     public boolean isExpired(long expiryIntervalSecs) {
-        return Instant.now().getEpochSecond() > timestamp + expiryIntervalSecs;
+        return isExpired(expiryIntervalSecs, Clock.systemUTC());
+    }
+
+    /**
+     * Expiration check
+     *
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @param clock The clock deciding the current second
+     * @return True if the real-time transaction has expired. Otherwise, returns false if it is still active.
+     */
+    public boolean isExpired(long expiryIntervalSecs, Clock clock) {
+        return Math.floorDiv(clock.millis(), 1000L) > timestamp + expiryIntervalSecs;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.id);
+        return Long.hashCode(this.sequence);
     }
 
     @Override
@@ -73,11 +131,13 @@ public final class StatisticsTransaction {
         if (this.getClass() != other.getClass())
             return false;
         final StatisticsTransaction that = (StatisticsTransaction) other;
-        return Objects.equals(this.id, that.id);
+        return this.sequence == that.sequence;
     }
 
     @Override
     public String toString() {
-        return String.format("%s [id=%s, amount=%s, timestamp=%d]", getClass().getSimpleName(), id, amount, timestamp);
+        if (key == null)
+            return String.format("%s [id=%s, amount=%s, timestamp=%d]", getClass().getSimpleName(), id(), amount, timestamp);
+        return String.format("%s [id=%s, amount=%s, timestamp=%d, key=%s]", getClass().getSimpleName(), id(), amount, timestamp, key);
     }
 }
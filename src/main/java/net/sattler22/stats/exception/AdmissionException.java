@@ -0,0 +1,45 @@
+package net.sattler22.stats.exception;
+
+import java.io.Serial;
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Admission Exception
+ * <p>
+ * Thrown when a request is shed by the admission controller, either because the ingestion rate has been exceeded or
+ * because the service is saturated.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class AdmissionException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = -3204556157210916480L;
+    private final boolean rateLimited;
+    private final Duration retryAfter;
+
+    public AdmissionException(String message, boolean rateLimited, Duration retryAfter) {
+        super(message);
+        this.rateLimited = rateLimited;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Rate limit check
+     *
+     * @return True if the ingestion rate has been exceeded. Otherwise, returns false if the service is saturated.
+     */
+    public boolean isRateLimited() {
+        return rateLimited;
+    }
+
+    /**
+     * Get the retry delay
+     *
+     * @return How long the client should wait before retrying
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,22 @@
+package net.sattler22.stats.exception;
+
+import java.io.Serial;
+
+/**
+ * Real-Time Statistics Batch Too Large Exception
+ * <p>
+ * Thrown when a batch holds more transactions than the admission controller can ever admit at once, so retrying it
+ * would never succeed.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class BatchTooLargeException extends IllegalArgumentException {
+
+    @Serial
+    private static final long serialVersionUID = 6021887394130552718L;
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,266 @@
+package net.sattler22.stats.ingest;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Asynchronous Transaction Ingestor
+ * <p>
+ * Request threads publish their transactions into a pre-allocated {@link IngestRingBuffer} and return immediately,
+ * while a single writer thread drains the ring in chunks and applies each chunk to the statistics service as one raw
+ * batch. The engine is therefore only ever written to by one thread, so its locks are never contended by the writers.
+ * When the ring is full, publishing fails right away (and the caller sheds the request).
+ * <p>
+ * The writer waits for new transactions according to its {@link WaitStrategy}, trading CPU for latency. Closing the
+ * ingestor stops taking new transactions and drains the ring before the writer exits. Publishers announce themselves
+ * before checking whether the ingestor is still accepting, and the writer only exits once none of them is in flight,
+ * so a transaction that was published while closing is never left behind.
+ * <p>
+ * Transactions that have expired by the time they are applied are counted as expired instead of being rejected.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class AsyncTransactionIngestor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransactionIngestor.class);
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final StatisticsService statisticsService;
+    private final StatisticsMetricsRecorder metricsRecorder;
+    private final IngestRingBuffer ringBuffer;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+    private final Duration drainTimeout;
+    private final LongSupplier nanoTime;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final AtomicInteger publishing = new AtomicInteger();  //Not a LongAdder, since its sum is not a snapshot
+    private final Thread writer;
+    private volatile boolean accepting = true;
+    private volatile boolean parked;
+
+    /**
+     * Constructs a new asynchronous transaction ingestor (and starts its writer thread)
+     *
+     * @param statisticsService The statistics service the transactions are applied to
+     * @param metricsRecorder The metrics recorder
+     * @param bufferSize The number of slots of the ring buffer (a power of two)
+     * @param batchSize The maximum number of transactions applied at once
+     * @param waitStrategy How the writer waits for new transactions
+     * @param drainTimeout The maximum time spent draining the ring buffer when the ingestor is closed
+     */
+    public AsyncTransactionIngestor(StatisticsService statisticsService, StatisticsMetricsRecorder metricsRecorder,
+                                    int bufferSize, int batchSize, WaitStrategy waitStrategy, Duration drainTimeout) {
+        this(statisticsService, metricsRecorder, bufferSize, batchSize, waitStrategy, drainTimeout, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new asynchronous transaction ingestor (and starts its writer thread)
+     *
+     * @param statisticsService The statistics service the transactions are applied to
+     * @param metricsRecorder The metrics recorder
+     * @param bufferSize The number of slots of the ring buffer (a power of two)
+     * @param batchSize The maximum number of transactions applied at once
+     * @param waitStrategy How the writer waits for new transactions
+     * @param drainTimeout The maximum time spent draining the ring buffer when the ingestor is closed
+     * @param nanoTime The time source of the ingestion lag (read by a publisher right before it claims its slot)
+     */
+    AsyncTransactionIngestor(StatisticsService statisticsService, StatisticsMetricsRecorder metricsRecorder,
+                             int bufferSize, int batchSize, WaitStrategy waitStrategy, Duration drainTimeout,
+                             LongSupplier nanoTime) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be at least one");
+        this.statisticsService = Objects.requireNonNull(statisticsService, "Statistics service is required");
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder, "Metrics recorder is required");
+        this.ringBuffer = new IngestRingBuffer(bufferSize);
+        this.batchSize = Math.min(batchSize, bufferSize);
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "Wait strategy is required");
+        this.drainTimeout = Objects.requireNonNull(drainTimeout, "Drain timeout is required");
+        this.nanoTime = Objects.requireNonNull(nanoTime, "Nano time is required");
+        this.writer = Thread.ofPlatform()
+                .name("stats-ingest-writer")
+                .daemon()
+                .start(this::write);
+    }
+
+    /**
+     * Publish a transaction (never waits)
+     *
+     * @param transaction A real-time statistics transaction
+     * @return True if the transaction was published. Otherwise, returns false if the ring buffer is full or the
+     *         ingestor has been closed.
+     */
+    public boolean publish(StatisticsTransaction transaction) {
+        Objects.requireNonNull(transaction, "Transaction is required");
+        publishing.incrementAndGet();
+        try {
+            if (!accepting || !ringBuffer.tryPublish(transaction.timestamp(), transaction.amount(), transaction.key(), nanoTime.getAsLong())) {
+                rejectedCount.increment();
+                return false;
+            }
+        }
+        finally {
+            publishing.decrementAndGet();
+        }
+        if (parked)
+            LockSupport.unpark(writer);
+        return true;
+    }
+
+    /**
+     * Drain the ring buffer until the ingestor is closed and the ring buffer is empty
+     */
+    private void write() {
+        final long[] timestamps = new long[batchSize];
+        final BigDecimal[] amounts = new BigDecimal[batchSize];
+        final String[] keys = new String[batchSize];
+        int idleCount = 0;
+        while (true) {
+            final int length = ringBuffer.drainTo(timestamps, amounts, keys, batchSize);
+            if (length > 0) {
+                apply(timestamps, amounts, keys, length);
+                idleCount = 0;
+            }
+            //A publisher that saw the ingestor accepting is either still in flight or has already claimed its slot:
+            else if (!accepting && publishing.get() == 0 && ringBuffer.depth() == 0L)
+                return;
+            else
+                idle(idleCount++);
+        }
+    }
+
+    private void apply(long[] timestamps, BigDecimal[] amounts, String[] keys, int length) {
+        try {
+            statisticsService.addAll(timestamps, amounts, keys, length);
+            //The oldest transaction of the chunk has waited the longest:
+            metricsRecorder.recordIngestLag(nanoTime.getAsLong() - ringBuffer.drainedPublishNanos());
+        }
+        catch (RuntimeException e) {
+            logger.error(String.format("Unable to apply [%d] transactions", length), e);
+        }
+        finally {
+            Arrays.fill(amounts, 0, length, null);
+            Arrays.fill(keys, 0, length, null);
+        }
+    }
+
+    private void idle(int idleCount) {
+        switch (waitStrategy) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (idleCount < SPIN_TRIES)
+                    Thread.onSpinWait();
+                else
+                    Thread.yield();
+            }
+            case SLEEPING -> {
+                if (idleCount < SPIN_TRIES)
+                    Thread.onSpinWait();
+                else if (idleCount < SPIN_TRIES + YIELD_TRIES)
+                    Thread.yield();
+                else
+                    LockSupport.parkNanos(this, SLEEP_NANOS);
+            }
+            case BLOCKING -> {
+                parked = true;
+                //Check again after announcing the park, so a transaction published meanwhile is never missed:
+                if (ringBuffer.depth() == 0L && accepting)
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                parked = false;
+            }
+        }
+    }
+
+    /**
+     * Get the queue depth
+     *
+     * @return The number of published transactions that have not been applied yet
+     */
+    public long queueDepth() {
+        return ringBuffer.depth();
+    }
+
+    /**
+     * Get the capacity
+     *
+     * @return The number of transactions the ring buffer can hold
+     */
+    public int capacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * Get the rejected count
+     *
+     * @return The number of transactions that could not be published
+     */
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Stop taking new transactions and wait (up to the drain timeout) until every published transaction has been applied
+     */
+    @Override
+    public void close() {
+        accepting = false;
+        LockSupport.unpark(writer);
+        try {
+            if (!writer.join(drainTimeout))
+                logger.warn("Ingestion ring buffer not drained within {} ms, [{}] transactions left",
+                        drainTimeout.toMillis(), ringBuffer.depth());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [ringBuffer=%s, batchSize=%d, waitStrategy=%s]", getClass().getSimpleName(),
+                ringBuffer, batchSize, waitStrategy);
+    }
+
+    /**
+     * How the writer waits for new transactions
+     */
+    public enum WaitStrategy {
+
+        /**
+         * Parks until a transaction is published (lowest CPU usage, highest latency)
+         */
+        BLOCKING,
+
+        /**
+         * Spins, then yields, then sleeps briefly (low CPU usage when idle)
+         */
+        SLEEPING,
+
+        /**
+         * Spins, then yields (burns a core while idle)
+         */
+        YIELDING,
+
+        /**
+         * Spins (lowest latency, burns a core while idle)
+         */
+        BUSY_SPIN
+    }
+}
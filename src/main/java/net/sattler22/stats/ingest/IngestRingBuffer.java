@@ -0,0 +1,143 @@
+package net.sattler22.stats.ingest;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-Producer, Single-Consumer Ingestion Ring Buffer
+ * <p>
+ * A pre-allocated ring of (timestamp, amount, key, publish time) slots, so publishing never allocates. Producers claim
+ * the next sequence with a CAS and publish their slot by storing its sequence with release semantics, so slots can
+ * be published out of order while the consumer only ever reads a contiguous run of published slots (Disruptor-style).
+ * The consumer releases the slots it has read by advancing its own sequence. A producer that would wrap around onto
+ * a slot that has not been read yet fails immediately instead of waiting.
+ *
+ * @implNote {@link #drainTo} must only be called by a single consumer thread
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class IngestRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final BigDecimal[] amounts;
+    private final String[] keys;
+    private final long[] publishNanos;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1L);
+    private volatile long consumed = -1L;
+    private long drainedPublishNanos;  //Only accessed by the consumer
+
+    /**
+     * Constructs a new ring buffer
+     *
+     * @param capacity The number of slots (a power of two)
+     */
+    IngestRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.amounts = new BigDecimal[capacity];
+        this.keys = new String[capacity];
+        this.publishNanos = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            published.set(i, -1L);
+    }
+
+    /**
+     * Publish a transaction (never waits)
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     * @param amount The real-time transaction amount
+     * @param key The statistics key (or null)
+     * @param nanos When the transaction was published (in nanoseconds)
+     * @return True if the transaction was published. Otherwise, returns false if the ring is full.
+     */
+    boolean tryPublish(long timestamp, BigDecimal amount, String key, long nanos) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1L;
+            if (sequence - capacity > consumed)
+                return false;
+        }
+        while (!claimed.compareAndSet(sequence - 1L, sequence));
+        final int index = (int) sequence & mask;
+        timestamps[index] = timestamp;
+        amounts[index] = amount;
+        keys[index] = key;
+        publishNanos[index] = nanos;
+        published.setRelease(index, sequence);
+        return true;
+    }
+
+    /**
+     * Move the next contiguous run of published transactions into the target chunk and release their slots
+     *
+     * @param targetTimestamps The transaction times of the chunk
+     * @param targetAmounts The transaction amounts of the chunk
+     * @param targetKeys The statistics keys of the chunk
+     * @param maxLength The maximum number of transactions to move (no more than the length of the chunk)
+     * @return The number of transactions moved (zero if none have been published)
+     */
+    int drainTo(long[] targetTimestamps, BigDecimal[] targetAmounts, String[] targetKeys, int maxLength) {
+        final long first = consumed + 1L;
+        int length = 0;
+        while (length < maxLength) {
+            final long sequence = first + length;
+            final int index = (int) sequence & mask;
+            if (published.getAcquire(index) != sequence)
+                break;
+            if (length == 0)
+                drainedPublishNanos = publishNanos[index];
+            targetTimestamps[length] = timestamps[index];
+            targetAmounts[length] = amounts[index];
+            targetKeys[length] = keys[index];
+            amounts[index] = null;  //Do not keep the amounts (and keys) reachable until the slot is reused
+            keys[index] = null;
+            length++;
+        }
+        if (length > 0)
+            consumed = first + length - 1L;
+        return length;
+    }
+
+    /**
+     * Get the publish time of the oldest transaction of the last chunk drained
+     *
+     * @return When the first transaction of the last chunk was published (in nanoseconds)
+     */
+    long drainedPublishNanos() {
+        return drainedPublishNanos;
+    }
+
+    /**
+     * Get the queue depth
+     *
+     * @return The number of claimed slots that have not been drained yet
+     */
+    long depth() {
+        return Math.max(0L, claimed.get() - consumed);
+    }
+
+    /**
+     * Get the capacity
+     *
+     * @return The number of slots
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [capacity=%d, depth=%d]", getClass().getSimpleName(), capacity, depth());
+    }
+}
@@ -0,0 +1,685 @@
+package net.sattler22.stats.journal;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-Mapped Transaction Journal
+ * <p>
+ * Every accepted transaction is appended to a memory-mapped, fixed-size log segment as a record made of one or more
+ * 32-byte slots (a single slot unless the amount or the key is unusually long). Appending only copies the record into
+ * the mapped memory, while the scheduled flush forces the dirty segment to disk once per flush interval (group
+ * commit) without holding up the writers. At most one flush interval of transactions can be lost when the machine
+ * itself goes down. A process crash loses nothing, since the mapped pages are already owned by the operating system.
+ * <p>
+ * Writers claim the offset of their record in the active segment with a single atomic add, so concurrent appends
+ * (e.g. from the stripes of the striped engine) only contend on that counter. Each record is encoded into the scratch
+ * buffer of an encoder picked by thread, so appending does not allocate for amounts of up to 18 digits.
+ * <p>
+ * Segments are rotated once they are full or have been written to for a whole expiration interval, and are deleted
+ * as soon as their newest transaction has expired. The next segment is created and mapped ahead of time by the
+ * scheduled flush, so a rotation only swaps segments. At startup, the records of every remaining segment are checked
+ * (marker and CRC-32C) and replayed up to the first torn (or unfinished) record.
+ *
+ * @implNote Transactions can only be appended once the journal has been recovered. Until then (and after it has
+ *           been closed), appending fails, except for the transactions replayed by the recovery itself, which are
+ *           already journaled.
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class MappedTransactionJournal implements TransactionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedTransactionJournal.class);
+    static final int SLOT_SIZE = 32;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_MARKER = 0x5354;
+    private static final int MAX_SLOTS = 0xFFFF;
+    private static final int MAX_FIELD_LENGTH = 0xFFFF;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int REPLAY_CHUNK_SIZE = 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private final Path directory;
+    private final long expiryIntervalSecs;
+    private final long rotationIntervalSecs;
+    private final long segmentSize;
+    private final Clock clock;
+    private final Encoder[] encoders;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    @GuardedBy("lock")
+    private final List<Segment> sealed = new ArrayList<>();
+    @GuardedBy("lock")
+    private Segment next;
+    @GuardedBy("lock")
+    private long nextSequence;
+    private volatile Segment active;
+    private volatile Thread replayingThread;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new memory-mapped transaction journal
+     *
+     * @param directory The directory holding the log segments (created if it does not exist)
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param segmentSize The size of each log segment (in bytes)
+     */
+    public MappedTransactionJournal(Path directory, Duration expiryInterval, long segmentSize) {
+        this(directory, expiryInterval, segmentSize, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new memory-mapped transaction journal
+     *
+     * @param directory The directory holding the log segments (created if it does not exist)
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param segmentSize The size of each log segment (in bytes)
+     * @param clock The clock deciding when segments are rotated and expire
+     */
+    public MappedTransactionJournal(Path directory, Duration expiryInterval, long segmentSize, Clock clock) {
+        if (segmentSize < SLOT_SIZE || segmentSize % SLOT_SIZE != 0)
+            throw new IllegalArgumentException(String.format("Segment size must be a positive multiple of %d bytes", SLOT_SIZE));
+        this.directory = Objects.requireNonNull(directory, "Directory is required");
+        this.expiryIntervalSecs = expiryInterval.toSeconds();
+        this.rotationIntervalSecs = Math.max(1L, expiryIntervalSecs);
+        this.segmentSize = segmentSize;
+        this.clock = Objects.requireNonNull(clock, "Clock is required");
+        //A power of two of at least one encoder per processor:
+        this.encoders = new Encoder[Integer.highestOneBit(2 * Runtime.getRuntime().availableProcessors() - 1)];
+        for (int i = 0; i < encoders.length; i++)
+            encoders[i] = new Encoder();
+        try {
+            Files.createDirectories(directory);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void append(long timestamp, BigDecimal amount, String key) {
+        long unscaledLong = 0L;
+        byte[] unscaledBytes = null;  //Only for amounts beyond a long (rare)
+        if (amount.scale() >= 0 && amount.precision() <= MAX_LONG_DIGITS)
+            unscaledLong = amount.movePointRight(amount.scale()).longValueExact();  //Usually eliminated by escape analysis
+        else {
+            final BigInteger unscaledValue = amount.unscaledValue();
+            if (unscaledValue.bitLength() < Long.SIZE)
+                unscaledLong = unscaledValue.longValue();
+            else
+                unscaledBytes = unscaledValue.toByteArray();
+        }
+        final int unscaledLength = unscaledBytes == null ? Long.BYTES : unscaledBytes.length;
+        final int keyLength = key == null ? 0 : utf8Length(key);
+        if (unscaledLength > MAX_FIELD_LENGTH || keyLength > MAX_FIELD_LENGTH)
+            throw new IllegalArgumentException("Transaction is too large to be journaled");
+        final int slots = Math.ceilDiv(HEADER_SIZE + unscaledLength + keyLength, SLOT_SIZE);
+        final int recordSize = slots * SLOT_SIZE;
+        if (slots > MAX_SLOTS || recordSize > segmentSize)
+            throw new IllegalArgumentException("Transaction is too large to be journaled");
+        final Encoder encoder = encoders[(int) Thread.currentThread().threadId() & (encoders.length - 1)];
+        //Held until the record is written, so a sealed segment is never unmapped under a writer (see awaitWriters):
+        encoder.lock.lock();
+        try {
+            Segment segment = active;
+            if (segment == null) {
+                if (Thread.currentThread() == replayingThread)
+                    return;  //Replayed transactions are already journaled
+                throw new IllegalStateException(closed ? "Journal has been closed" : "Journal has not been recovered yet");
+            }
+            encoder.encode(timestamp, amount.scale(), unscaledLong, unscaledBytes, unscaledLength, key, keyLength, recordSize);
+            long offset;
+            while ((offset = segment.claim(recordSize, segmentSize)) < 0L)
+                segment = rotateFull(segment);
+            encoder.writeTo(segment, offset, recordSize, slots);
+            segment.updateMaxTimestamp(timestamp);
+            if (!segment.dirty)
+                segment.dirty = true;
+        }
+        finally {
+            encoder.lock.unlock();
+        }
+    }
+
+    @Override
+    public long recover(Replayer replayer) {
+        Objects.requireNonNull(replayer, "Replayer is required");
+        final long now = epochSecond();
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        lock.lock();
+        try {
+            if (active != null || closed || replayingThread != null)
+                throw new IllegalStateException("Journal has already been recovered");
+            replayingThread = Thread.currentThread();
+            final ReplayChunk chunk = new ReplayChunk(replayer);
+            try {
+                for (final Path path : segmentPaths()) {
+                    final Segment segment = new Segment(path, sequence(path), now);
+                    segment.updateMaxTimestamp(replay(segment, chunk, oldestLiveSecond));
+                    segments.addLast(segment);
+                    nextSequence = segment.sequence + 1;
+                }
+                chunk.flush();
+            }
+            finally {
+                replayingThread = null;
+            }
+            deleteExpired(oldestLiveSecond);
+            final Segment recovered = open(nextSequence++);
+            recovered.openedSecond = now;
+            segments.addLast(recovered);
+            active = recovered;
+            logger.info("Replayed [{}] journaled transaction{}", chunk.replayedCount, chunk.replayedCount == 1 ? "" : "s");
+            return chunk.replayedCount;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force the journaled transactions to disk (group commit), rotate the active segment once it is due, delete the
+     * segments that have fully expired and create the next segment ahead of time
+     */
+    @Scheduled(fixedDelayString = "${stats-api.journal.flush-interval}")
+    public void flush() {
+        final long now = epochSecond();
+        //Segments are only unmapped while holding the flush lock, so they can be forced without holding up the writers:
+        flushLock.lock();
+        try {
+            final Segment dirtySegment;
+            final List<Segment> sealedSegments;
+            final long preparedSequence;
+            lock.lock();
+            try {
+                if (active == null)
+                    return;
+                if (now - active.openedSecond >= rotationIntervalSecs)
+                    rotate(now);
+                dirtySegment = active.dirty ? active : null;
+                active.dirty = false;
+                sealedSegments = List.copyOf(sealed);
+                sealed.clear();
+                preparedSequence = next == null ? nextSequence++ : -1L;
+            }
+            finally {
+                lock.unlock();
+            }
+            if (!sealedSegments.isEmpty())
+                awaitWriters();
+            for (final Segment segment : sealedSegments) {
+                segment.memory.force();
+                segment.unmap();
+            }
+            if (dirtySegment != null)
+                dirtySegment.memory.force();
+            if (preparedSequence >= 0L)
+                prepare(preparedSequence);
+            lock.lock();
+            try {
+                deleteExpired(now - expiryIntervalSecs);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of log segments
+     *
+     * @return The number of segments on disk (including the active segment, but not the next one created ahead of time)
+     */
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        flushLock.lock();
+        try {
+            final List<Segment> mappedSegments;
+            final Segment unusedSegment;
+            lock.lock();
+            try {
+                if (closed)
+                    return;
+                closed = true;
+                if (active != null)
+                    sealed.add(active);
+                active = null;
+                mappedSegments = List.copyOf(sealed);
+                sealed.clear();
+                unusedSegment = next;
+                next = null;
+            }
+            finally {
+                lock.unlock();
+            }
+            awaitWriters();
+            for (final Segment segment : mappedSegments) {
+                segment.memory.force();
+                segment.unmap();
+            }
+            if (unusedSegment != null)
+                discard(unusedSegment);
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rotate a full segment (unless another writer already has) and get the new active segment
+     */
+    private Segment rotateFull(Segment full) {
+        lock.lock();
+        try {
+            if (active == full)
+                rotate(epochSecond());
+            final Segment segment = active;
+            if (segment == null)
+                throw new IllegalStateException("Journal has been closed");
+            return segment;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seal the active segment (it is forced to disk and unmapped by the next flush) and switch to the next segment
+     */
+    @GuardedBy("lock")
+    private void rotate(long now) {
+        sealed.add(active);
+        Segment rotated = next;
+        next = null;
+        if (rotated == null) {
+            rotated = open(nextSequence++);  //Only if segments fill up faster than they are flushed
+            if (logger.isDebugEnabled())
+                logger.debug("Created journal segment [{}] on the append path", rotated.path);
+        }
+        rotated.openedSecond = now;
+        segments.addLast(rotated);
+        active = rotated;
+    }
+
+    /**
+     * Create and map the next segment ahead of time (without holding the lock)
+     */
+    private void prepare(long sequence) {
+        final Segment prepared = open(sequence);
+        final boolean installed;
+        lock.lock();
+        try {
+            //Unless a writer had to create a newer segment in the meantime:
+            installed = !closed && next == null && active != null && sequence > active.sequence;
+            if (installed)
+                next = prepared;
+        }
+        finally {
+            lock.unlock();
+        }
+        if (!installed)
+            discard(prepared);
+    }
+
+    /**
+     * Wait for the appends that may still be writing to a sealed segment (every append holds the lock of its encoder)
+     */
+    private void awaitWriters() {
+        for (final Encoder encoder : encoders) {
+            encoder.lock.lock();
+            encoder.lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void deleteExpired(long oldestLiveSecond) {
+        final Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            final Segment segment = iterator.next();
+            if (segment.memory != null || segment.maxTimestamp.get() >= oldestLiveSecond)
+                continue;  //Still mapped or not expired yet
+            try {
+                Files.deleteIfExists(segment.path);
+                iterator.remove();
+                if (logger.isDebugEnabled())
+                    logger.debug("Deleted expired journal segment [{}]", segment.path);
+            }
+            catch (IOException ex) {
+                logger.warn("Unable to delete expired journal segment [{}]", segment.path, ex);
+            }
+        }
+    }
+
+    private Segment open(long sequence) {
+        final Path path = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        final Segment segment = new Segment(path, sequence, Long.MIN_VALUE);
+        final Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            segment.map(arena, channel.map(FileChannel.MapMode.READ_WRITE, 0L, segmentSize, arena));
+            return segment;
+        }
+        catch (IOException ex) {
+            arena.close();
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Unmap and delete a segment that has never been written to
+     */
+    private static void discard(Segment segment) {
+        segment.unmap();
+        try {
+            Files.deleteIfExists(segment.path);
+        }
+        catch (IOException ex) {
+            logger.warn("Unable to delete unused journal segment [{}]", segment.path, ex);
+        }
+    }
+
+    /**
+     * Replay the valid records of a segment
+     *
+     * @return The newest timestamp in the segment
+     */
+    private static long replay(Segment segment, ReplayChunk chunk, long oldestLiveSecond) {
+        long maxTimestamp = Long.MIN_VALUE;
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            final MemorySegment memory = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+            final CRC32C crc = new CRC32C();
+            long position = 0L;
+            while (position + SLOT_SIZE <= memory.byteSize()) {
+                final int header = memory.get(INT, position);
+                final int slots = header & MAX_SLOTS;
+                final long recordSize = (long) slots * SLOT_SIZE;
+                if (header >>> 16 != RECORD_MARKER || slots == 0 || position + recordSize > memory.byteSize())
+                    break;
+                final int unscaledLength = Short.toUnsignedInt(memory.get(SHORT, position + 20));
+                final int keyLength = Short.toUnsignedInt(memory.get(SHORT, position + 22));
+                if (HEADER_SIZE + unscaledLength + keyLength > recordSize)
+                    break;
+                crc.reset();
+                crc.update(memory.asSlice(position + 8, HEADER_SIZE - 8 + unscaledLength + keyLength).asByteBuffer());
+                if ((int) crc.getValue() != memory.get(INT, position + 4))
+                    break;  //Torn record
+                final long timestamp = memory.get(LONG, position + 8);
+                maxTimestamp = Math.max(maxTimestamp, timestamp);
+                if (timestamp >= oldestLiveSecond) {
+                    final int scale = memory.get(INT, position + 16);
+                    final long payload = position + HEADER_SIZE;
+                    final BigDecimal amount = unscaledLength == Long.BYTES ?
+                            BigDecimal.valueOf(memory.get(LONG, payload), scale) :
+                            new BigDecimal(new BigInteger(memory.asSlice(payload, unscaledLength).toArray(ValueLayout.JAVA_BYTE)), scale);
+                    final String key = keyLength == 0 ? null :
+                            new String(memory.asSlice(payload + unscaledLength, keyLength).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+                    chunk.add(timestamp, amount, key);
+                }
+                position += recordSize;
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return maxTimestamp;
+    }
+
+    private List<Path> segmentPaths() {
+        try (Stream<Path> paths = Files.list(directory)) {
+            final List<Path> segmentPaths = new ArrayList<>();
+            paths.filter(path -> {
+                final String fileName = path.getFileName().toString();
+                return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segmentPaths::add);
+            segmentPaths.sort(null);  //Sequences are zero-padded
+            return segmentPaths;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long sequence(Path path) {
+        final String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Get the current UNIX epoch second (without allocating an {@link java.time.Instant})
+     */
+    private long epochSecond() {
+        return Math.floorDiv(clock.millis(), 1000L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [directory=%s, expiryIntervalSecs=%d, segmentSize=%d]",
+                getClass().getSimpleName(), directory, expiryIntervalSecs, segmentSize);
+    }
+
+    /**
+     * Get the number of UTF-8 bytes of a key (without encoding it)
+     */
+    private static int utf8Length(String key) {
+        int length = 0;
+        for (int i = 0; i < key.length(); i++) {
+            final char ch = key.charAt(i);
+            if (ch < 0x80)
+                length++;
+            else if (ch < 0x800)
+                length += 2;
+            else if (Character.isHighSurrogate(ch) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1))) {
+                length += 4;
+                i++;
+            }
+            else if (Character.isSurrogate(ch))
+                length++;  //Unpaired surrogates are replaced with '?' (the same as String.getBytes)
+            else
+                length += 3;
+        }
+        return length;
+    }
+
+    /**
+     * A log segment (only the active segment, the next segment and the sealed segments awaiting their flush are mapped)
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final AtomicLong position = new AtomicLong();
+        private final AtomicLong maxTimestamp = new AtomicLong(Long.MIN_VALUE);
+        private long openedSecond;  //Guarded by the lock of the journal
+        private Arena arena;
+        private MemorySegment memory;
+        private volatile boolean dirty;
+
+        private Segment(Path path, long sequence, long openedSecond) {
+            this.path = path;
+            this.sequence = sequence;
+            this.openedSecond = openedSecond;
+        }
+
+        private void map(Arena arena, MemorySegment memory) {
+            this.arena = arena;
+            this.memory = memory;
+        }
+
+        private void unmap() {
+            arena.close();
+            arena = null;
+            memory = null;
+        }
+
+        /**
+         * Claim the space of a record
+         *
+         * @return The offset of the record or -1 if the segment is full
+         */
+        private long claim(int recordSize, long segmentSize) {
+            final long offset = position.getAndAdd(recordSize);
+            return offset + recordSize <= segmentSize ? offset : -1L;
+        }
+
+        private void updateMaxTimestamp(long timestamp) {
+            if (timestamp > maxTimestamp.get())  //Usually only a read
+                maxTimestamp.accumulateAndGet(timestamp, Math::max);
+        }
+    }
+
+    /**
+     * Encodes records into its scratch buffer (guarded by its own lock, so writers on different threads rarely share one)
+     */
+    private static final class Encoder {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        @GuardedBy("lock")
+        private final CRC32C crc = new CRC32C();
+        @GuardedBy("lock")
+        private byte[] scratch = new byte[SLOT_SIZE];
+        @GuardedBy("lock")
+        private MemorySegment record = MemorySegment.ofArray(scratch);
+
+        @GuardedBy("lock")
+        private void encode(long timestamp, int scale, long unscaledLong, byte[] unscaledBytes, int unscaledLength,
+                            String key, int keyLength, int recordSize) {
+            if (scratch.length < recordSize) {
+                scratch = new byte[recordSize];
+                record = MemorySegment.ofArray(scratch);
+            }
+            record.set(LONG, 8, timestamp);
+            record.set(INT, 16, scale);
+            record.set(SHORT, 20, (short) unscaledLength);
+            record.set(SHORT, 22, (short) keyLength);
+            if (unscaledBytes == null)
+                record.set(LONG, HEADER_SIZE, unscaledLong);
+            else
+                System.arraycopy(unscaledBytes, 0, scratch, HEADER_SIZE, unscaledLength);
+            if (key != null)
+                encodeUtf8(key, HEADER_SIZE + unscaledLength);
+            crc.reset();
+            crc.update(scratch, 8, HEADER_SIZE - 8 + unscaledLength + keyLength);
+            record.set(INT, 4, (int) crc.getValue());
+        }
+
+        @GuardedBy("lock")
+        private void encodeUtf8(String key, int offset) {
+            int position = offset;
+            for (int i = 0; i < key.length(); i++) {
+                final char ch = key.charAt(i);
+                if (ch < 0x80)
+                    scratch[position++] = (byte) ch;
+                else if (ch < 0x800) {
+                    scratch[position++] = (byte) (0xC0 | ch >> 6);
+                    scratch[position++] = (byte) (0x80 | ch & 0x3F);
+                }
+                else if (Character.isHighSurrogate(ch) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(ch, key.charAt(++i));
+                    scratch[position++] = (byte) (0xF0 | codePoint >> 18);
+                    scratch[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    scratch[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    scratch[position++] = (byte) (0x80 | codePoint & 0x3F);
+                }
+                else if (Character.isSurrogate(ch))
+                    scratch[position++] = (byte) '?';
+                else {
+                    scratch[position++] = (byte) (0xE0 | ch >> 12);
+                    scratch[position++] = (byte) (0x80 | ch >> 6 & 0x3F);
+                    scratch[position++] = (byte) (0x80 | ch & 0x3F);
+                }
+            }
+        }
+
+        @GuardedBy("lock")
+        private void writeTo(Segment segment, long offset, int recordSize, int slots) {
+            //The marker goes in last, so a record is never seen before all of its content:
+            MemorySegment.copy(record, 4, segment.memory, offset + 4, recordSize - 4);
+            segment.memory.set(INT, offset, RECORD_MARKER << 16 | slots);
+        }
+    }
+
+    /**
+     * A chunk of replayed transactions
+     */
+    private static final class ReplayChunk {
+
+        private final Replayer replayer;
+        private final long[] timestamps = new long[REPLAY_CHUNK_SIZE];
+        private final BigDecimal[] amounts = new BigDecimal[REPLAY_CHUNK_SIZE];
+        private final String[] keys = new String[REPLAY_CHUNK_SIZE];
+        private int length;
+        private long replayedCount;
+
+        private ReplayChunk(Replayer replayer) {
+            this.replayer = replayer;
+        }
+
+        private void add(long timestamp, BigDecimal amount, String key) {
+            timestamps[length] = timestamp;
+            amounts[length] = amount;
+            keys[length] = key;
+            if (++length == REPLAY_CHUNK_SIZE)
+                flush();
+        }
+
+        private void flush() {
+            if (length == 0)
+                return;
+            replayer.replay(timestamps, amounts, keys, length);
+            replayedCount += length;
+            Arrays.fill(amounts, 0, length, null);
+            Arrays.fill(keys, 0, length, null);
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.sattler22.stats.journal;
+
+import java.math.BigDecimal;
+
+/**
+ * Real-Time Statistics Transaction Journal
+ * <p>
+ * Receives every transaction accepted by a statistics service, so the live window can be rebuilt after a restart.
+ * Implementations are called on the ingestion hot path, so they must be thread-safe and should be cheap.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public interface TransactionJournal extends AutoCloseable {
+
+    /**
+     * Journal which discards every transaction
+     */
+    TransactionJournal NOOP = new TransactionJournal() {
+    };
+
+    /**
+     * Append an accepted transaction
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     * @param amount The real-time transaction amount
+     * @param key The optional statistics key (or null)
+     */
+    default void append(long timestamp, BigDecimal amount, String key) {
+    }
+
+    /**
+     * Replay the journaled transactions that have not expired yet (and start journaling new ones)
+     *
+     * @param replayer Receives the journaled transactions in chunks (oldest first)
+     * @return The number of replayed transactions
+     */
+    default long recover(Replayer replayer) {
+        return 0L;
+    }
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Journaled transactions replayer
+     */
+    @FunctionalInterface
+    interface Replayer {
+
+        /**
+         * Replay a chunk of journaled transactions
+         *
+         * @param timestamps The real-time transaction times in seconds from the UNIX epoch
+         * @param amounts The real-time transaction amounts
+         * @param keys The statistics keys (individual keys may be null)
+         * @param length The number of transactions in the chunk (starting at index zero)
+         */
+        void replay(long[] timestamps, BigDecimal[] amounts, String[] keys, int length);
+    }
+}
@@ -0,0 +1,99 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics Micrometer Metrics Recorder
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class MicrometerStatisticsMetricsRecorder implements StatisticsMetricsRecorder {
+
+    private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+    private final Timer addTimer;
+    private final Timer addAllTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer parseTimer;
+    private final Timer collectTimer;
+    private final Timer removeIfExpiredTimer;
+    private final Timer ingestLagTimer;
+    private final Counter expiredCounter;
+    private final Counter removedCounter;
+
+    /**
+     * Constructs a new Micrometer metrics recorder
+     *
+     * @param meterRegistry The meter registry
+     */
+    public MicrometerStatisticsMetricsRecorder(MeterRegistry meterRegistry) {
+        this.addTimer = timer("stats.service.add", "Time taken to add a transaction", meterRegistry);
+        this.addAllTimer = timer("stats.service.add-all", "Time taken to add a batch of transactions", meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("stats.service.add-all.size")
+                .description("Number of transactions per batch")
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+        this.parseTimer = timer("stats.controller.parse", "Time taken to parse a request body", meterRegistry);
+        this.collectTimer = timer("stats.service.collect", "Time taken to collect the statistics", meterRegistry);
+        this.removeIfExpiredTimer = timer("stats.service.remove-if-expired", "Time taken to remove the expired transactions", meterRegistry);
+        this.ingestLagTimer = timer("stats.ingest.lag", "Time asynchronously ingested transactions wait before being applied", meterRegistry);
+        this.expiredCounter = Counter.builder("stats.service.transactions.expired")
+                .description("Transactions rejected because they have expired")
+                .register(meterRegistry);
+        this.removedCounter = Counter.builder("stats.service.transactions.removed")
+                .description("Expired transactions removed by the clean-up")
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(String name, String description, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordAdd(long elapsedNanos) {
+        addTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordAddAll(long elapsedNanos, int batchSize) {
+        addAllTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(batchSize);
+    }
+
+    @Override
+    public void recordExpired(long count) {
+        expiredCounter.increment(count);
+    }
+
+    @Override
+    public void recordParse(long elapsedNanos) {
+        parseTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordCollect(long elapsedNanos) {
+        collectTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRemoveIfExpired(long elapsedNanos, long removedCount) {
+        removeIfExpiredTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        removedCounter.increment(removedCount);
+    }
+
+    @Override
+    public void recordIngestLag(long lagNanos) {
+        ingestLagTimer.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,47 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sattler22.stats.admission.AdmissionController;
+
+import java.util.Objects;
+
+/**
+ * Real-Time Statistics Admission Control Meters
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class StatisticsAdmissionMeterBinder implements MeterBinder {
+
+    private final AdmissionController admissionController;
+
+    /**
+     * Constructs a new admission control meter binder
+     *
+     * @param admissionController The admission controller
+     */
+    public StatisticsAdmissionMeterBinder(AdmissionController admissionController) {
+        this.admissionController = Objects.requireNonNull(admissionController, "Admission controller is required");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("stats.admission.rejected", admissionController, AdmissionController::rateLimitedCount)
+                .description("Ingestion requests rejected by the admission controller")
+                .tag("reason", "rate-limited")
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.admission.rejected", admissionController, AdmissionController::saturatedCount)
+                .description("Ingestion requests rejected by the admission controller")
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.admission.lossy", admissionController, AdmissionController::lossyCount)
+                .description("Ingestion requests counted in the aggregates only")
+                .register(meterRegistry);
+        Gauge.builder("stats.admission.in.flight", admissionController, AdmissionController::inFlight)
+                .description("Ingestion requests inside the statistics service")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sattler22.stats.ingest.AsyncTransactionIngestor;
+
+import java.util.Objects;
+
+/**
+ * Real-Time Statistics Asynchronous Ingestion Meters
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class StatisticsIngestMeterBinder implements MeterBinder {
+
+    private final AsyncTransactionIngestor ingestor;
+
+    /**
+     * Constructs a new asynchronous ingestion meter binder
+     *
+     * @param ingestor The asynchronous transaction ingestor
+     */
+    public StatisticsIngestMeterBinder(AsyncTransactionIngestor ingestor) {
+        this.ingestor = Objects.requireNonNull(ingestor, "Ingestor is required");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("stats.ingest.queue.depth", ingestor, AsyncTransactionIngestor::queueDepth)
+                .description("Published transactions that have not been applied yet")
+                .register(meterRegistry);
+        Gauge.builder("stats.ingest.queue.capacity", ingestor, AsyncTransactionIngestor::capacity)
+                .description("Transactions the ingestion ring buffer can hold")
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.ingest.rejected", ingestor, AsyncTransactionIngestor::rejectedCount)
+                .description("Transactions rejected because the ingestion ring buffer was full")
+                .register(meterRegistry);
+    }
+}
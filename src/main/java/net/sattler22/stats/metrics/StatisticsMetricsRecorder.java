@@ -0,0 +1,77 @@
+package net.sattler22.stats.metrics;
+
+/**
+ * Real-Time Statistics Metrics Recorder
+ * <p>
+ * Receives the timings of every statistics service operation. Implementations are called on the ingestion hot path,
+ * so they must be thread-safe and should not allocate.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public interface StatisticsMetricsRecorder {
+
+    /**
+     * Recorder which discards every measurement
+     */
+    StatisticsMetricsRecorder NOOP = new StatisticsMetricsRecorder() {
+    };
+
+    /**
+     * Record an added transaction
+     *
+     * @param elapsedNanos The elapsed time (in nanoseconds)
+     */
+    default void recordAdd(long elapsedNanos) {
+    }
+
+    /**
+     * Record a batch of added transactions
+     *
+     * @param elapsedNanos The elapsed time (in nanoseconds)
+     * @param batchSize The number of transactions in the batch (including expired transactions)
+     */
+    default void recordAddAll(long elapsedNanos, int batchSize) {
+    }
+
+    /**
+     * Record transactions that were rejected because they have expired
+     *
+     * @param count The number of expired transactions
+     */
+    default void recordExpired(long count) {
+    }
+
+    /**
+     * Record the parsing of a request body
+     *
+     * @param elapsedNanos The elapsed time (in nanoseconds)
+     */
+    default void recordParse(long elapsedNanos) {
+    }
+
+    /**
+     * Record a statistics collection
+     *
+     * @param elapsedNanos The elapsed time (in nanoseconds)
+     */
+    default void recordCollect(long elapsedNanos) {
+    }
+
+    /**
+     * Record an expired transaction clean-up
+     *
+     * @param elapsedNanos The elapsed time (in nanoseconds)
+     * @param removedCount The number of expired transactions removed
+     */
+    default void recordRemoveIfExpired(long elapsedNanos, long removedCount) {
+    }
+
+    /**
+     * Record the time a chunk of asynchronously ingested transactions has waited before being applied
+     *
+     * @param lagNanos The time between publishing the oldest transaction of the chunk and applying the chunk (in nanoseconds)
+     */
+    default void recordIngestLag(long lagNanos) {
+    }
+}
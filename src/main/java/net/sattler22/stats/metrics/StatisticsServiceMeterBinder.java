@@ -0,0 +1,76 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.EventTimePolicy;
+import net.sattler22.stats.service.StatisticsService;
+
+import java.util.Objects;
+
+/**
+ * Real-Time Statistics Service Gauges
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class StatisticsServiceMeterBinder implements MeterBinder {
+
+    private final StatisticsService statisticsService;
+    private final EventTimePolicy eventTimePolicy;
+
+    /**
+     * Constructs a new statistics service meter binder
+     *
+     * @param statisticsService The statistics service
+     */
+    public StatisticsServiceMeterBinder(StatisticsService statisticsService) {
+        this(statisticsService, null);
+    }
+
+    /**
+     * Constructs a new statistics service meter binder
+     *
+     * @param statisticsService The statistics service
+     * @param eventTimePolicy The event-time ingestion policy of the service (or null if there is none)
+     */
+    public StatisticsServiceMeterBinder(StatisticsService statisticsService, EventTimePolicy eventTimePolicy) {
+        this.statisticsService = Objects.requireNonNull(statisticsService, "Statistics service is required");
+        this.eventTimePolicy = eventTimePolicy;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("stats.service.transactions.retained", statisticsService, StatisticsService::retainedCount)
+                .description("Transactions held by the service (including expired transactions not removed yet)")
+                .register(meterRegistry);
+        Gauge.builder("stats.service.keys.active", statisticsService, StatisticsService::activeKeyCount)
+                .description("Keys with a window (including idle keys not evicted yet)")
+                .register(meterRegistry);
+        if (eventTimePolicy != null) {
+            FunctionCounter.builder("stats.service.transactions.late", eventTimePolicy, EventTimePolicy::lateCount)
+                    .description("Transactions older than the event-time watermark")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.service.transactions.future", eventTimePolicy, EventTimePolicy::futureCount)
+                    .description("Transactions too far ahead of the current second")
+                    .register(meterRegistry);
+            Gauge.builder("stats.service.watermark", eventTimePolicy, EventTimePolicy::watermark)
+                    .description("Oldest event time (in seconds from the UNIX epoch) still accepted")
+                    .register(meterRegistry);
+        }
+        if (statisticsService instanceof BucketedStatisticsServiceImpl bucketedService)
+            for (int i = 0; i < bucketedService.stripeCount(); i++) {
+                final int stripe = i;
+                Gauge.builder("stats.service.stripe.buckets.occupied", bucketedService, service -> service.occupiedBuckets(stripe))
+                        .description("Per-second buckets in use by an ingestion stripe")
+                        .tag("stripe", String.valueOf(stripe))
+                        .register(meterRegistry);
+                Gauge.builder("stats.service.stripe.transactions.retained", bucketedService, service -> service.retainedCount(stripe))
+                        .description("Transactions aggregated by an ingestion stripe")
+                        .tag("stripe", String.valueOf(stripe))
+                        .register(meterRegistry);
+            }
+    }
+}
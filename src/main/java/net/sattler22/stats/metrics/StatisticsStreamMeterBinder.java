@@ -0,0 +1,39 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sattler22.stats.stream.StatisticsStreamPublisher;
+
+import java.util.Objects;
+
+/**
+ * Real-Time Statistics Stream Meters
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class StatisticsStreamMeterBinder implements MeterBinder {
+
+    private final StatisticsStreamPublisher streamPublisher;
+
+    /**
+     * Constructs a new statistics stream meter binder
+     *
+     * @param streamPublisher The statistics stream publisher
+     */
+    public StatisticsStreamMeterBinder(StatisticsStreamPublisher streamPublisher) {
+        this.streamPublisher = Objects.requireNonNull(streamPublisher, "Stream publisher is required");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("stats.stream.subscribers", streamPublisher, StatisticsStreamPublisher::subscriberCount)
+                .description("Open statistics stream subscriptions")
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.stream.subscribers.dropped", streamPublisher, StatisticsStreamPublisher::droppedCount)
+                .description("Statistics stream subscribers dropped as slow consumers")
+                .register(meterRegistry);
+    }
+}
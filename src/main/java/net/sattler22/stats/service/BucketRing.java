@@ -0,0 +1,394 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsTransaction;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-Second Bucket Ring Buffer
+ * <p>
+ * Each slot aggregates every transaction whose timestamp falls within the same second. The ring covers the expiry
+ * interval plus a horizon of future timestamps (by default equally sized), so a slot can only be reused once its
+ * previous second has expired. Timestamps beyond the horizon are kept in a small overflow map keyed by second, which
+ * stays empty when the service bounds the future timestamps it accepts to the horizon (see {@link EventTimePolicy}).
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class BucketRing {
+
+    private final long expiryIntervalSecs;
+    private final long futureHorizonSecs;
+    private final int maxInputScale;
+    private final boolean distribution;
+    private final ReentrantLock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Bucket[] buckets;
+    @GuardedBy("lock")
+    private final NavigableMap<Long, StatisticsAccumulator> overflow = new TreeMap<>();
+    @GuardedBy("lock")
+    private final WindowSnapshot window;
+    private volatile long modCount;
+
+    /**
+     * Constructs a new bucket ring
+     *
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    BucketRing(long expiryIntervalSecs, int maxInputScale, boolean distribution) {
+        this(expiryIntervalSecs, expiryIntervalSecs + 1, maxInputScale, distribution);
+    }
+
+    /**
+     * Constructs a new bucket ring
+     *
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @param futureHorizonSecs The number of seconds ahead of the current second covered by the ring
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    BucketRing(long expiryIntervalSecs, long futureHorizonSecs, int maxInputScale, boolean distribution) {
+        if (expiryIntervalSecs < 0)
+            throw new IllegalArgumentException("Expiry interval cannot be negative");
+        if (futureHorizonSecs < 0)
+            throw new IllegalArgumentException("Future horizon cannot be negative");
+        this.expiryIntervalSecs = expiryIntervalSecs;
+        this.futureHorizonSecs = futureHorizonSecs;
+        this.maxInputScale = maxInputScale;
+        this.distribution = distribution;
+        this.buckets = new Bucket[Math.toIntExact(expiryIntervalSecs + 1 + futureHorizonSecs)];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new Bucket(new StatisticsAccumulator(maxInputScale, distribution));
+        this.window = new WindowSnapshot(expiryIntervalSecs, maxInputScale, distribution);
+    }
+
+    /**
+     * Add an amount to its bucket
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch (must not be expired)
+     * @param amount The real-time transaction amount
+     * @param now The current time in seconds from the UNIX epoch
+     */
+    void add(long timestamp, BigDecimal amount, long now) {
+        lock.lock();
+        try {
+            addToBucket(timestamp, amount, now);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a batch of transactions to their buckets while holding the lock once
+     *
+     * @param transactions The real-time transactions (transactions outside the accepted range are skipped)
+     * @param oldestAcceptedSecond The oldest second accepted (no older than the oldest live second)
+     * @param newestAcceptedSecond The newest second accepted
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The number of transactions added
+     */
+    int addAll(Collection<StatisticsTransaction> transactions, long oldestAcceptedSecond, long newestAcceptedSecond,
+               long now) {
+        int added = 0;
+        lock.lock();
+        try {
+            for (final StatisticsTransaction transaction : transactions)
+                if (transaction.timestamp() >= oldestAcceptedSecond && transaction.timestamp() <= newestAcceptedSecond) {
+                    addToBucket(transaction.timestamp(), transaction.amount(), now);
+                    added++;
+                }
+            return added;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a chunk of raw transactions to their buckets while holding the lock once
+     *
+     * @param timestamps The real-time transaction times in seconds from the UNIX epoch
+     * @param amounts The real-time transaction amounts
+     * @param length The number of transactions in the chunk (transactions outside the accepted range are skipped)
+     * @param oldestAcceptedSecond The oldest second accepted (no older than the oldest live second)
+     * @param newestAcceptedSecond The newest second accepted
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The number of transactions added
+     */
+    int addAll(long[] timestamps, BigDecimal[] amounts, int length, long oldestAcceptedSecond, long newestAcceptedSecond,
+               long now) {
+        int added = 0;
+        lock.lock();
+        try {
+            for (int i = 0; i < length; i++)
+                if (timestamps[i] >= oldestAcceptedSecond && timestamps[i] <= newestAcceptedSecond) {
+                    addToBucket(timestamps[i], amounts[i], now);
+                    added++;
+                }
+            return added;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add an amount to its bucket only if the ring is not currently in use by another thread
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch (must not be expired)
+     * @param amount The real-time transaction amount
+     * @param now The current time in seconds from the UNIX epoch
+     * @return True if the amount was added. Otherwise, returns false if the ring is contended.
+     */
+    boolean tryAdd(long timestamp, BigDecimal amount, long now) {
+        if (!lock.tryLock())
+            return false;
+        try {
+            addToBucket(timestamp, amount, now);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void addToBucket(long timestamp, BigDecimal amount, long now) {
+        accumulatorFor(timestamp, now).add(amount);
+        window.add(timestamp, amount);
+        modCount++;
+    }
+
+    @GuardedBy("lock")
+    private StatisticsAccumulator accumulatorFor(long timestamp, long now) {
+        if (timestamp > now + futureHorizonSecs)
+            return overflow.computeIfAbsent(timestamp, second -> new StatisticsAccumulator(maxInputScale, distribution));
+        final Bucket bucket = buckets[Math.floorMod(timestamp, buckets.length)];
+        if (bucket.second != timestamp) {
+            //Any previous second mapped to this slot has already expired:
+            bucket.second = timestamp;
+            bucket.accumulator.reset();
+        }
+        return bucket.accumulator;
+    }
+
+    /**
+     * Merge every live bucket into the target accumulator
+     * <p>
+     * The live buckets are only scanned the first time the ring is collected in a new second. Within the same second,
+     * the window snapshot (kept up to date as amounts are added) is merged instead.
+     *
+     * @param target The accumulator to merge into
+     * @param now The current time in seconds from the UNIX epoch
+     */
+    void collect(StatisticsAccumulator target, long now) {
+        lock.lock();
+        try {
+            if (!window.isCurrent(now)) {
+                final long oldestLiveSecond = now - expiryIntervalSecs;
+                final StatisticsAccumulator snapshot = window.rebuild(now);
+                for (final Bucket bucket : buckets)
+                    if (bucket.second >= oldestLiveSecond)
+                        snapshot.merge(bucket.accumulator);
+                for (final StatisticsAccumulator accumulator : overflow.tailMap(oldestLiveSecond, true).values())
+                    snapshot.merge(accumulator);
+            }
+            target.merge(window.accumulator());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merge the buckets of a shorter lookback window into the target accumulator
+     * <p>
+     * Only the buckets from the oldest second in the window up to the future horizon are visited.
+     *
+     * @param target The accumulator to merge into
+     * @param now The current time in seconds from the UNIX epoch
+     * @param fromSecond The oldest second in the window (no older than the oldest live second)
+     */
+    void collect(StatisticsAccumulator target, long now, long fromSecond) {
+        lock.lock();
+        try {
+            for (long second = fromSecond; second <= now + futureHorizonSecs; second++) {
+                final Bucket bucket = buckets[Math.floorMod(second, buckets.length)];
+                if (bucket.second == second)
+                    target.merge(bucket.accumulator);
+            }
+            for (final StatisticsAccumulator accumulator : overflow.tailMap(fromSecond, true).values())
+                target.merge(accumulator);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merge the bucket of every second in the series window into its point
+     *
+     * @param points The point accumulators
+     * @param seriesWindow The series window
+     */
+    void collectSeries(StatisticsAccumulator[] points, SeriesWindow seriesWindow) {
+        lock.lock();
+        try {
+            for (long second = seriesWindow.fromSecond(); second <= seriesWindow.toSecond(); second++) {
+                final Bucket bucket = buckets[Math.floorMod(second, buckets.length)];
+                if (bucket.second == second)
+                    points[seriesWindow.pointIndex(second)].merge(bucket.accumulator);
+            }
+            //Seconds that were beyond the future horizon when they were added:
+            for (final Map.Entry<Long, StatisticsAccumulator> entry :
+                    overflow.subMap(seriesWindow.fromSecond(), true, seriesWindow.toSecond(), true).entrySet())
+                points[seriesWindow.pointIndex(entry.getKey())].merge(entry.getValue());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merge every live bucket (including the future ones) into the accumulator of its second
+     *
+     * @param partials The partials collector
+     */
+    void collectPartials(PartialsCollector partials) {
+        lock.lock();
+        try {
+            for (final Bucket bucket : buckets)
+                if (bucket.second >= partials.oldestLiveSecond() && bucket.accumulator.count() > 0)
+                    partials.accumulatorFor(bucket.second).merge(bucket.accumulator);
+            for (final Map.Entry<Long, StatisticsAccumulator> entry : overflow.tailMap(partials.oldestLiveSecond(), true).entrySet())
+                partials.accumulatorFor(entry.getKey()).merge(entry.getValue());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Live bucket existence check
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return True if at least one bucket has not expired. Otherwise, returns false.
+     */
+    boolean hasTransactions(long now) {
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        lock.lock();
+        try {
+            for (final Bucket bucket : buckets)
+                if (bucket.second >= oldestLiveSecond && bucket.accumulator.count() > 0)
+                    return true;
+            return !overflow.tailMap(oldestLiveSecond, true).isEmpty();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release expired buckets
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The number of expired transactions released
+     */
+    long removeIfExpired(long now) {
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        long removed = 0L;
+        lock.lock();
+        try {
+            for (final Bucket bucket : buckets)
+                if (bucket.second != Bucket.UNUSED && bucket.second < oldestLiveSecond) {
+                    removed += bucket.accumulator.count();
+                    bucket.second = Bucket.UNUSED;
+                    bucket.accumulator.reset();
+                }
+            final Iterator<Map.Entry<Long, StatisticsAccumulator>> iterator = overflow.headMap(oldestLiveSecond, false).entrySet().iterator();
+            while (iterator.hasNext()) {
+                removed += iterator.next().getValue().count();
+                iterator.remove();
+            }
+            return removed;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the modification count
+     *
+     * @return The number of amounts added to the ring so far (never decreases)
+     */
+    long modCount() {
+        return modCount;
+    }
+
+    /**
+     * Get the number of occupied buckets
+     *
+     * @return The number of buckets (including overflow buckets) that have not been released yet
+     */
+    int occupiedBuckets() {
+        lock.lock();
+        try {
+            int occupied = overflow.size();
+            for (final Bucket bucket : buckets)
+                if (bucket.second != Bucket.UNUSED)
+                    occupied++;
+            return occupied;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of retained transactions
+     *
+     * @return The number of transactions aggregated in buckets that have not been released yet
+     */
+    long retainedCount() {
+        lock.lock();
+        try {
+            long retained = 0L;
+            for (final Bucket bucket : buckets)
+                if (bucket.second != Bucket.UNUSED)
+                    retained += bucket.accumulator.count();
+            for (final StatisticsAccumulator accumulator : overflow.values())
+                retained += accumulator.count();
+            return retained;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A single second of aggregated transactions
+     */
+    private static final class Bucket {
+
+        private static final long UNUSED = Long.MIN_VALUE;
+        private final StatisticsAccumulator accumulator;
+        private long second = UNUSED;
+
+        private Bucket(StatisticsAccumulator accumulator) {
+            this.accumulator = accumulator;
+        }
+    }
+}
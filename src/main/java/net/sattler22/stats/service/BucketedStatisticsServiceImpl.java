@@ -0,0 +1,504 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.exception.ExpirationException;
+import net.sattler22.stats.journal.TransactionJournal;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-Time Statistics Service Bucketed Implementation
+ * <p>
+ * Transactions are aggregated into per-second buckets as they arrive, so both adding a transaction and collecting the
+ * statistics take constant time and memory regardless of the transaction rate.
+ * <p>
+ * Ingestion can optionally be lock-striped across several independent bucket rings. Each thread starts at its own
+ * home stripe and, much like {@link java.util.concurrent.atomic.LongAdder}, moves on to the next stripe whenever its
+ * {@code tryLock} fails. Only when every stripe is busy does the thread block on its home stripe. The stripes are only
+ * merged at collection time.
+ * <p>
+ * Each stripe keeps a snapshot of its live window that is rebuilt once per second and updated incrementally on add.
+ * Query results are also cached per calculation scale and rounding mode until either the second or the stripe
+ * modification counts change, so read-heavy traffic is mostly served without merging anything. Shorter lookback
+ * windows and time series only merge the buckets they cover.
+ * <p>
+ * Keyed transactions are additionally counted in a compact per-key window (shared by every stripe).
+ * <p>
+ * Every accepted transaction is also handed to the transaction journal (if any), so the live window can be replayed
+ * after a restart.
+ * <p>
+ * In event-time mode, late and future transactions are counted by the {@link EventTimePolicy} instead, and the rings
+ * only cover the allowed skew ahead of the current second.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class BucketedStatisticsServiceImpl implements StatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BucketedStatisticsServiceImpl.class);
+    private static final String TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE = "%s has expired";
+    private final long expiryIntervalSecs;
+    private final int maxInputScale;
+    private final boolean distribution;
+    private final StatisticsMetricsRecorder metricsRecorder;
+    private final TransactionJournal journal;
+    private final EventTimePolicy eventTimePolicy;
+    private final Clock clock;
+    private final BucketRing[] stripes;
+    private final QueryResultCache queryResultCache = new QueryResultCache();
+    private final KeyedWindows keyedWindows;
+
+    /**
+     * Constructs a new (single stripe) bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval) {
+        this(expiryInterval, 1);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount) {
+        this(expiryInterval, stripeCount, DECIMAL_ARITHMETIC);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale) {
+        this(expiryInterval, stripeCount, maxInputScale, StatisticsMetricsRecorder.NOOP);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale,
+                                         StatisticsMetricsRecorder metricsRecorder) {
+        this(expiryInterval, stripeCount, maxInputScale, metricsRecorder, TransactionJournal.NOOP);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale,
+                                         StatisticsMetricsRecorder metricsRecorder, TransactionJournal journal) {
+        this(expiryInterval, stripeCount, maxInputScale, metricsRecorder, journal, null);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale,
+                                         StatisticsMetricsRecorder metricsRecorder, TransactionJournal journal,
+                                         EventTimePolicy eventTimePolicy) {
+        this(expiryInterval, stripeCount, maxInputScale, metricsRecorder, journal, eventTimePolicy, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     * @param clock The clock deciding the current second
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale,
+                                         StatisticsMetricsRecorder metricsRecorder, TransactionJournal journal,
+                                         EventTimePolicy eventTimePolicy, Clock clock) {
+        this(expiryInterval, stripeCount, maxInputScale, metricsRecorder, journal, eventTimePolicy, clock, false);
+    }
+
+    /**
+     * Constructs a new striped bucketed statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripeCount The number of independent ingestion stripes
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     * @param clock The clock deciding the current second
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    public BucketedStatisticsServiceImpl(Duration expiryInterval, int stripeCount, int maxInputScale,
+                                         StatisticsMetricsRecorder metricsRecorder, TransactionJournal journal,
+                                         EventTimePolicy eventTimePolicy, Clock clock, boolean distribution) {
+        if (stripeCount < 1)
+            throw new IllegalArgumentException("Stripe count must be at least one");
+        this.expiryIntervalSecs = expiryInterval.toSeconds();
+        this.maxInputScale = maxInputScale;
+        this.distribution = distribution;
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder, "Metrics recorder is required");
+        this.journal = Objects.requireNonNull(journal, "Journal is required");
+        this.eventTimePolicy = eventTimePolicy;
+        this.clock = Objects.requireNonNull(clock, "Clock is required");
+        final long futureHorizonSecs = eventTimePolicy == null ? expiryIntervalSecs + 1 : eventTimePolicy.allowedSkewSecs();
+        this.stripes = new BucketRing[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+            stripes[i] = new BucketRing(expiryIntervalSecs, futureHorizonSecs, maxInputScale, distribution);
+        this.keyedWindows = new KeyedWindows(expiryIntervalSecs, maxInputScale);
+    }
+
+    @Override
+    public boolean add(StatisticsTransaction transaction) {
+        if (transaction == null)
+            throw new NullPointerException("Transaction is required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        if (eventTimePolicy != null && !eventTimePolicy.admit(transaction.timestamp(), now))
+            return false;  //Counted as late or future
+        if (now > transaction.timestamp() + expiryIntervalSecs) {
+            metricsRecorder.recordExpired(1L);
+            throw new ExpirationException(String.format(TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE, transaction));
+        }
+        addToStripe(transaction, now);
+        journal.append(transaction.timestamp(), transaction.amount(), transaction.key());
+        if (transaction.key() != null)
+            keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAdd(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("Added {}, elapsed time: {} ns", transaction, elapsedNanos);
+        return true;
+    }
+
+    @Override
+    public void addAggregateOnly(StatisticsTransaction transaction) {
+        if (transaction == null)
+            throw new NullPointerException("Transaction is required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        if (eventTimePolicy != null && !eventTimePolicy.admit(transaction.timestamp(), now))
+            return;  //Counted as late or future
+        if (now > transaction.timestamp() + expiryIntervalSecs) {
+            metricsRecorder.recordExpired(1L);
+            throw new ExpirationException(String.format(TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE, transaction));
+        }
+        addToStripe(transaction, now);  //The rings only ever keep the aggregates, so only the journal is skipped
+        if (transaction.key() != null)
+            keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAdd(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("Added {} to the aggregates only, elapsed time: {} ns", transaction, elapsedNanos);
+    }
+
+    @Override
+    public StatisticsBatchResult addAll(Collection<StatisticsTransaction> transactions) {
+        Objects.requireNonNull(transactions, "Transactions are required");
+        for (final StatisticsTransaction transaction : transactions)
+            Objects.requireNonNull(transaction, "Transaction is required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        final long oldestAcceptedSecond = oldestAcceptedSecond(now);
+        final long newestAcceptedSecond = newestAcceptedSecond(now);
+        final int accepted = stripes[homeStripe()].addAll(transactions, oldestAcceptedSecond, newestAcceptedSecond, now);
+        long futureCount = 0L;
+        for (final StatisticsTransaction transaction : transactions)
+            if (transaction.timestamp() > newestAcceptedSecond)
+                futureCount++;
+            else if (transaction.timestamp() >= oldestAcceptedSecond) {
+                journal.append(transaction.timestamp(), transaction.amount(), transaction.key());
+                if (transaction.key() != null)
+                    keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+            }
+        final long expiredCount = transactions.size() - accepted - futureCount;
+        recordRejected(expiredCount, futureCount);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAddAll(elapsedNanos, transactions.size());
+        if (logger.isDebugEnabled())
+            logger.debug("Added [{}] of [{}] transactions, elapsed time: {} ns", accepted, transactions.size(), elapsedNanos);
+        return new StatisticsBatchResult(accepted, expiredCount, futureCount);
+    }
+
+    @Override
+    public StatisticsBatchResult addAll(long[] timestamps, BigDecimal[] amounts, String[] keys, int length) {
+        Objects.checkFromIndexSize(0, length, Math.min(timestamps.length, amounts.length));
+        if (keys != null)
+            Objects.checkFromIndexSize(0, length, keys.length);
+        for (int i = 0; i < length; i++) {
+            Objects.requireNonNull(amounts[i], "Amount is required");
+            if (keys != null && keys[i] != null && !StatisticsTransaction.isValidKey(keys[i]))
+                throw new IllegalArgumentException(String.format("Key must be between 1 and %d non-blank characters",
+                        StatisticsTransaction.MAX_KEY_LENGTH));
+        }
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        final long oldestAcceptedSecond = oldestAcceptedSecond(now);
+        final long newestAcceptedSecond = newestAcceptedSecond(now);
+        final int accepted = stripes[homeStripe()].addAll(timestamps, amounts, length, oldestAcceptedSecond,
+                newestAcceptedSecond, now);
+        long futureCount = 0L;
+        for (int i = 0; i < length; i++)
+            if (timestamps[i] > newestAcceptedSecond)
+                futureCount++;
+            else if (timestamps[i] >= oldestAcceptedSecond) {
+                final String key = keys == null ? null : keys[i];
+                journal.append(timestamps[i], amounts[i], key);
+                if (key != null)
+                    keyedWindows.add(key, timestamps[i], amounts[i], now);
+            }
+        final long expiredCount = length - accepted - futureCount;
+        recordRejected(expiredCount, futureCount);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAddAll(elapsedNanos, length);
+        if (logger.isDebugEnabled())
+            logger.debug("Added [{}] of [{}] raw transactions, elapsed time: {} ns", accepted, length, elapsedNanos);
+        return new StatisticsBatchResult(accepted, expiredCount, futureCount);
+    }
+
+    /**
+     * Get the oldest second accepted (the watermark in event-time mode)
+     */
+    private long oldestAcceptedSecond(long now) {
+        return eventTimePolicy == null ? now - expiryIntervalSecs : eventTimePolicy.advance(now);
+    }
+
+    /**
+     * Get the newest second accepted (unbounded unless in event-time mode)
+     */
+    private long newestAcceptedSecond(long now) {
+        return eventTimePolicy == null ? Long.MAX_VALUE : eventTimePolicy.newestAcceptedSecond(now);
+    }
+
+    /**
+     * Count the transactions of a batch that were not accepted
+     */
+    private void recordRejected(long expiredCount, long futureCount) {
+        if (eventTimePolicy != null)
+            eventTimePolicy.recordRejected(expiredCount, futureCount);
+        else if (expiredCount > 0)
+            metricsRecorder.recordExpired(expiredCount);
+    }
+
+    /**
+     * Add to the home stripe of the current thread, moving on to the next one whenever a stripe is contended
+     */
+    private void addToStripe(StatisticsTransaction transaction, long now) {
+        final int homeStripe = homeStripe();
+        for (int i = 0; i < stripes.length; i++)
+            if (stripes[(homeStripe + i) % stripes.length].tryAdd(transaction.timestamp(), transaction.amount(), now))
+                return;
+        stripes[homeStripe].add(transaction.timestamp(), transaction.amount(), now);  //Every stripe is busy
+    }
+
+    private int homeStripe() {
+        if (stripes.length == 1)
+            return 0;
+        final long threadId = Thread.currentThread().threadId();
+        return Math.floorMod(Long.hashCode(threadId * 0x9E3779B97F4A7C15L), stripes.length);  //Fibonacci hashing
+    }
+
+    @Override
+    public boolean hasTransactions() {
+        final long now = epochSecond();
+        for (final BucketRing stripe : stripes)
+            if (stripe.hasTransactions(now))
+                return true;
+        return false;
+    }
+
+    @Override
+    public StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions) {
+        Objects.requireNonNull(queryOptions, "Query options are required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        //Read the modification count BEFORE collecting, so a result never gets cached under a newer count:
+        final long modCount = modCount();
+        StatisticsQueryResult queryResult = queryResultCache.get(now, modCount, calcScale, calcRoundingMode, queryOptions);
+        if (queryResult == null) {
+            final StatisticsAccumulator accumulator = new StatisticsAccumulator(maxInputScale, distribution);
+            for (final BucketRing stripe : stripes)
+                stripe.collect(accumulator, now);
+            queryResult = accumulator.toQueryResult(calcScale, calcRoundingMode, queryOptions);
+            queryResultCache.put(now, modCount, calcScale, calcRoundingMode, queryOptions, queryResult);
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordCollect(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("{} using rounding mode [{}], elapsed time: {} ns", queryResult, calcRoundingMode, elapsedNanos);
+        return queryResult;
+    }
+
+    @Override
+    public StatisticsQueryResult collect(Duration window, int calcScale, RoundingMode calcRoundingMode,
+                                         StatisticsQueryOptions queryOptions) {
+        final long windowSecs = SeriesWindow.toSeconds("Window", window, expiryIntervalSecs);
+        if (windowSecs == expiryIntervalSecs)
+            return collect(calcScale, calcRoundingMode, queryOptions);
+        Objects.requireNonNull(queryOptions, "Query options are required");
+        final long now = epochSecond();
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator(maxInputScale, distribution);
+        for (final BucketRing stripe : stripes)
+            stripe.collect(accumulator, now, now - windowSecs);
+        return accumulator.toQueryResult(calcScale, calcRoundingMode, queryOptions);
+    }
+
+    @Override
+    public List<StatisticsSeriesPoint> collectSeries(Duration window, Duration resolution, int calcScale,
+                                                     RoundingMode calcRoundingMode) {
+        final SeriesWindow seriesWindow = SeriesWindow.of(SeriesWindow.toSeconds("Window", window, expiryIntervalSecs),
+                SeriesWindow.toSeconds("Resolution", resolution, expiryIntervalSecs), epochSecond());
+        final StatisticsAccumulator[] points = seriesWindow.newPoints(maxInputScale);
+        for (final BucketRing stripe : stripes)
+            stripe.collectSeries(points, seriesWindow);
+        return seriesWindow.toSeries(points, calcScale, calcRoundingMode);
+    }
+
+    @Override
+    public StatisticsPartials collectPartials() {
+        final long now = epochSecond();
+        final PartialsCollector partials = new PartialsCollector(now - expiryIntervalSecs, maxInputScale);
+        for (final BucketRing stripe : stripes)
+            stripe.collectPartials(partials);
+        return partials.toPartials(now);
+    }
+
+    @Override
+    public StatisticsQueryResult collect(String key, int calcScale, RoundingMode calcRoundingMode) {
+        Objects.requireNonNull(key, "Key is required");
+        return keyedWindows.collect(key, calcScale, calcRoundingMode, epochSecond());
+    }
+
+    @Override
+    public List<KeyedStatisticsResult> collectTopBySum(int limit, int calcScale, RoundingMode calcRoundingMode) {
+        return keyedWindows.collectTopBySum(limit, calcScale, calcRoundingMode, epochSecond());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats-api.service.expiry-clean-up-interval}", timeUnit = TimeUnit.SECONDS)
+    public void removeIfExpired() {
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        long removedCount = 0L;
+        for (final BucketRing stripe : stripes)
+            removedCount += stripe.removeIfExpired(now);
+        final int evictedKeyCount = keyedWindows.evictIdle(now);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordRemoveIfExpired(elapsedNanos, removedCount);
+        if (removedCount > 0)
+            logger.info("Removed [{}] expired transaction{}, elapsed time: {} ns",
+                    removedCount, removedCount == 1 ? "" : "s", elapsedNanos);
+        if (evictedKeyCount > 0)
+            logger.info("Evicted [{}] idle key{}", evictedKeyCount, evictedKeyCount == 1 ? "" : "s");
+    }
+
+    @Override
+    public long retainedCount() {
+        long retainedCount = 0L;
+        for (final BucketRing stripe : stripes)
+            retainedCount += stripe.retainedCount();
+        return retainedCount;
+    }
+
+    @Override
+    public Duration expiryInterval() {
+        return Duration.ofSeconds(expiryIntervalSecs);
+    }
+
+    @Override
+    public long activeKeyCount() {
+        return keyedWindows.size();
+    }
+
+    @Override
+    public boolean isDistributionEnabled() {
+        return distribution;
+    }
+
+    /**
+     * Get the number of ingestion stripes
+     *
+     * @return The number of independent bucket rings
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Get the bucket occupancy of a single stripe
+     *
+     * @param stripe The stripe index (zero-based)
+     * @return The number of buckets in use by the stripe
+     */
+    public int occupiedBuckets(int stripe) {
+        return stripes[stripe].occupiedBuckets();
+    }
+
+    /**
+     * Get the retained transactions count of a single stripe
+     *
+     * @param stripe The stripe index (zero-based)
+     * @return The number of transactions aggregated by the stripe
+     */
+    public long retainedCount(int stripe) {
+        return stripes[stripe].retainedCount();
+    }
+
+    private long modCount() {
+        long modCount = 0L;
+        for (final BucketRing stripe : stripes)
+            modCount += stripe.modCount();
+        return modCount;
+    }
+
+    /**
+     * Get the current UNIX epoch second (without allocating an {@link java.time.Instant})
+     */
+    private long epochSecond() {
+        return Math.floorDiv(clock.millis(), 1000L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [expiryIntervalSecs=%d, stripes=%d, maxInputScale=%d]",
+                getClass().getSimpleName(), expiryIntervalSecs, stripes.length, maxInputScale);
+    }
+}
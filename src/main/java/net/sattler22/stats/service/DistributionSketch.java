@@ -0,0 +1,262 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable Distribution Sketch
+ * <p>
+ * Streaming moments (Welford's algorithm, merged using Chan's parallel formula) along with a relative-error quantile
+ * sketch (DDSketch). Values are counted in logarithmically sized bins, so every quantile estimate is within
+ * {@value #RELATIVE_ACCURACY} of the true value (relative to its magnitude). Merging two sketches is exact: the merged
+ * sketch is the same as if every value had been added to a single one.
+ * <p>
+ * Memory is bounded by collapsing the lowest bins once a store spans more than {@value #MAX_BINS} bins, which only
+ * costs accuracy for the smallest magnitudes once values are more than 35 orders of magnitude apart (at the default
+ * accuracy). The bins are allocated lazily and only cover the range of values actually seen.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class DistributionSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    static final int MAX_BINS = 4_096;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXABLE_VALUE = 1e-12;
+    private final BinStore positiveBins = new BinStore();
+    private final BinStore negativeBins = new BinStore();
+    private long zeroCount;
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Add a single value
+     *
+     * @param value The value to add
+     */
+    void add(double value) {
+        count++;
+        final double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value > MIN_INDEXABLE_VALUE)
+            positiveBins.add(index(value), 1L);
+        else if (value < -MIN_INDEXABLE_VALUE)
+            negativeBins.add(index(-value), 1L);
+        else
+            zeroCount++;
+    }
+
+    /**
+     * Merge another sketch into this one
+     *
+     * @param other The sketch to merge (left unchanged)
+     */
+    void merge(DistributionSketch other) {
+        if (other.count == 0L)
+            return;
+        if (count == 0L) {
+            mean = other.mean;
+            m2 = other.m2;
+        }
+        else {
+            final long mergedCount = count + other.count;
+            final double delta = other.mean - mean;
+            mean += delta * other.count / mergedCount;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / mergedCount);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        zeroCount += other.zeroCount;
+        positiveBins.merge(other.positiveBins);
+        negativeBins.merge(other.negativeBins);
+    }
+
+    /**
+     * Reset back to the empty state (keeping the bins allocated)
+     */
+    void reset() {
+        positiveBins.reset();
+        negativeBins.reset();
+        zeroCount = 0L;
+        count = 0L;
+        mean = 0.0;
+        m2 = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Get the population variance
+     *
+     * @return The variance of every value added (or zero if there aren't any)
+     */
+    double variance() {
+        return count == 0L ? 0.0 : Math.max(m2 / count, 0.0);
+    }
+
+    /**
+     * Estimate a quantile
+     *
+     * @param quantile The quantile (between zero and one)
+     * @return The estimated value (or zero if there aren't any values). The extremes are exact.
+     */
+    double quantile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0)
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        if (count == 0L)
+            return 0.0;
+        if (quantile == 0.0)
+            return min;
+        if (quantile == 1.0)
+            return max;
+        final double rank = quantile * (count - 1);
+        long seen = 0L;
+        for (int index = negativeBins.maxIndex; index >= negativeBins.minIndex; index--) {
+            seen += negativeBins.count(index);
+            if (seen > rank)
+                return clamp(-value(index));
+        }
+        seen += zeroCount;
+        if (seen > rank)
+            return clamp(0.0);
+        for (int index = positiveBins.minIndex; index <= positiveBins.maxIndex; index++) {
+            seen += positiveBins.count(index);
+            if (seen > rank)
+                return clamp(value(index));
+        }
+        return max;
+    }
+
+    private double clamp(double value) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    /**
+     * Bin {@code i} covers the magnitudes in (&gamma;<sup>i-1</sup>, &gamma;<sup>i</sup>], so its representative value
+     * is within the relative accuracy of all of them
+     */
+    private static double value(int index) {
+        return 2.0 * Math.pow(GAMMA, index) / (GAMMA + 1.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [count=%d, mean=%s, variance=%s, min=%s, max=%s]",
+                getClass().getSimpleName(), count, mean, variance(), min, max);
+    }
+
+    /**
+     * Dense bin counts that collapse their lowest bins to stay within the maximum number of bins
+     */
+    private static final class BinStore {
+
+        private static final int INITIAL_BINS = 128;
+        private long[] counts;
+        private int offset;  //The bin index of counts[0]
+        private int minIndex = Integer.MAX_VALUE;  //The non-empty range of bin indexes
+        private int maxIndex = Integer.MIN_VALUE;
+
+        private boolean isEmpty() {
+            return maxIndex < minIndex;
+        }
+
+        private long count(int index) {
+            return counts[index - offset];
+        }
+
+        private void add(int index, long binCount) {
+            if (counts == null) {
+                counts = new long[INITIAL_BINS];
+                offset = index - INITIAL_BINS / 2;
+            }
+            if (isEmpty()) {
+                if (index < offset || index >= offset + counts.length)
+                    offset = index - counts.length / 2;  //Every bin is empty, so there is nothing to move
+                minIndex = maxIndex = index;
+            }
+            else if (index < minIndex || index > maxIndex) {
+                int newMinIndex = Math.min(minIndex, index);
+                final int newMaxIndex = Math.max(maxIndex, index);
+                long collapsedCount = 0L;
+                if (newMaxIndex - newMinIndex >= MAX_BINS) {
+                    final int lowestIndex = newMaxIndex - MAX_BINS + 1;
+                    if (index < lowestIndex)
+                        index = lowestIndex;
+                    else
+                        for (int i = minIndex; i < lowestIndex && i <= maxIndex; i++) {
+                            collapsedCount += counts[i - offset];
+                            counts[i - offset] = 0L;
+                        }
+                    newMinIndex = lowestIndex;
+                }
+                extend(newMinIndex, newMaxIndex);
+                counts[newMinIndex - offset] += collapsedCount;
+            }
+            counts[index - offset] += binCount;
+        }
+
+        /**
+         * Make room for the given range of bin indexes (moving the existing bins if necessary)
+         */
+        private void extend(int newMinIndex, int newMaxIndex) {
+            final int span = newMaxIndex - newMinIndex + 1;
+            if (newMinIndex >= offset && newMaxIndex < offset + counts.length) {
+                minIndex = newMinIndex;
+                maxIndex = newMaxIndex;
+                return;
+            }
+            final long[] newCounts = span > counts.length ? new long[Math.min(MAX_BINS, Math.max(2 * counts.length, span))] : counts;
+            final int newOffset = newMinIndex - (newCounts.length - span) / 2;
+            final int copyMinIndex = Math.max(minIndex, newMinIndex);
+            final int copyMaxIndex = Math.min(maxIndex, newMaxIndex);
+            if (copyMinIndex <= copyMaxIndex) {
+                System.arraycopy(counts, copyMinIndex - offset, newCounts, copyMinIndex - newOffset, copyMaxIndex - copyMinIndex + 1);
+                if (newCounts == counts) {
+                    //Moved in place, so clear everything outside the moved bins:
+                    Arrays.fill(newCounts, 0, copyMinIndex - newOffset, 0L);
+                    Arrays.fill(newCounts, copyMaxIndex - newOffset + 1, newCounts.length, 0L);
+                }
+            }
+            else if (newCounts == counts)
+                Arrays.fill(newCounts, 0L);
+            counts = newCounts;
+            offset = newOffset;
+            minIndex = newMinIndex;
+            maxIndex = newMaxIndex;
+        }
+
+        private void merge(BinStore other) {
+            for (int index = other.minIndex; index <= other.maxIndex; index++) {
+                final long binCount = other.count(index);
+                if (binCount > 0L)
+                    add(index, binCount);
+            }
+        }
+
+        private void reset() {
+            if (!isEmpty())
+                Arrays.fill(counts, minIndex - offset, maxIndex - offset + 1, 0L);
+            minIndex = Integer.MAX_VALUE;
+            maxIndex = Integer.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event-Time Ingestion Policy
+ * <p>
+ * Bounds the event times (the client timestamps) a statistics service accepts. The watermark trails the current
+ * second by the allowed lateness and never moves backwards, even if the clock does. Transactions older than the
+ * watermark are late, while transactions more than the allowed skew ahead of the current second are future
+ * transactions. Neither is added to the statistics: both are counted on side counters instead of being rejected with
+ * an {@link net.sattler22.stats.exception.ExpirationException}.
+ * <p>
+ * Since every accepted transaction falls within the allowed lateness behind and the allowed skew ahead of the current
+ * second, the bucketed engines size their rings to cover exactly that range and never spill over into an overflow map.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class EventTimePolicy {
+
+    private final long allowedLatenessSecs;
+    private final long allowedSkewSecs;
+    private final AtomicLong watermark = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder lateCount = new LongAdder();
+    private final LongAdder futureCount = new LongAdder();
+
+    /**
+     * Constructs a new event-time ingestion policy
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param allowedLateness How far behind the current second a transaction is still accepted (up to the expiration interval)
+     * @param allowedSkew How far ahead of the current second a transaction is still accepted
+     */
+    public EventTimePolicy(Duration expiryInterval, Duration allowedLateness, Duration allowedSkew) {
+        this.allowedLatenessSecs = Objects.requireNonNull(allowedLateness, "Allowed lateness is required").toSeconds();
+        this.allowedSkewSecs = Objects.requireNonNull(allowedSkew, "Allowed skew is required").toSeconds();
+        if (allowedLatenessSecs < 0 || allowedLatenessSecs > expiryInterval.toSeconds())
+            throw new IllegalArgumentException(String.format("Allowed lateness must be between 0 and %d seconds",
+                    expiryInterval.toSeconds()));
+        if (allowedSkewSecs < 0)
+            throw new IllegalArgumentException("Allowed skew cannot be negative");
+    }
+
+    /**
+     * Advance the watermark
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The oldest second that is still accepted
+     */
+    long advance(long now) {
+        final long candidate = now - allowedLatenessSecs;
+        long current = watermark.get();
+        while (candidate > current && !watermark.compareAndSet(current, candidate))
+            current = watermark.get();
+        return Math.max(candidate, current);
+    }
+
+    /**
+     * Get the newest second that is still accepted
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The newest second that is still accepted
+     */
+    long newestAcceptedSecond(long now) {
+        return now + allowedSkewSecs;
+    }
+
+    /**
+     * Admit a single transaction (counting it as late or future if it is not)
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     * @param now The current time in seconds from the UNIX epoch
+     * @return True if the transaction is accepted. Otherwise, returns false.
+     */
+    boolean admit(long timestamp, long now) {
+        if (timestamp < advance(now)) {
+            lateCount.increment();
+            return false;
+        }
+        if (timestamp > newestAcceptedSecond(now)) {
+            futureCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Count the transactions of a batch that were not accepted
+     *
+     * @param late The number of late transactions
+     * @param future The number of future transactions
+     */
+    void recordRejected(long late, long future) {
+        if (late > 0)
+            lateCount.add(late);
+        if (future > 0)
+            futureCount.add(future);
+    }
+
+    /**
+     * Get the future horizon of the bucket rings
+     *
+     * @return The allowed skew (in seconds)
+     */
+    long allowedSkewSecs() {
+        return allowedSkewSecs;
+    }
+
+    /**
+     * Get the watermark
+     *
+     * @return The oldest second accepted at the last advance (or {@link Long#MIN_VALUE} if nothing was ingested yet)
+     */
+    public long watermark() {
+        return watermark.get();
+    }
+
+    /**
+     * Get the late count
+     *
+     * @return The number of transactions older than the watermark
+     */
+    public long lateCount() {
+        return lateCount.sum();
+    }
+
+    /**
+     * Get the future count
+     *
+     * @return The number of transactions too far ahead of the current second
+     */
+    public long futureCount() {
+        return futureCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [allowedLateness=%ds, allowedSkew=%ds, watermark=%d]", getClass().getSimpleName(),
+                allowedLatenessSecs, allowedSkewSecs, watermark());
+    }
+}
@@ -0,0 +1,319 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-Key Statistics Windows
+ * <p>
+ * Keeps a compact window for every active key: only the seconds that actually had transactions for the key are
+ * stored, each as a compact accumulator (without a distribution sketch), so a key costs a few hundred bytes. Keys
+ * whose window has fully expired are evicted by the regular expiry clean-up, so there are no per-key threads or timers.
+ *
+ * <p>
+ * Ranking the keys by sum needs a scan of every key, so the ranking is computed at most once per second (for the
+ * first {@value StatisticsService#MAX_TOP_KEYS} keys). Every query within the same second reuses it, but still collects
+ * the current statistics of the ranked keys.
+ *
+ * @implNote The number of keys is capped at {@value #MAX_KEYS}. A slot is reserved before a new key is mapped, so the
+ *           cap holds even under concurrent inserts. Transactions for new keys beyond the cap are still counted
+ *           towards the overall statistics, but not towards their key's.
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class KeyedWindows {
+
+    static final int MAX_KEYS = 1_000_000;
+    private static final Comparator<KeyedSum> BY_SUM = Comparator.comparing(KeyedSum::sum);
+    private static final Comparator<KeyedStatisticsResult> BY_RESULT_SUM = Comparator.comparing(result -> result.statistics().sum());
+    private final long expiryIntervalSecs;
+    private final int maxInputScale;
+    private final ConcurrentMap<String, KeyWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger keyCount = new AtomicInteger();
+    private final ReentrantLock rankingLock = new ReentrantLock();
+    private volatile TopRanking topRanking = new TopRanking(Long.MIN_VALUE, new KeyedSum[0]);
+
+    /**
+     * Constructs new per-key windows
+     *
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     */
+    KeyedWindows(long expiryIntervalSecs, int maxInputScale) {
+        this.expiryIntervalSecs = expiryIntervalSecs;
+        this.maxInputScale = maxInputScale;
+    }
+
+    /**
+     * Add an amount to the window of its key
+     *
+     * @param key The statistics key
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch (must not be expired)
+     * @param amount The real-time transaction amount
+     * @param now The current time in seconds from the UNIX epoch
+     * @return True if the amount was added. Otherwise, returns false if the key could not be tracked.
+     */
+    boolean add(String key, long timestamp, BigDecimal amount, long now) {
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        while (true) {
+            KeyWindow window = windows.get(key);
+            if (window == null) {
+                window = windows.computeIfAbsent(key, this::newWindow);
+                if (window == null)
+                    return false;  //Too many keys
+            }
+            window.lock.lock();
+            try {
+                //Retry if the window has just been evicted (it is no longer mapped):
+                if (!window.evicted) {
+                    window.add(timestamp, amount, oldestLiveSecond);
+                    return true;
+                }
+            }
+            finally {
+                window.lock.unlock();
+            }
+        }
+    }
+
+    private KeyWindow newWindow(String key) {
+        if (keyCount.incrementAndGet() > MAX_KEYS) {
+            keyCount.decrementAndGet();
+            return null;  //Leaves the key unmapped
+        }
+        return new KeyWindow(maxInputScale);
+    }
+
+    /**
+     * Collect the statistics of a single key
+     *
+     * @param key The statistics key
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The statistics of the key (empty if the key is not active)
+     */
+    StatisticsQueryResult collect(String key, int calcScale, RoundingMode calcRoundingMode, long now) {
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator(maxInputScale, false);
+        final KeyWindow window = windows.get(key);
+        if (window != null)
+            window.collect(accumulator, now - expiryIntervalSecs);
+        return accumulator.toQueryResult(calcScale, calcRoundingMode, StatisticsQueryOptions.NONE);
+    }
+
+    /**
+     * Collect the statistics of the keys with the largest sums
+     *
+     * @param limit The maximum number of keys (between one and {@value StatisticsService#MAX_TOP_KEYS})
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The statistics of up to {@code limit} keys ordered by descending sum
+     */
+    List<KeyedStatisticsResult> collectTopBySum(int limit, int calcScale, RoundingMode calcRoundingMode, long now) {
+        if (limit < 1 || limit > StatisticsService.MAX_TOP_KEYS)
+            throw new IllegalArgumentException(String.format("Limit must be between 1 and %d", StatisticsService.MAX_TOP_KEYS));
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator(maxInputScale, false);
+        final KeyedSum[] ranking = rank(accumulator, now);
+        final List<KeyedStatisticsResult> results = new ArrayList<>(Math.min(limit, ranking.length));
+        for (int i = 0; i < ranking.length && i < limit; i++) {
+            accumulator.reset();
+            ranking[i].window().collect(accumulator, oldestLiveSecond);
+            if (accumulator.count() > 0L)
+                results.add(new KeyedStatisticsResult(ranking[i].key(),
+                        accumulator.toQueryResult(calcScale, calcRoundingMode, StatisticsQueryOptions.NONE)));
+        }
+        results.sort(BY_RESULT_SUM.reversed());  //The sums may have changed since the keys were ranked
+        return results;
+    }
+
+    /**
+     * Rank the keys with the largest sums (computed at most once per second)
+     *
+     * @param accumulator A scratch accumulator
+     * @param now The current time in seconds from the UNIX epoch
+     * @return Up to {@value StatisticsService#MAX_TOP_KEYS} keys ordered by descending sum
+     */
+    private KeyedSum[] rank(StatisticsAccumulator accumulator, long now) {
+        TopRanking ranking = topRanking;
+        if (ranking.second() == now)
+            return ranking.keyedSums();
+        rankingLock.lock();
+        try {
+            ranking = topRanking;  //Another query may have just ranked the keys
+            if (ranking.second() == now)
+                return ranking.keyedSums();
+            final long oldestLiveSecond = now - expiryIntervalSecs;
+            final PriorityQueue<KeyedSum> top = new PriorityQueue<>(StatisticsService.MAX_TOP_KEYS + 1, BY_SUM);  //Smallest sum at the head
+            for (final Map.Entry<String, KeyWindow> entry : windows.entrySet()) {
+                accumulator.reset();
+                entry.getValue().collect(accumulator, oldestLiveSecond);
+                if (accumulator.count() == 0L)
+                    continue;
+                final BigDecimal sum = accumulator.sum();
+                if (top.size() < StatisticsService.MAX_TOP_KEYS)
+                    top.add(new KeyedSum(entry.getKey(), entry.getValue(), sum));
+                else if (sum.compareTo(top.peek().sum()) > 0) {
+                    top.poll();
+                    top.add(new KeyedSum(entry.getKey(), entry.getValue(), sum));
+                }
+            }
+            final KeyedSum[] keyedSums = top.toArray(new KeyedSum[0]);
+            Arrays.sort(keyedSums, BY_SUM.reversed());
+            topRanking = new TopRanking(now, keyedSums);
+            return keyedSums;
+        }
+        finally {
+            rankingLock.unlock();
+        }
+    }
+
+    /**
+     * Evict the keys whose window has fully expired
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The number of keys evicted
+     */
+    int evictIdle(long now) {
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        int evicted = 0;
+        for (final Map.Entry<String, KeyWindow> entry : windows.entrySet()) {
+            final KeyWindow window = entry.getValue();
+            window.lock.lock();
+            try {
+                window.removeIfExpired(oldestLiveSecond);
+                if (window.size > 0)
+                    continue;
+                window.evicted = true;
+            }
+            finally {
+                window.lock.unlock();
+            }
+            if (windows.remove(entry.getKey(), window)) {
+                keyCount.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Get the number of active keys
+     *
+     * @return The number of keys that currently have a window
+     */
+    int size() {
+        return windows.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [keys=%d]", getClass().getSimpleName(), windows.size());
+    }
+
+    private record KeyedSum(String key, KeyWindow window, BigDecimal sum) {
+    }
+
+    private record TopRanking(long second, KeyedSum[] keyedSums) {
+    }
+
+    /**
+     * The window of a single key: its occupied seconds in ascending order
+     */
+    private static final class KeyWindow {
+
+        private static final int INITIAL_SLOTS = 2;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxInputScale;
+        @GuardedBy("lock")
+        private long[] seconds = new long[INITIAL_SLOTS];
+        //Slots at or beyond the size are reset accumulators kept for reuse:
+        @GuardedBy("lock")
+        private StatisticsAccumulator[] accumulators = new StatisticsAccumulator[INITIAL_SLOTS];
+        @GuardedBy("lock")
+        private int size;
+        @GuardedBy("lock")
+        private boolean evicted;
+
+        private KeyWindow(int maxInputScale) {
+            this.maxInputScale = maxInputScale;
+        }
+
+        @GuardedBy("lock")
+        private void add(long timestamp, BigDecimal amount, long oldestLiveSecond) {
+            if (size > 0 && seconds[size - 1] == timestamp) {  //Usual case: the most recent second
+                accumulators[size - 1].add(amount);
+                return;
+            }
+            removeIfExpired(oldestLiveSecond);
+            int slot = Arrays.binarySearch(seconds, 0, size, timestamp);
+            if (slot < 0) {
+                slot = -(slot + 1);
+                insertSlot(slot, timestamp);
+            }
+            accumulators[slot].add(amount);
+        }
+
+        @GuardedBy("lock")
+        private void insertSlot(int slot, long timestamp) {
+            if (size == seconds.length) {
+                seconds = Arrays.copyOf(seconds, 2 * size);
+                accumulators = Arrays.copyOf(accumulators, 2 * size);
+            }
+            StatisticsAccumulator accumulator = accumulators[size];
+            if (accumulator == null)
+                accumulator = new StatisticsAccumulator(maxInputScale, false);
+            System.arraycopy(seconds, slot, seconds, slot + 1, size - slot);
+            System.arraycopy(accumulators, slot, accumulators, slot + 1, size - slot);
+            seconds[slot] = timestamp;
+            accumulators[slot] = accumulator;
+            size++;
+        }
+
+        @GuardedBy("lock")
+        private void removeIfExpired(long oldestLiveSecond) {
+            int expired = 0;
+            while (expired < size && seconds[expired] < oldestLiveSecond)
+                expired++;
+            if (expired == 0)
+                return;
+            final StatisticsAccumulator[] released = Arrays.copyOf(accumulators, expired);
+            System.arraycopy(seconds, expired, seconds, 0, size - expired);
+            System.arraycopy(accumulators, expired, accumulators, 0, size - expired);
+            size -= expired;
+            for (int i = 0; i < expired; i++) {
+                released[i].reset();
+                accumulators[size + i] = released[i];
+            }
+        }
+
+        private void collect(StatisticsAccumulator target, long oldestLiveSecond) {
+            lock.lock();
+            try {
+                for (int i = size - 1; i >= 0 && seconds[i] >= oldestLiveSecond; i--)
+                    target.merge(accumulators[i]);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+}
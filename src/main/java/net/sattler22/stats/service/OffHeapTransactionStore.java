@@ -0,0 +1,347 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsTransaction;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Off-Heap Transaction Store
+ * <p>
+ * Retains every transaction as a raw 16-byte record (timestamp, scale and unscaled amount) in off-heap memory
+ * segments, so the Java heap stays flat regardless of the size of the window. Records are appended to fixed-size
+ * chunks in arrival order. A chunk is freed as a whole once its newest timestamp has expired, while the (usually
+ * single) chunk that straddles the expiration boundary is compacted in place. Eviction only compares the oldest and
+ * newest timestamps of each chunk until one of them expires, and does not look at the chunks at all until the oldest
+ * retained timestamp has expired, so evicting on every add stays constant-time. The few amounts whose unscaled value does not fit into
+ * a long are kept on-heap alongside their chunk.
+ * <p>
+ * There are no per-second aggregates, so shorter lookback windows and time series rescan the records they cover.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class OffHeapTransactionStore implements TransactionStore {
+
+    static final int CHUNK_CAPACITY = 65_536;  //Records per chunk (1 MiB)
+    private static final int RECORD_SIZE = 16;
+    private static final int MAX_LONG_DIGITS = 18;
+    private final ReentrantLock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Deque<Chunk> chunks = new ArrayDeque<>();
+    @GuardedBy("lock")
+    private long minTimestamp = Long.MAX_VALUE;  //Of every retained record
+
+    @Override
+    public void add(StatisticsTransaction transaction) {
+        lock.lock();
+        try {
+            Chunk chunk = chunks.peekLast();
+            if (chunk == null || chunk.isFull()) {
+                chunk = new Chunk(transaction.timestamp());
+                chunks.addLast(chunk);
+            }
+            chunk.add(transaction.timestamp(), transaction.amount());
+            minTimestamp = Math.min(minTimestamp, transaction.timestamp());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long evictExpired(long oldestLiveSecond) {
+        long evicted = 0L;
+        lock.lock();
+        try {
+            if (minTimestamp >= oldestLiveSecond)
+                return 0L;  //Nothing has expired yet (the usual case when called on every add)
+            //Late transactions can land in any chunk, so every chunk is checked once something has expired:
+            minTimestamp = Long.MAX_VALUE;
+            final Iterator<Chunk> iterator = chunks.iterator();
+            while (iterator.hasNext()) {
+                final Chunk chunk = iterator.next();
+                if (chunk.maxTimestamp < oldestLiveSecond) {
+                    evicted += chunk.count();
+                    chunk.free();
+                    iterator.remove();
+                    continue;
+                }
+                if (chunk.minTimestamp < oldestLiveSecond)
+                    evicted += chunk.compact(oldestLiveSecond);
+                minTimestamp = Math.min(minTimestamp, chunk.minTimestamp);
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+        return evicted;
+    }
+
+    @Override
+    public boolean hasTransactions(long oldestLiveSecond) {
+        lock.lock();
+        try {
+            for (final Chunk chunk : chunks)
+                if (chunk.maxTimestamp >= oldestLiveSecond)
+                    return true;
+            return false;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void collect(StatisticsAccumulator target, long oldestLiveSecond) {
+        collectAggregates(target, oldestLiveSecond);
+    }
+
+    @Override
+    public void collect(StatisticsAccumulator target, long oldestLiveSecond, ParallelCollector parallelCollector) {
+        //The lock is held until the parallel collection has completed, so no chunk can be compacted or freed meanwhile:
+        lock.lock();
+        try {
+            final long retainedCount = retainedCount();
+            if (!parallelCollector.isParallel(retainedCount)) {
+                collectAggregates(target, oldestLiveSecond);
+                return;
+            }
+            final int partSize = parallelCollector.partSize(retainedCount);
+            final List<Consumer<StatisticsAccumulator>> parts = new ArrayList<>();
+            for (final Chunk chunk : chunks) {
+                if (chunk.maxTimestamp < oldestLiveSecond)
+                    continue;
+                for (int from = 0; from < chunk.length; from += partSize) {
+                    final int sliceFrom = from;
+                    final int sliceTo = Math.min(chunk.length, from + partSize);
+                    parts.add(partial -> chunk.collect(partial, oldestLiveSecond, sliceFrom, sliceTo));
+                }
+                if (chunk.oversized != null)
+                    parts.add(partial -> chunk.collectOversized(partial, oldestLiveSecond));
+            }
+            parallelCollector.collect(parts, target);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void collectAggregates(StatisticsAccumulator target, long fromSecond) {
+        lock.lock();
+        try {
+            for (final Chunk chunk : chunks)
+                if (chunk.maxTimestamp >= fromSecond)
+                    chunk.collect(target, fromSecond);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void collectSeries(StatisticsAccumulator[] points, SeriesWindow seriesWindow) {
+        lock.lock();
+        try {
+            for (final Chunk chunk : chunks)
+                if (chunk.maxTimestamp >= seriesWindow.fromSecond())
+                    chunk.collectSeries(points, seriesWindow);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void collectPartials(PartialsCollector partials) {
+        lock.lock();
+        try {
+            for (final Chunk chunk : chunks)
+                if (chunk.maxTimestamp >= partials.oldestLiveSecond())
+                    chunk.collectPartials(partials);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long retainedCount() {
+        lock.lock();
+        try {
+            long retained = 0L;
+            for (final Chunk chunk : chunks)
+                retained += chunk.count();
+            return retained;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of off-heap bytes in use
+     *
+     * @return The number of bytes allocated by every chunk that has not been freed yet
+     */
+    long offHeapBytes() {
+        lock.lock();
+        try {
+            return (long) chunks.size() * CHUNK_CAPACITY * RECORD_SIZE;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [chunks=%d, retained=%d]", getClass().getSimpleName(), chunks.size(), retainedCount());
+    }
+
+    /**
+     * Fixed-size chunk of raw records
+     * <p>
+     * Each record holds the timestamp (relative to the chunk's base second), the scale and the unscaled amount.
+     */
+    private static final class Chunk {
+
+        private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+        private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+        private final Arena arena = Arena.ofShared();
+        private final MemorySegment records = arena.allocate((long) CHUNK_CAPACITY * RECORD_SIZE, Long.BYTES);
+        private final long baseSecond;
+        private List<OversizedAmount> oversized;
+        private int length;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        private Chunk(long baseSecond) {
+            this.baseSecond = baseSecond;
+        }
+
+        private boolean isFull() {
+            return length == CHUNK_CAPACITY;
+        }
+
+        private long count() {
+            return oversized == null ? length : length + oversized.size();
+        }
+
+        private void add(long timestamp, BigDecimal amount) {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            final long relativeSecond = timestamp - baseSecond;
+            if (amount.precision() > MAX_LONG_DIGITS || relativeSecond != (int) relativeSecond) {
+                if (oversized == null)
+                    oversized = new ArrayList<>();
+                oversized.add(new OversizedAmount(timestamp, amount));
+                return;
+            }
+            final long offset = (long) length * RECORD_SIZE;
+            records.set(INT, offset, (int) relativeSecond);
+            records.set(INT, offset + 4, amount.scale());
+            //Moving the decimal point by the amount's own scale yields its unscaled value (without a BigInteger):
+            records.set(LONG, offset + 8, amount.movePointRight(amount.scale()).longValueExact());
+            length++;
+        }
+
+        /**
+         * Move the live records to the front of the chunk (keeping their order)
+         *
+         * @return The number of expired records removed
+         */
+        private long compact(long oldestLiveSecond) {
+            final long countBefore = count();
+            int liveLength = 0;
+            minTimestamp = Long.MAX_VALUE;
+            for (int i = 0; i < length; i++) {
+                final long timestamp = timestamp(i);
+                if (timestamp < oldestLiveSecond)
+                    continue;
+                if (liveLength != i)
+                    MemorySegment.copy(records, (long) i * RECORD_SIZE, records, (long) liveLength * RECORD_SIZE, RECORD_SIZE);
+                liveLength++;
+                minTimestamp = Math.min(minTimestamp, timestamp);
+            }
+            length = liveLength;
+            if (oversized != null) {
+                oversized.removeIf(oversizedAmount -> oversizedAmount.timestamp() < oldestLiveSecond);
+                for (final OversizedAmount oversizedAmount : oversized)
+                    minTimestamp = Math.min(minTimestamp, oversizedAmount.timestamp());
+            }
+            return countBefore - count();
+        }
+
+        private void collect(StatisticsAccumulator target, long fromSecond) {
+            collect(target, fromSecond, 0, length);
+            collectOversized(target, fromSecond);
+        }
+
+        private void collect(StatisticsAccumulator target, long fromSecond, int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++)
+                if (timestamp(i) >= fromSecond)
+                    target.add(amount(i));
+        }
+
+        private void collectOversized(StatisticsAccumulator target, long fromSecond) {
+            if (oversized != null)
+                for (final OversizedAmount oversizedAmount : oversized)
+                    if (oversizedAmount.timestamp() >= fromSecond)
+                        target.add(oversizedAmount.amount());
+        }
+
+        private void collectSeries(StatisticsAccumulator[] points, SeriesWindow seriesWindow) {
+            for (int i = 0; i < length; i++) {
+                final long timestamp = timestamp(i);
+                if (timestamp >= seriesWindow.fromSecond() && timestamp <= seriesWindow.toSecond())
+                    points[seriesWindow.pointIndex(timestamp)].add(amount(i));
+            }
+            if (oversized != null)
+                for (final OversizedAmount oversizedAmount : oversized)
+                    if (oversizedAmount.timestamp() >= seriesWindow.fromSecond() && oversizedAmount.timestamp() <= seriesWindow.toSecond())
+                        points[seriesWindow.pointIndex(oversizedAmount.timestamp())].add(oversizedAmount.amount());
+        }
+
+        private void collectPartials(PartialsCollector partials) {
+            for (int i = 0; i < length; i++) {
+                final long timestamp = timestamp(i);
+                if (timestamp >= partials.oldestLiveSecond())
+                    partials.accumulatorFor(timestamp).add(amount(i));
+            }
+            if (oversized != null)
+                for (final OversizedAmount oversizedAmount : oversized)
+                    if (oversizedAmount.timestamp() >= partials.oldestLiveSecond())
+                        partials.accumulatorFor(oversizedAmount.timestamp()).add(oversizedAmount.amount());
+        }
+
+        private long timestamp(int index) {
+            return baseSecond + records.get(INT, (long) index * RECORD_SIZE);
+        }
+
+        private BigDecimal amount(int index) {
+            final long offset = (long) index * RECORD_SIZE;
+            return BigDecimal.valueOf(records.get(LONG, offset + 8), records.get(INT, offset + 4));
+        }
+
+        private void free() {
+            arena.close();
+        }
+    }
+
+    private record OversizedAmount(long timestamp, BigDecimal amount) {
+    }
+}
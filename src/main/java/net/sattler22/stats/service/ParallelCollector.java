@@ -0,0 +1,143 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Parallel Fork-Join Collector
+ * <p>
+ * Once a store retains at least the threshold number of transactions, its live transactions are split into ordered
+ * parts that are collected into partial accumulators on a dedicated fork-join pool. The partials are merged back in
+ * order (left before right), so the sum, average, maximum, minimum and count are identical to a sequential scan for
+ * every rounding mode: the sums are exact, and ties between equal amounts of different scales are resolved in favor
+ * of the first one either way. The distribution sketch bins merge exactly as well, while the merged variance may
+ * differ from the sequential one in the last few bits of its {@code double}.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class ParallelCollector implements AutoCloseable {
+
+    private static final int MIN_PART_SIZE = 4_096;
+    private static final int PARTS_PER_THREAD = 4;
+    private final ForkJoinPool pool;
+    private final long threshold;
+    private final int maxInputScale;
+    private final boolean distribution;
+
+    /**
+     * Constructs a new parallel collector
+     *
+     * @param parallelism The number of fork-join worker threads
+     * @param threshold The minimum number of retained transactions collected in parallel
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    ParallelCollector(int parallelism, long threshold, int maxInputScale, boolean distribution) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least one");
+        if (threshold < 1)
+            throw new IllegalArgumentException("Parallel collection threshold must be at least one");
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+        this.maxInputScale = maxInputScale;
+        this.distribution = distribution;
+    }
+
+    /**
+     * Parallel collection check
+     *
+     * @param retainedCount The number of transactions retained by the store
+     * @return True if the transactions should be collected in parallel. Otherwise, returns false.
+     */
+    boolean isParallel(long retainedCount) {
+        return retainedCount >= threshold;
+    }
+
+    /**
+     * Get the preferred part size
+     *
+     * @param retainedCount The number of transactions retained by the store
+     * @return The preferred number of transactions per part (a few parts per worker thread)
+     */
+    int partSize(long retainedCount) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                Math.max(MIN_PART_SIZE, retainedCount / ((long) pool.getParallelism() * PARTS_PER_THREAD)));
+    }
+
+    /**
+     * Collect every part into a partial accumulator on the fork-join pool and merge the partials into the target
+     *
+     * @param parts The parts in collection order, each adding its transactions to the accumulator it is given
+     * @param target The accumulator to merge into
+     * @implNote The caller must keep the parts unchanged until the collection has completed (e.g. by holding a lock)
+     */
+    void collect(List<Consumer<StatisticsAccumulator>> parts, StatisticsAccumulator target) {
+        if (!parts.isEmpty())
+            target.merge(pool.invoke(new CollectTask(parts, 0, parts.size(), maxInputScale, distribution)));
+    }
+
+    /**
+     * Get the parallel collection threshold
+     *
+     * @return The minimum number of retained transactions collected in parallel
+     */
+    long threshold() {
+        return threshold;
+    }
+
+    /**
+     * Shut down the fork-join pool (a collection that has already started still completes)
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [parallelism=%d, threshold=%d]", getClass().getSimpleName(), pool.getParallelism(), threshold);
+    }
+
+    /**
+     * Collects a range of parts into a partial accumulator
+     */
+    private static final class CollectTask extends RecursiveTask<StatisticsAccumulator> {
+
+        private final transient List<Consumer<StatisticsAccumulator>> parts;
+        private final int from;
+        private final int to;
+        private final int maxInputScale;
+        private final boolean distribution;
+
+        private CollectTask(List<Consumer<StatisticsAccumulator>> parts, int from, int to, int maxInputScale,
+                            boolean distribution) {
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+            this.maxInputScale = maxInputScale;
+            this.distribution = distribution;
+        }
+
+        @Override
+        protected StatisticsAccumulator compute() {
+            if (to - from == 1) {
+                final StatisticsAccumulator partial = new StatisticsAccumulator(maxInputScale, distribution);
+                parts.get(from).accept(partial);
+                return partial;
+            }
+            final int middle = (from + to) >>> 1;
+            final CollectTask left = new CollectTask(parts, from, middle, maxInputScale, distribution);
+            left.fork();
+            final StatisticsAccumulator right = new CollectTask(parts, middle, to, maxInputScale, distribution).compute();
+            final StatisticsAccumulator partial = left.join();
+            partial.merge(right);  //Left before right keeps the sequential order
+            return partial;
+        }
+    }
+}
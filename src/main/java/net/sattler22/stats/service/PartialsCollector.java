@@ -0,0 +1,72 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.NotThreadSafe;
+import net.sattler22.stats.dto.StatisticsPartials;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-Second Partials Collector
+ * <p>
+ * Collects the per-second partials of every live second, including the seconds ahead of the current one, so the
+ * merged cluster statistics cover the same transactions as a query of a single node. Unlike a series window, the
+ * seconds are not bounded up front, since future timestamps are only bounded in event-time mode.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class PartialsCollector {
+
+    private final NavigableMap<Long, StatisticsAccumulator> seconds = new TreeMap<>();
+    private final long oldestLiveSecond;
+    private final int maxInputScale;
+
+    /**
+     * Constructs a new partials collector
+     *
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     */
+    PartialsCollector(long oldestLiveSecond, int maxInputScale) {
+        this.oldestLiveSecond = oldestLiveSecond;
+        this.maxInputScale = maxInputScale;
+    }
+
+    /**
+     * Get the oldest second collected
+     *
+     * @return The oldest second that has not expired yet
+     */
+    long oldestLiveSecond() {
+        return oldestLiveSecond;
+    }
+
+    /**
+     * Get the accumulator of a second (compact, since partials only carry the basic statistics)
+     *
+     * @param second A live second (in seconds from the UNIX epoch)
+     * @return The accumulator of the second
+     */
+    StatisticsAccumulator accumulatorFor(long second) {
+        return seconds.computeIfAbsent(second, ignored -> new StatisticsAccumulator(maxInputScale, false));
+    }
+
+    /**
+     * Build the partials
+     *
+     * @param epochSecond The second the partials were collected (in seconds from the UNIX epoch)
+     * @return The partials of every non-empty second (oldest first)
+     */
+    StatisticsPartials toPartials(long epochSecond) {
+        final List<StatisticsPartials.Bucket> buckets = new ArrayList<>(seconds.size());
+        for (final Map.Entry<Long, StatisticsAccumulator> entry : seconds.entrySet())
+            if (entry.getValue().count() > 0L)
+                buckets.add(entry.getValue().toBucket(entry.getKey()));
+        return new StatisticsPartials(epochSecond, buckets);
+    }
+}
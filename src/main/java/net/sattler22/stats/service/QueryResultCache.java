@@ -0,0 +1,67 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Real-Time Statistics Query Result Cache
+ * <p>
+ * Keeps the last query result for each calculation scale, rounding mode and set of query options along with the
+ * second and the engine modification count it was computed for. A cached result is only served while neither of them
+ * has changed. Since the query options are client controlled, the cache is simply cleared once it gets too large.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+final class QueryResultCache {
+
+    private static final int MAX_CACHED_RESULTS = 256;
+    private final Map<QueryKey, CachedQueryResult> cachedResults = new ConcurrentHashMap<>();
+
+    /**
+     * Look up a query result
+     *
+     * @param second The current time in seconds from the UNIX epoch
+     * @param modCount The engine modification count (read before collecting)
+     * @param calcScale The calculation scale
+     * @param calcRoundingMode The calculation rounding mode
+     * @param queryOptions The optional statistics to include
+     * @return The cached query result or null if there isn't one
+     */
+    StatisticsQueryResult get(long second, long modCount, int calcScale, RoundingMode calcRoundingMode,
+                              StatisticsQueryOptions queryOptions) {
+        final CachedQueryResult cachedResult = cachedResults.get(new QueryKey(calcScale, calcRoundingMode, queryOptions));
+        if (cachedResult == null || cachedResult.second() != second || cachedResult.modCount() != modCount)
+            return null;
+        return cachedResult.queryResult();
+    }
+
+    /**
+     * Cache a query result
+     *
+     * @param second The time in seconds from the UNIX epoch the result was computed for
+     * @param modCount The engine modification count (read before collecting)
+     * @param calcScale The calculation scale
+     * @param calcRoundingMode The calculation rounding mode
+     * @param queryOptions The optional statistics to include
+     * @param queryResult The query result
+     */
+    void put(long second, long modCount, int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions,
+             StatisticsQueryResult queryResult) {
+        if (cachedResults.size() >= MAX_CACHED_RESULTS)
+            cachedResults.clear();
+        cachedResults.put(new QueryKey(calcScale, calcRoundingMode, queryOptions), new CachedQueryResult(second, modCount, queryResult));
+    }
+
+    private record QueryKey(int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions) {
+    }
+
+    private record CachedQueryResult(long second, long modCount, StatisticsQueryResult queryResult) {
+    }
+}
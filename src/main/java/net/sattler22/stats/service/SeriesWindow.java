@@ -0,0 +1,94 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
+
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Real-Time Statistics Series Window
+ * <p>
+ * Splits a lookback window ending at the current second into points of a fixed resolution. Points are aligned to
+ * multiples of the resolution from the UNIX epoch, so consecutive queries return the same points, and the first point
+ * is cut off at the start of the window.
+ *
+ * @param fromSecond The oldest second in the window
+ * @param toSecond The newest second in the window (the current second)
+ * @param firstPointSecond The first second of the first point
+ * @param resolutionSecs The number of seconds covered by each point
+ * @author Pete Sattler
+ * @since October 2026
+ */
+record SeriesWindow(long fromSecond, long toSecond, long firstPointSecond, long resolutionSecs) {
+
+    /**
+     * Constructs a new series window
+     *
+     * @param windowSecs The lookback window (in seconds)
+     * @param resolutionSecs The number of seconds covered by each point
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The series window
+     */
+    static SeriesWindow of(long windowSecs, long resolutionSecs, long now) {
+        if (resolutionSecs < 1 || resolutionSecs > windowSecs)
+            throw new IllegalArgumentException("Resolution must be between one second and the window");
+        final long fromSecond = now - windowSecs;
+        return new SeriesWindow(fromSecond, now, Math.floorDiv(fromSecond, resolutionSecs) * resolutionSecs, resolutionSecs);
+    }
+
+    /**
+     * Convert a lookback window (or a resolution) into seconds
+     *
+     * @param name The name of the duration (for the error message)
+     * @param duration The lookback window or resolution
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @return The duration in seconds
+     * @throws IllegalArgumentException If the duration is not a whole number of seconds between one second and the
+     *         expiration interval
+     */
+    static long toSeconds(String name, Duration duration, long expiryIntervalSecs) {
+        if (duration.toNanosPart() != 0 || duration.toSeconds() < 1 || duration.toSeconds() > expiryIntervalSecs)
+            throw new IllegalArgumentException(String.format("%s must be whole seconds between 1 and %d", name, expiryIntervalSecs));
+        return duration.toSeconds();
+    }
+
+    int pointCount() {
+        return Math.toIntExact((toSecond - firstPointSecond) / resolutionSecs + 1);
+    }
+
+    int pointIndex(long second) {
+        return (int) ((second - firstPointSecond) / resolutionSecs);
+    }
+
+    /**
+     * Allocate an (empty) accumulator for every point
+     *
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @return The point accumulators (compact, since points only have the basic statistics)
+     */
+    StatisticsAccumulator[] newPoints(int maxInputScale) {
+        final StatisticsAccumulator[] points = new StatisticsAccumulator[pointCount()];
+        for (int i = 0; i < points.length; i++)
+            points[i] = new StatisticsAccumulator(maxInputScale, false);
+        return points;
+    }
+
+    /**
+     * Build the series
+     *
+     * @param points The point accumulators
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The series points (oldest first)
+     */
+    List<StatisticsSeriesPoint> toSeries(StatisticsAccumulator[] points, int calcScale, RoundingMode calcRoundingMode) {
+        final List<StatisticsSeriesPoint> series = new ArrayList<>(points.length);
+        for (int i = 0; i < points.length; i++)
+            series.add(new StatisticsSeriesPoint(firstPointSecond + i * resolutionSecs,
+                    points[i].toQueryResult(calcScale, calcRoundingMode, StatisticsQueryOptions.NONE)));
+        return series;
+    }
+}
@@ -0,0 +1,331 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.NotThreadSafe;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.math.BigDecimal.ZERO;
+
+/**
+ * Real-Time Statistics Accumulator
+ * <p>
+ * Running sum/max/min/count of a group of transaction amounts. Accumulators are mergeable, so partial results (per
+ * bucket, per stripe, etc.) can be combined into a single query result.
+ * <p>
+ * In scaled-long mode, amounts are converted once into {@code long} values scaled by the maximum input scale and all
+ * of the arithmetic is done on primitives. An accumulator falls back to {@link BigDecimal} arithmetic (until it is
+ * reset) as soon as an amount has too many fractional digits or a sum overflows. The {@link BigDecimal} results are
+ * only materialized when the query result is built and are identical to those of the decimal mode.
+ * <p>
+ * Accumulators can also add every amount (as a {@code double}) to a {@link DistributionSketch}, which provides the
+ * optional variance, standard deviation and approximate percentiles. Since that costs a conversion and a logarithm per
+ * amount, the engines only keep a sketch when the distribution is enabled. Compact accumulators leave the sketch out.
+ *
+ * @implNote The maximum starts at zero (and not at the first amount) in order to match the original list-based
+ *           collection algorithm
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class StatisticsAccumulator {
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] LONG_TEN_POWERS = new long[MAX_LONG_DIGITS + 1];
+    private static final double[] DOUBLE_TEN_POWERS = new double[MAX_LONG_DIGITS + 1];
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private final int maxInputScale;
+    private final DistributionSketch distribution;
+    private boolean scaled;
+    private long count;
+    //Scaled-long representation (unscaled values at the maximum input scale along with their original scales):
+    private long scaledSum;
+    private int sumScale;
+    private long scaledMax;
+    private int maxScale;
+    private long scaledMin;
+    private int minScale;
+    //BigDecimal representation:
+    private BigDecimal sum = ZERO;
+    private BigDecimal max = ZERO;
+    private BigDecimal min;
+
+    static {
+        LONG_TEN_POWERS[0] = 1L;
+        for (int i = 1; i < LONG_TEN_POWERS.length; i++)
+            LONG_TEN_POWERS[i] = LONG_TEN_POWERS[i - 1] * 10L;
+        for (int i = 0; i < DOUBLE_TEN_POWERS.length; i++)
+            DOUBLE_TEN_POWERS[i] = LONG_TEN_POWERS[i];  //Exact up to 10^22
+    }
+
+    /**
+     * Constructs a new decimal accumulator
+     */
+    StatisticsAccumulator() {
+        this(StatisticsService.DECIMAL_ARITHMETIC);
+    }
+
+    /**
+     * Constructs a new accumulator
+     *
+     * @param maxInputScale The maximum amount scale handled in scaled-long mode (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     */
+    StatisticsAccumulator(int maxInputScale) {
+        this(maxInputScale, true);
+    }
+
+    /**
+     * Constructs a new accumulator
+     *
+     * @param maxInputScale The maximum amount scale handled in scaled-long mode (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch. Otherwise, false for a compact accumulator (sum/max/min/count only).
+     */
+    StatisticsAccumulator(int maxInputScale, boolean distribution) {
+        if (maxInputScale > MAX_LONG_DIGITS)
+            throw new IllegalArgumentException(String.format("Maximum input scale cannot exceed %d", MAX_LONG_DIGITS));
+        this.maxInputScale = maxInputScale;
+        this.scaled = maxInputScale >= 0;
+        this.distribution = distribution ? new DistributionSketch() : null;
+    }
+
+    /**
+     * Add a single amount
+     *
+     * @param amount The real-time transaction amount
+     */
+    void add(BigDecimal amount) {
+        if (distribution != null)
+            distribution.add(amount.doubleValue());
+        if (scaled) {
+            if (isScalable(amount) && addScaled(toScaled(amount), amount.scale()))
+                return;
+            inflate();
+        }
+        sum = sum.add(amount);
+        if (amount.compareTo(max) > 0)
+            max = amount;
+        if (min == null || amount.compareTo(min) < 0)
+            min = amount;
+        count++;
+    }
+
+    private boolean isScalable(BigDecimal amount) {
+        return amount.scale() <= maxInputScale && amount.precision() - amount.scale() + maxInputScale <= MAX_LONG_DIGITS;
+    }
+
+    /**
+     * Convert a scalable amount into a long at the maximum input scale
+     *
+     * @implNote Up to 15 digits, the unscaled value is recovered from the amount's double value, which does not
+     *           allocate: the double is within 2 ulps of the exact value, i.e. well within half a unit of the unscaled
+     *           value, so rounding it back is exact. Longer amounts move the decimal point instead, whose temporary
+     *           the JIT's escape analysis does not reliably eliminate.
+     */
+    private long toScaled(BigDecimal amount) {
+        final int scale = amount.scale();
+        final long unscaled = scale >= 0 && amount.precision() <= MAX_EXACT_DOUBLE_DIGITS ?
+                Math.round(amount.doubleValue() * DOUBLE_TEN_POWERS[scale]) : amount.movePointRight(scale).longValueExact();
+        return unscaled * LONG_TEN_POWERS[maxInputScale - scale];
+    }
+
+    private boolean addScaled(long unscaled, int scale) {
+        final long newSum;
+        try {
+            newSum = Math.addExact(scaledSum, unscaled);
+        }
+        catch (ArithmeticException overflow) {
+            return false;
+        }
+        scaledSum = newSum;
+        sumScale = Math.max(sumScale, scale);
+        if (unscaled > scaledMax) {
+            scaledMax = unscaled;
+            maxScale = scale;
+        }
+        if (count == 0L || unscaled < scaledMin) {
+            scaledMin = unscaled;
+            minScale = scale;
+        }
+        count++;
+        return true;
+    }
+
+    /**
+     * Merge another accumulator into this one
+     *
+     * @param other The accumulator to merge (left unchanged)
+     */
+    void merge(StatisticsAccumulator other) {
+        if (other.count == 0L)
+            return;
+        if (distribution != null && other.distribution != null)
+            distribution.merge(other.distribution);
+        if (scaled) {
+            if (other.scaled && other.maxInputScale == maxInputScale && mergeScaled(other))
+                return;
+            inflate();
+        }
+        sum = sum.add(other.decimalSum());
+        final BigDecimal otherMax = other.decimalMax();
+        if (otherMax.compareTo(max) > 0)
+            max = otherMax;
+        final BigDecimal otherMin = other.decimalMin();
+        if (min == null || otherMin.compareTo(min) < 0)
+            min = otherMin;
+        count += other.count;
+    }
+
+    private boolean mergeScaled(StatisticsAccumulator other) {
+        final long newSum;
+        try {
+            newSum = Math.addExact(scaledSum, other.scaledSum);
+        }
+        catch (ArithmeticException overflow) {
+            return false;
+        }
+        scaledSum = newSum;
+        sumScale = Math.max(sumScale, other.sumScale);
+        if (other.scaledMax > scaledMax) {
+            scaledMax = other.scaledMax;
+            maxScale = other.maxScale;
+        }
+        if (count == 0L || other.scaledMin < scaledMin) {
+            scaledMin = other.scaledMin;
+            minScale = other.minScale;
+        }
+        count += other.count;
+        return true;
+    }
+
+    /**
+     * Merge the partial aggregate of another node (the distribution sketch is left unchanged)
+     *
+     * @param bucket The partial aggregate
+     */
+    void merge(StatisticsPartials.Bucket bucket) {
+        if (bucket.count() <= 0L || bucket.sum() == null || bucket.max() == null || bucket.min() == null)
+            return;  //Empty (or incomplete) bucket of a peer
+        if (scaled)
+            inflate();
+        sum = sum.add(bucket.sum());
+        if (bucket.max().compareTo(max) > 0)
+            max = bucket.max();
+        if (min == null || bucket.min().compareTo(min) < 0)
+            min = bucket.min();
+        count += bucket.count();
+    }
+
+    /**
+     * Export the partial aggregate of a single second
+     *
+     * @param second The second covered by the accumulator
+     * @return The partial aggregate
+     */
+    StatisticsPartials.Bucket toBucket(long second) {
+        return new StatisticsPartials.Bucket(second, decimalSum(), decimalMax(), decimalMin(), count);
+    }
+
+    /**
+     * Switch over to the BigDecimal representation
+     */
+    private void inflate() {
+        sum = decimalSum();
+        max = decimalMax();
+        min = decimalMin();
+        scaled = false;
+    }
+
+    private BigDecimal decimalSum() {
+        return scaled ? BigDecimal.valueOf(scaledSum, maxInputScale).setScale(sumScale) : sum;
+    }
+
+    private BigDecimal decimalMax() {
+        return scaled ? BigDecimal.valueOf(scaledMax, maxInputScale).setScale(maxScale) : max;
+    }
+
+    private BigDecimal decimalMin() {
+        if (scaled)
+            return count == 0L ? null : BigDecimal.valueOf(scaledMin, maxInputScale).setScale(minScale);
+        return min;
+    }
+
+    /**
+     * Reset back to the empty state
+     */
+    void reset() {
+        scaled = maxInputScale >= 0;
+        count = 0L;
+        scaledSum = 0L;
+        sumScale = 0;
+        scaledMax = 0L;
+        maxScale = 0;
+        scaledMin = 0L;
+        minScale = 0;
+        sum = ZERO;
+        max = ZERO;
+        min = null;
+        if (distribution != null)
+            distribution.reset();
+    }
+
+    long count() {
+        return count;
+    }
+
+    BigDecimal sum() {
+        return decimalSum();
+    }
+
+    /**
+     * Build the query result
+     *
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @param queryOptions The optional statistics to include
+     * @return The statistics based on the accumulated amounts
+     */
+    StatisticsQueryResult toQueryResult(int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions) {
+        final BigDecimal resultSum = decimalSum();
+        final BigDecimal resultMin = decimalMin();
+        BigDecimal average = ZERO;
+        if (count > 0)
+            average = resultSum.divide(BigDecimal.valueOf(count), calcScale, calcRoundingMode);
+        BigDecimal variance = null;
+        BigDecimal stdDev = null;
+        if ((queryOptions.deviation() || !queryOptions.percentiles().isEmpty()) && distribution == null)
+            throw new IllegalStateException("Compact accumulators do not keep a distribution sketch");
+        if (queryOptions.deviation()) {
+            final double distributionVariance = distribution.variance();
+            variance = toDecimal(distributionVariance, calcScale, calcRoundingMode);
+            stdDev = toDecimal(Math.sqrt(distributionVariance), calcScale, calcRoundingMode);
+        }
+        Map<String, BigDecimal> percentiles = null;
+        if (!queryOptions.percentiles().isEmpty()) {
+            percentiles = new LinkedHashMap<>();
+            for (final double percentile : queryOptions.percentiles())
+                percentiles.put(StatisticsQueryOptions.percentileName(percentile),
+                        toDecimal(distribution.quantile(percentile / 100.0), calcScale, calcRoundingMode));
+            percentiles = Collections.unmodifiableMap(percentiles);
+        }
+        return new StatisticsQueryResult(resultSum, average, decimalMax(), resultMin == null ? ZERO : resultMin, count,
+                variance, stdDev, percentiles);
+    }
+
+    private static BigDecimal toDecimal(double value, int calcScale, RoundingMode calcRoundingMode) {
+        if (!Double.isFinite(value))  //The amounts are too large for double precision
+            throw new ArithmeticException("Deviation and percentiles are out of range for the current amounts");
+        return BigDecimal.valueOf(value).setScale(calcScale, calcRoundingMode);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [scaled=%b, sum=%s, max=%s, min=%s, count=%d]",
+                getClass().getSimpleName(), scaled, decimalSum(), decimalMax(), decimalMin(), count);
+    }
+}
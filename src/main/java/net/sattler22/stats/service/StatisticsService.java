@@ -1,25 +1,87 @@
 package net.sattler22.stats.service;
 
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
 import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
 import net.sattler22.stats.dto.StatisticsTransaction;
 
+import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Real-Time Statistics Service
  *
  * @author Pete Sattler
  * @since July 2018
- * @version November 2025
+ * @version October 2026
  */
-public sealed interface StatisticsService permits StatisticsServiceImpl {
+public sealed interface StatisticsService permits StatisticsServiceImpl, BucketedStatisticsServiceImpl {
+
+    /**
+     * Maximum input scale which disables the scaled-long numeric mode (all arithmetic is done using {@link java.math.BigDecimal})
+     */
+    int DECIMAL_ARITHMETIC = -1;
+
+    /**
+     * Maximum number of keys collected by {@link #collectTopBySum(int, int, RoundingMode)}
+     */
+    int MAX_TOP_KEYS = 100;
 
     /**
      * Add a transaction
      *
      * @param transaction A real-time statistics transaction
+     * @return True if the transaction was added. Otherwise, false if it was counted as late or future instead (event-time
+     *         mode only).
+     * @throws net.sattler22.stats.exception.ExpirationException If the transaction has expired
+     */
+    boolean add(StatisticsTransaction transaction);
+
+    /**
+     * Add a transaction to the aggregates only (it counts towards the statistics, but is neither retained nor journaled)
+     *
+     * @param transaction A real-time statistics transaction
+     */
+    default void addAggregateOnly(StatisticsTransaction transaction) {
+        add(transaction);
+    }
+
+    /**
+     * Add a batch of transactions
+     *
+     * @param transactions The real-time statistics transactions
+     * @return The number of transactions that were added and the number that were skipped because they have expired
+     */
+    StatisticsBatchResult addAll(Collection<StatisticsTransaction> transactions);
+
+    /**
+     * Add a chunk of raw transactions (without creating any transaction objects where possible)
+     *
+     * @param timestamps The real-time transaction times in seconds from the UNIX epoch
+     * @param amounts The real-time transaction amounts
+     * @param length The number of transactions in the chunk (starting at index zero)
+     * @return The number of transactions that were added and the number that were skipped because they have expired
+     */
+    default StatisticsBatchResult addAll(long[] timestamps, BigDecimal[] amounts, int length) {
+        return addAll(timestamps, amounts, null, length);
+    }
+
+    /**
+     * Add a chunk of raw (optionally keyed) transactions (without creating any transaction objects where possible)
+     *
+     * @param timestamps The real-time transaction times in seconds from the UNIX epoch
+     * @param amounts The real-time transaction amounts
+     * @param keys The statistics keys (individual keys may be null), or null if none of the transactions are keyed
+     * @param length The number of transactions in the chunk (starting at index zero)
+     * @return The number of transactions that were added and the number that were skipped because they have expired
      */
-    void add(StatisticsTransaction transaction);
+    StatisticsBatchResult addAll(long[] timestamps, BigDecimal[] amounts, String[] keys, int length);
 
     /**
      * Transactions existence check
@@ -35,10 +97,127 @@ public sealed interface StatisticsService permits StatisticsServiceImpl {
      * @param calcRoundingMode The calculation rounding mode
      * @return The statistics based on the real-time transactions which occurred in the last 60 seconds
      */
-    StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode);
+    default StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode) {
+        return collect(calcScale, calcRoundingMode, StatisticsQueryOptions.NONE);
+    }
+
+    /**
+     * Collect statistics along with optional statistics
+     *
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @param queryOptions The optional statistics to include (variance, standard deviation and approximate percentiles)
+     * @return The statistics based on the real-time transactions which occurred in the last 60 seconds
+     */
+    StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions);
+
+    /**
+     * Collect statistics over a shorter lookback window
+     *
+     * @param window The lookback window (whole seconds, up to the expiration interval)
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @param queryOptions The optional statistics to include (variance, standard deviation and approximate percentiles)
+     * @return The statistics based on the real-time transactions which occurred within the window
+     * @throws IllegalArgumentException If the window is not valid
+     */
+    StatisticsQueryResult collect(Duration window, int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions);
+
+    /**
+     * Collect a time series of statistics
+     *
+     * @param window The lookback window (whole seconds, up to the expiration interval)
+     * @param resolution The time covered by each point (whole seconds, up to the window)
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The statistics of every point in the window up to the current second (oldest first)
+     * @throws IllegalArgumentException If either the window or the resolution is not valid
+     */
+    List<StatisticsSeriesPoint> collectSeries(Duration window, Duration resolution, int calcScale, RoundingMode calcRoundingMode);
+
+    /**
+     * Collect the per-second partials of the live window (so they can be merged with the partials of other nodes)
+     *
+     * @return The partials of every live second (including the seconds ahead of the current one) that has at least one
+     *         transaction
+     */
+    StatisticsPartials collectPartials();
+
+    /**
+     * Collect the statistics of this node merged with the partials of other nodes
+     * <p>
+     * Only the buckets of the peer partials that have not expired on this node are merged, so stale partials are
+     * harmless. Future seconds count on every node, the same as in {@link #collect(int, RoundingMode)}.
+     *
+     * @param peerPartials The partials of the other nodes
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The statistics based on the real-time transactions of every node which occurred in the last 60 seconds
+     */
+    default StatisticsQueryResult collect(Collection<StatisticsPartials> peerPartials, int calcScale,
+                                          RoundingMode calcRoundingMode) {
+        final StatisticsPartials localPartials = collectPartials();
+        final long oldestLiveSecond = localPartials.epochSecond() - expiryInterval().toSeconds();
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator(DECIMAL_ARITHMETIC, false);
+        for (final StatisticsPartials.Bucket bucket : localPartials.buckets())
+            accumulator.merge(bucket);
+        for (final StatisticsPartials partials : peerPartials)
+            for (final StatisticsPartials.Bucket bucket : partials.buckets())
+                if (bucket.second() >= oldestLiveSecond)
+                    accumulator.merge(bucket);
+        return accumulator.toQueryResult(calcScale, calcRoundingMode, StatisticsQueryOptions.NONE);
+    }
+
+    /**
+     * Collect the statistics of a single key
+     *
+     * @param key The statistics key
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The statistics based on the real-time transactions of the key which occurred in the last 60 seconds
+     */
+    StatisticsQueryResult collect(String key, int calcScale, RoundingMode calcRoundingMode);
+
+    /**
+     * Collect the statistics of the keys with the largest sums
+     *
+     * @param limit The maximum number of keys (between one and {@value #MAX_TOP_KEYS})
+     * @param calcScale The calculation scale (number of digits to the right of the decimal)
+     * @param calcRoundingMode The calculation rounding mode
+     * @return The statistics of up to {@code limit} keys ordered by descending sum
+     */
+    List<KeyedStatisticsResult> collectTopBySum(int limit, int calcScale, RoundingMode calcRoundingMode);
 
     /**
-     * Remove expired transactions
+     * Remove expired transactions (and evict the idle keys)
      */
     void removeIfExpired();
+
+    /**
+     * Retained transactions count
+     *
+     * @return The number of transactions currently held by the service (including expired transactions that have not been removed yet)
+     */
+    long retainedCount();
+
+    /**
+     * Get the expiration interval
+     *
+     * @return The real-time transaction expiration interval (which is also the longest lookback window)
+     */
+    Duration expiryInterval();
+
+    /**
+     * Active keys count
+     *
+     * @return The number of keys that currently have a window (including idle keys that have not been evicted yet)
+     */
+    long activeKeyCount();
+
+    /**
+     * Distribution sketch check
+     *
+     * @return True if the variance, standard deviation and approximate percentiles can be collected. Otherwise, returns false.
+     */
+    boolean isDistributionEnabled();
 }
@@ -1,36 +1,86 @@
 package net.sattler22.stats.service;
 
+import net.jcip.annotations.GuardedBy;
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
 import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
 import net.sattler22.stats.dto.StatisticsTransaction;
 import net.sattler22.stats.exception.ExpirationException;
+import net.sattler22.stats.journal.TransactionJournal;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.util.StopWatch;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Clock;
 import java.time.Duration;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
-
-import static java.math.BigDecimal.ZERO;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Real-Time Statistics Service Implementation
+ * <p>
+ * Every transaction is retained in time-ordered, per-second segments. Expired segments are evicted from the head as
+ * transactions arrive (and by the scheduled clean-up), so eviction is amortized constant time and never blocks the
+ * writers. The transactions can alternatively be retained off-heap (see {@link OffHeapTransactionStore}), which keeps
+ * the Java heap flat for very large windows.
+ * <p>
+ * The live window is aggregated into a snapshot that is rebuilt (with a single scan) the first time it is collected
+ * in a new second and updated incrementally on add. Query results are also cached per calculation scale and rounding
+ * mode until either the second or the modification count changes. Shorter lookback windows and time series are
+ * answered from the per-second segment aggregates. Very large windows can optionally be rebuilt in parallel (see
+ * {@link ParallelCollector}).
+ * <p>
+ * Keyed transactions are additionally counted in a compact per-key window, so the statistics of a single key (or of
+ * the top keys) never require a scan of the retained transactions.
+ * <p>
+ * Every accepted transaction is also handed to the transaction journal (if any), so the live window can be replayed
+ * after a restart.
+ * <p>
+ * In event-time mode, late and future transactions are counted by the {@link EventTimePolicy} instead, so no
+ * transaction is retained for longer than the expiration interval plus the allowed skew.
+ * <p>
+ * Transactions added to the aggregates only (when shedding load) are counted in lock-striped, per-second
+ * {@link BucketRing}s, which are merged into every query, instead of being retained. They never take the engine lock,
+ * so shed traffic does not contend with the admitted writes.
  *
  * @author Pete Sattler
  * @since July 2018
- * @version May 2025
+ * @version October 2026
  */
-public final class StatisticsServiceImpl implements StatisticsService {
+public final class StatisticsServiceImpl implements StatisticsService, AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(StatisticsServiceImpl.class);
     private static final String TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE = "%s has expired";
+    private static final int MAX_AGGREGATE_ONLY_STRIPES = 4;  //Bounded, since every ring may carry a distribution sketch
     private final long expiryIntervalSecs;
-    private final List<StatisticsTransaction> transactions = Collections.synchronizedList(new LinkedList<>());
+    private final int maxInputScale;
+    private final boolean distribution;
+    private final StatisticsMetricsRecorder metricsRecorder;
+    private final TransactionJournal journal;
+    private final TransactionStore transactions;
+    private final ParallelCollector parallelCollector;
+    private final EventTimePolicy eventTimePolicy;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final WindowSnapshot window;
+    private final QueryResultCache queryResultCache = new QueryResultCache();
+    private final KeyedWindows keyedWindows;
+    private final ReentrantLock aggregateOnlyLock = new ReentrantLock();
+    private final LongAdder aggregateOnlyCount = new LongAdder();
+    private volatile BucketRing[] aggregateOnly;  //Created by the first aggregate-only add
+    private volatile long modCount;
 
     /**
      * Constructs a new statistics service
@@ -38,93 +88,471 @@ public final class StatisticsServiceImpl implements StatisticsService {
      * @param expiryInterval The real-time transaction expiration interval
      */
     public StatisticsServiceImpl(Duration expiryInterval) {
+        this(expiryInterval, DECIMAL_ARITHMETIC);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale) {
+        this(expiryInterval, maxInputScale, StatisticsMetricsRecorder.NOOP);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder) {
+        this(expiryInterval, maxInputScale, metricsRecorder, TransactionJournal.NOOP);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal) {
+        this(expiryInterval, maxInputScale, metricsRecorder, journal, false);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param offHeap True to retain the transactions as raw records in off-heap memory. Otherwise, false to retain them on-heap.
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal, boolean offHeap) {
+        this(expiryInterval, maxInputScale, metricsRecorder, journal, offHeap, 0, 0L);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param offHeap True to retain the transactions as raw records in off-heap memory. Otherwise, false to retain them on-heap.
+     * @param collectParallelism The number of threads rebuilding the live window in parallel
+     * @param parallelCollectThreshold The minimum number of retained transactions rebuilt in parallel (zero or less to always rebuild sequentially)
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal, boolean offHeap, int collectParallelism,
+                                 long parallelCollectThreshold) {
+        this(expiryInterval, maxInputScale, metricsRecorder, journal, offHeap, collectParallelism, parallelCollectThreshold,
+                null);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param offHeap True to retain the transactions as raw records in off-heap memory. Otherwise, false to retain them on-heap.
+     * @param collectParallelism The number of threads rebuilding the live window in parallel
+     * @param parallelCollectThreshold The minimum number of retained transactions rebuilt in parallel (zero or less to always rebuild sequentially)
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal, boolean offHeap, int collectParallelism,
+                                 long parallelCollectThreshold, EventTimePolicy eventTimePolicy) {
+        this(expiryInterval, maxInputScale, metricsRecorder, journal, offHeap, collectParallelism, parallelCollectThreshold,
+                eventTimePolicy, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param offHeap True to retain the transactions as raw records in off-heap memory. Otherwise, false to retain them on-heap.
+     * @param collectParallelism The number of threads rebuilding the live window in parallel
+     * @param parallelCollectThreshold The minimum number of retained transactions rebuilt in parallel (zero or less to always rebuild sequentially)
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     * @param clock The clock deciding the current second
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal, boolean offHeap, int collectParallelism,
+                                 long parallelCollectThreshold, EventTimePolicy eventTimePolicy, Clock clock) {
+        this(expiryInterval, maxInputScale, metricsRecorder, journal, offHeap, collectParallelism, parallelCollectThreshold,
+                eventTimePolicy, clock, false);
+    }
+
+    /**
+     * Constructs a new statistics service
+     *
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link #DECIMAL_ARITHMETIC})
+     * @param metricsRecorder The metrics recorder
+     * @param journal The journal receiving every accepted transaction
+     * @param offHeap True to retain the transactions as raw records in off-heap memory. Otherwise, false to retain them on-heap.
+     * @param collectParallelism The number of threads rebuilding the live window in parallel
+     * @param parallelCollectThreshold The minimum number of retained transactions rebuilt in parallel (zero or less to always rebuild sequentially)
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     * @param clock The clock deciding the current second
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    public StatisticsServiceImpl(Duration expiryInterval, int maxInputScale, StatisticsMetricsRecorder metricsRecorder,
+                                 TransactionJournal journal, boolean offHeap, int collectParallelism,
+                                 long parallelCollectThreshold, EventTimePolicy eventTimePolicy, Clock clock,
+                                 boolean distribution) {
         this.expiryIntervalSecs = expiryInterval.toSeconds();
+        this.maxInputScale = maxInputScale;
+        this.distribution = distribution;
+        this.metricsRecorder = Objects.requireNonNull(metricsRecorder, "Metrics recorder is required");
+        this.journal = Objects.requireNonNull(journal, "Journal is required");
+        this.transactions = offHeap ? new OffHeapTransactionStore() : new TransactionSegments(maxInputScale, distribution);
+        this.parallelCollector = parallelCollectThreshold > 0L ?
+                new ParallelCollector(collectParallelism, parallelCollectThreshold, maxInputScale, distribution) : null;
+        this.eventTimePolicy = eventTimePolicy;
+        this.clock = Objects.requireNonNull(clock, "Clock is required");
+        this.window = new WindowSnapshot(expiryIntervalSecs, maxInputScale, distribution);
+        this.keyedWindows = new KeyedWindows(expiryIntervalSecs, maxInputScale);
     }
 
     @Override
-    public void add(StatisticsTransaction transaction) {
+    public boolean add(StatisticsTransaction transaction) {
         if (transaction == null)
             throw new NullPointerException("Transaction is required");
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        if (eventTimePolicy != null && !eventTimePolicy.admit(transaction.timestamp(), now))
+            return false;  //Counted as late or future
+        if (transaction.timestamp() < oldestLiveSecond) {
+            metricsRecorder.recordExpired(1L);
+            throw new ExpirationException(String.format(TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE, transaction));
+        }
+        lock.lock();
         try {
-            if (transaction.isExpired(expiryIntervalSecs))
-                throw new ExpirationException(String.format(TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE, transaction));
-            transactions.addFirst(transaction);  //Add to head
-            stopWatch.stop();
-            logger.info("Added {}, elapsed time: {} ns", transaction, stopWatch.getTotalTimeNanos());
+            transactions.add(transaction);
+            window.add(transaction.timestamp(), transaction.amount());
+            modCount++;
         }
         finally {
-            if (stopWatch.isRunning())
-                stopWatch.stop();
+            lock.unlock();
         }
+        journal.append(transaction.timestamp(), transaction.amount(), transaction.key());
+        if (transaction.key() != null)
+            keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+        transactions.evictExpired(oldestLiveSecond);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAdd(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("Added {}, elapsed time: {} ns", transaction, elapsedNanos);
+        return true;
+    }
+
+    @Override
+    public void addAggregateOnly(StatisticsTransaction transaction) {
+        if (transaction == null)
+            throw new NullPointerException("Transaction is required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        if (eventTimePolicy != null && !eventTimePolicy.admit(transaction.timestamp(), now))
+            return;  //Counted as late or future
+        if (transaction.timestamp() < now - expiryIntervalSecs) {
+            metricsRecorder.recordExpired(1L);
+            throw new ExpirationException(String.format(TRANSACTION_EXPIRED_ERROR_MESSAGE_TEMPLATE, transaction));
+        }
+        final BucketRing[] aggregateOnly = aggregateOnlyRings();
+        final int homeStripe = Math.floorMod(Long.hashCode(Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L),
+                aggregateOnly.length);  //Fibonacci hashing
+        boolean added = false;
+        for (int i = 0; i < aggregateOnly.length && !added; i++)
+            added = aggregateOnly[(homeStripe + i) % aggregateOnly.length].tryAdd(transaction.timestamp(), transaction.amount(), now);
+        if (!added)
+            aggregateOnly[homeStripe].add(transaction.timestamp(), transaction.amount(), now);  //Every stripe is busy
+        aggregateOnlyCount.increment();  //Only once added, so a result is never cached under a newer count
+        if (transaction.key() != null)
+            keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAdd(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("Added {} to the aggregates only, elapsed time: {} ns", transaction, elapsedNanos);
+    }
+
+    private BucketRing[] aggregateOnlyRings() {
+        BucketRing[] rings = aggregateOnly;
+        if (rings != null)
+            return rings;
+        aggregateOnlyLock.lock();
+        try {
+            rings = aggregateOnly;
+            if (rings == null) {
+                final long futureHorizonSecs = eventTimePolicy == null ? expiryIntervalSecs + 1 : eventTimePolicy.allowedSkewSecs();
+                rings = new BucketRing[Math.min(Runtime.getRuntime().availableProcessors(), MAX_AGGREGATE_ONLY_STRIPES)];
+                for (int i = 0; i < rings.length; i++)
+                    rings[i] = new BucketRing(expiryIntervalSecs, futureHorizonSecs, maxInputScale, distribution);
+                aggregateOnly = rings;
+            }
+            return rings;
+        }
+        finally {
+            aggregateOnlyLock.unlock();
+        }
+    }
+
+    @Override
+    public StatisticsBatchResult addAll(Collection<StatisticsTransaction> batch) {
+        Objects.requireNonNull(batch, "Transactions are required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        final long oldestLiveSecond = now - expiryIntervalSecs;
+        final long oldestAcceptedSecond = eventTimePolicy == null ? oldestLiveSecond : eventTimePolicy.advance(now);
+        final long newestAcceptedSecond = eventTimePolicy == null ? Long.MAX_VALUE : eventTimePolicy.newestAcceptedSecond(now);
+        final List<StatisticsTransaction> accepted = new ArrayList<>(batch.size());
+        long futureCount = 0L;
+        for (final StatisticsTransaction transaction : batch) {
+            final long timestamp = Objects.requireNonNull(transaction, "Transaction is required").timestamp();
+            if (timestamp > newestAcceptedSecond)
+                futureCount++;
+            else if (timestamp >= oldestAcceptedSecond)
+                accepted.add(transaction);
+        }
+        lock.lock();
+        try {
+            for (final StatisticsTransaction transaction : accepted) {
+                transactions.add(transaction);
+                window.add(transaction.timestamp(), transaction.amount());
+            }
+            modCount += accepted.size();
+        }
+        finally {
+            lock.unlock();
+        }
+        for (final StatisticsTransaction transaction : accepted) {
+            journal.append(transaction.timestamp(), transaction.amount(), transaction.key());
+            if (transaction.key() != null)
+                keyedWindows.add(transaction.key(), transaction.timestamp(), transaction.amount(), now);
+        }
+        transactions.evictExpired(oldestLiveSecond);
+        final long expiredCount = batch.size() - accepted.size() - futureCount;
+        if (eventTimePolicy != null)
+            eventTimePolicy.recordRejected(expiredCount, futureCount);
+        else if (expiredCount > 0)
+            metricsRecorder.recordExpired(expiredCount);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordAddAll(elapsedNanos, batch.size());
+        if (logger.isDebugEnabled())
+            logger.debug("Added [{}] of [{}] transactions, elapsed time: {} ns", accepted.size(), batch.size(), elapsedNanos);
+        return new StatisticsBatchResult(accepted.size(), expiredCount, futureCount);
+    }
+
+    @Override
+    public StatisticsBatchResult addAll(long[] timestamps, BigDecimal[] amounts, String[] keys, int length) {
+        Objects.checkFromIndexSize(0, length, Math.min(timestamps.length, amounts.length));
+        if (keys != null)
+            Objects.checkFromIndexSize(0, length, keys.length);
+        final List<StatisticsTransaction> batch = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)  //This engine retains every transaction
+            batch.add(new StatisticsTransaction(amounts[i], timestamps[i], keys == null ? null : keys[i]));
+        return addAll(batch);
     }
 
     @Override
     public boolean hasTransactions() {
-        for (final StatisticsTransaction transaction : transactions)
-            if (!transaction.isExpired(expiryIntervalSecs))
-                return true;
+        final long now = epochSecond();
+        if (transactions.hasTransactions(now - expiryIntervalSecs))
+            return true;
+        final BucketRing[] aggregateOnly = this.aggregateOnly;
+        if (aggregateOnly != null)
+            for (final BucketRing ring : aggregateOnly)
+                if (ring.hasTransactions(now))
+                    return true;
         return false;
     }
 
     @Override
-    public StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode) {
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-        try {
-            //Grab an array snapshot that can be accessed in constant time:
-            final StatisticsTransaction[] snapshot = transactions.toArray(new StatisticsTransaction[0]);
-            BigDecimal sum = ZERO;
-            BigDecimal max = ZERO;
-            BigDecimal min = null;
-            long count = 0L;
-            for (final StatisticsTransaction transaction : snapshot)
-                if (!transaction.isExpired(expiryIntervalSecs)) {
-                    sum = sum.add(transaction.amount());
-                    if (transaction.amount().compareTo(max) > 0)
-                        max = transaction.amount();
-                    if (min == null || transaction.amount().compareTo(min) < 0)
-                        min = transaction.amount();
-                    count++;
+    public StatisticsQueryResult collect(int calcScale, RoundingMode calcRoundingMode, StatisticsQueryOptions queryOptions) {
+        Objects.requireNonNull(queryOptions, "Query options are required");
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        //Read the modification count BEFORE collecting, so a result never gets cached under a newer count:
+        final long modCount = this.modCount + aggregateOnlyCount.sum();
+        StatisticsQueryResult queryResult = queryResultCache.get(now, modCount, calcScale, calcRoundingMode, queryOptions);
+        if (queryResult == null) {
+            final BucketRing[] aggregateOnly = this.aggregateOnly;
+            final StatisticsAccumulator accumulator = aggregateOnly == null ? null : new StatisticsAccumulator(maxInputScale, distribution);
+            lock.lock();
+            try {
+                if (!window.isCurrent(now)) {
+                    final StatisticsAccumulator snapshot = window.rebuild(now);
+                    if (parallelCollector == null)
+                        transactions.collect(snapshot, now - expiryIntervalSecs);
+                    else
+                        transactions.collect(snapshot, now - expiryIntervalSecs, parallelCollector);
                 }
-            BigDecimal average = ZERO;
-            if (count > 0)
-                average = sum.divide(BigDecimal.valueOf(count), calcScale, calcRoundingMode);
-            if (min == null)
-                min = ZERO;
-            final StatisticsQueryResult queryResult = new StatisticsQueryResult(sum, average, max, min, count);
-            stopWatch.stop();
-            logger.info("{} using rounding mode [{}], elapsed time: {} ns", queryResult, calcRoundingMode, stopWatch.getTotalTimeNanos());
-            return queryResult;
+                if (aggregateOnly == null)
+                    queryResult = window.accumulator().toQueryResult(calcScale, calcRoundingMode, queryOptions);
+                else
+                    accumulator.merge(window.accumulator());
+            }
+            finally {
+                lock.unlock();
+            }
+            if (aggregateOnly != null) {
+                for (final BucketRing ring : aggregateOnly)  //Each ring keeps a snapshot of its own window
+                    ring.collect(accumulator, now);
+                queryResult = accumulator.toQueryResult(calcScale, calcRoundingMode, queryOptions);
+            }
+            queryResultCache.put(now, modCount, calcScale, calcRoundingMode, queryOptions, queryResult);
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordCollect(elapsedNanos);
+        if (logger.isDebugEnabled())
+            logger.debug("{} using rounding mode [{}], elapsed time: {} ns", queryResult, calcRoundingMode, elapsedNanos);
+        return queryResult;
+    }
+
+    @Override
+    public StatisticsQueryResult collect(Duration window, int calcScale, RoundingMode calcRoundingMode,
+                                         StatisticsQueryOptions queryOptions) {
+        final long windowSecs = SeriesWindow.toSeconds("Window", window, expiryIntervalSecs);
+        if (windowSecs == expiryIntervalSecs)
+            return collect(calcScale, calcRoundingMode, queryOptions);
+        Objects.requireNonNull(queryOptions, "Query options are required");
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator(maxInputScale, distribution);
+        final long now = epochSecond();
+        lock.lock();
+        try {
+            transactions.collectAggregates(accumulator, now - windowSecs);
         }
         finally {
-            if (stopWatch.isRunning())
-                stopWatch.stop();
+            lock.unlock();
         }
+        final BucketRing[] aggregateOnly = this.aggregateOnly;
+        if (aggregateOnly != null)
+            for (final BucketRing ring : aggregateOnly)
+                ring.collect(accumulator, now, now - windowSecs);
+        return accumulator.toQueryResult(calcScale, calcRoundingMode, queryOptions);
     }
 
     @Override
-    @Scheduled(fixedDelayString = "${stats-api.service.expiry-clean-up-interval}", timeUnit = TimeUnit.SECONDS)
-    public void removeIfExpired() {
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+    public List<StatisticsSeriesPoint> collectSeries(Duration window, Duration resolution, int calcScale,
+                                                     RoundingMode calcRoundingMode) {
+        final SeriesWindow seriesWindow = SeriesWindow.of(SeriesWindow.toSeconds("Window", window, expiryIntervalSecs),
+                SeriesWindow.toSeconds("Resolution", resolution, expiryIntervalSecs), epochSecond());
+        final StatisticsAccumulator[] points = seriesWindow.newPoints(maxInputScale);
+        lock.lock();
         try {
-            final int count = transactions.size();
-            if (transactions.removeIf(transaction -> transaction.isExpired(expiryIntervalSecs))) {
-                stopWatch.stop();
-                logger.info("Removed [{}] expired transaction{}, elapsed time: {} ns",
-                        count - transactions.size(), count - transactions.size() == 1 ? "" : "s", stopWatch.getTotalTimeNanos());
-            }
+            transactions.collectSeries(points, seriesWindow);
         }
         finally {
-            if (stopWatch.isRunning())
-                stopWatch.stop();
+            lock.unlock();
+        }
+        final BucketRing[] aggregateOnly = this.aggregateOnly;
+        if (aggregateOnly != null)
+            for (final BucketRing ring : aggregateOnly)
+                ring.collectSeries(points, seriesWindow);
+        return seriesWindow.toSeries(points, calcScale, calcRoundingMode);
+    }
+
+    @Override
+    public StatisticsPartials collectPartials() {
+        final long now = epochSecond();
+        final PartialsCollector partials = new PartialsCollector(now - expiryIntervalSecs, maxInputScale);
+        lock.lock();
+        try {
+            transactions.collectPartials(partials);
         }
+        finally {
+            lock.unlock();
+        }
+        final BucketRing[] aggregateOnly = this.aggregateOnly;
+        if (aggregateOnly != null)
+            for (final BucketRing ring : aggregateOnly)
+                ring.collectPartials(partials);
+        return partials.toPartials(now);
+    }
+
+    @Override
+    public StatisticsQueryResult collect(String key, int calcScale, RoundingMode calcRoundingMode) {
+        Objects.requireNonNull(key, "Key is required");
+        return keyedWindows.collect(key, calcScale, calcRoundingMode, epochSecond());
+    }
+
+    @Override
+    public List<KeyedStatisticsResult> collectTopBySum(int limit, int calcScale, RoundingMode calcRoundingMode) {
+        return keyedWindows.collectTopBySum(limit, calcScale, calcRoundingMode, epochSecond());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats-api.service.expiry-clean-up-interval}", timeUnit = TimeUnit.SECONDS)
+    public void removeIfExpired() {
+        final long startNanos = System.nanoTime();
+        final long now = epochSecond();
+        long removedCount = transactions.evictExpired(now - expiryIntervalSecs);
+        final BucketRing[] aggregateOnly = this.aggregateOnly;
+        if (aggregateOnly != null)
+            for (final BucketRing ring : aggregateOnly)
+                removedCount += ring.removeIfExpired(now);
+        final int evictedKeyCount = keyedWindows.evictIdle(now);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        metricsRecorder.recordRemoveIfExpired(elapsedNanos, removedCount);
+        if (removedCount > 0)
+            logger.info("Removed [{}] expired transaction{}, elapsed time: {} ns",
+                    removedCount, removedCount == 1 ? "" : "s", elapsedNanos);
+        if (evictedKeyCount > 0)
+            logger.info("Evicted [{}] idle key{}", evictedKeyCount, evictedKeyCount == 1 ? "" : "s");
+    }
+
+    @Override
+    public long retainedCount() {
+        return transactions.retainedCount();
+    }
+
+    @Override
+    public Duration expiryInterval() {
+        return Duration.ofSeconds(expiryIntervalSecs);
+    }
+
+    @Override
+    public long activeKeyCount() {
+        return keyedWindows.size();
+    }
+
+    @Override
+    public boolean isDistributionEnabled() {
+        return distribution;
+    }
+
+    /**
+     * Shut down the parallel collector (if any), which is inferred as the destroy method of the service bean
+     */
+    @Override
+    public void close() {
+        if (parallelCollector != null)
+            parallelCollector.close();
+    }
+
+    /**
+     * Get the current UNIX epoch second (without allocating an {@link java.time.Instant})
+     */
+    private long epochSecond() {
+        return Math.floorDiv(clock.millis(), 1000L);
     }
 
     @Override
     public String toString() {
-        return String.format("%s [transactions=%s]", getClass().getSimpleName(), transactions);
+        return String.format("%s [transactions=%s, keyedWindows=%s]", getClass().getSimpleName(), transactions, keyedWindows);
     }
 }
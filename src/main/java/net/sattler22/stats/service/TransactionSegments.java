@@ -0,0 +1,217 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.NotThreadSafe;
+import net.sattler22.stats.dto.StatisticsTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Time-Ordered Transaction Segments
+ * <p>
+ * Retains every transaction in a segment per second, ordered by second. Expired seconds are always at the head, so
+ * expiry releases whole segments at a time instead of testing every transaction. The segments and their transactions
+ * are kept in lock-free collections, so evicting and scanning the transactions never block the writers.
+ * <p>
+ * Each segment also keeps the aggregate of its transactions, so shorter lookback windows and time series are answered
+ * from per-second aggregates instead of rescanning the transactions.
+ *
+ * @implNote The segment aggregates are not thread-safe, so appending and reading them must be guarded by the lock of
+ *           the owning engine
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class TransactionSegments implements TransactionStore {
+
+    private final int maxInputScale;
+    private final boolean distribution;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs new transaction segments
+     *
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    TransactionSegments(int maxInputScale, boolean distribution) {
+        this.maxInputScale = maxInputScale;
+        this.distribution = distribution;
+    }
+
+    /**
+     * Append a transaction to the segment of its second
+     *
+     * @param transaction The real-time transaction
+     */
+    @Override
+    public void add(StatisticsTransaction transaction) {
+        segments.computeIfAbsent(transaction.timestamp(), second -> new Segment(maxInputScale, distribution)).add(transaction);
+    }
+
+    /**
+     * Evict every expired segment
+     *
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @return The number of transactions evicted
+     */
+    @Override
+    public long evictExpired(long oldestLiveSecond) {
+        long evicted = 0L;
+        Map.Entry<Long, Segment> head;
+        while ((head = segments.firstEntry()) != null && head.getKey() < oldestLiveSecond)
+            if (segments.remove(head.getKey(), head.getValue()))
+                evicted += head.getValue().count();
+        return evicted;
+    }
+
+    /**
+     * Live transaction existence check
+     *
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @return True if at least one segment has not expired. Otherwise, returns false.
+     */
+    @Override
+    public boolean hasTransactions(long oldestLiveSecond) {
+        return segments.ceilingKey(oldestLiveSecond) != null;
+    }
+
+    /**
+     * Add the amount of every live transaction to the target accumulator
+     *
+     * @param target The accumulator to add to
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     */
+    @Override
+    public void collect(StatisticsAccumulator target, long oldestLiveSecond) {
+        for (final Segment segment : segments.tailMap(oldestLiveSecond, true).values())
+            for (final StatisticsTransaction transaction : segment.transactions)
+                target.add(transaction.amount());
+    }
+
+    /**
+     * Add the amount of every live transaction to the target accumulator, splitting the live segments into runs of
+     * consecutive segments (a segment is never split) once the threshold is reached
+     *
+     * @param target The accumulator to add to
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @param parallelCollector The parallel collector
+     */
+    @Override
+    public void collect(StatisticsAccumulator target, long oldestLiveSecond, ParallelCollector parallelCollector) {
+        final long retainedCount = retainedCount();
+        if (!parallelCollector.isParallel(retainedCount)) {
+            collect(target, oldestLiveSecond);
+            return;
+        }
+        final int partSize = parallelCollector.partSize(retainedCount);
+        final List<Consumer<StatisticsAccumulator>> parts = new ArrayList<>();
+        List<Segment> run = new ArrayList<>();
+        long runCount = 0L;
+        for (final Segment segment : segments.tailMap(oldestLiveSecond, true).values()) {
+            run.add(segment);
+            runCount += segment.count();
+            if (runCount >= partSize) {
+                parts.add(collector(run));
+                run = new ArrayList<>();
+                runCount = 0L;
+            }
+        }
+        if (!run.isEmpty())
+            parts.add(collector(run));
+        parallelCollector.collect(parts, target);
+    }
+
+    private static Consumer<StatisticsAccumulator> collector(List<Segment> run) {
+        return target -> {
+            for (final Segment segment : run)
+                for (final StatisticsTransaction transaction : segment.transactions)
+                    target.add(transaction.amount());
+        };
+    }
+
+    /**
+     * Merge the aggregate of every segment from a given second onwards into the target accumulator
+     *
+     * @param target The accumulator to merge into
+     * @param fromSecond The oldest second to merge
+     */
+    @Override
+    public void collectAggregates(StatisticsAccumulator target, long fromSecond) {
+        for (final Segment segment : segments.tailMap(fromSecond, true).values())
+            target.merge(segment.accumulator);
+    }
+
+    /**
+     * Merge the aggregate of every segment in the series window into its point
+     *
+     * @param points The point accumulators
+     * @param seriesWindow The series window
+     */
+    @Override
+    public void collectSeries(StatisticsAccumulator[] points, SeriesWindow seriesWindow) {
+        for (final Map.Entry<Long, Segment> entry :
+                segments.subMap(seriesWindow.fromSecond(), true, seriesWindow.toSecond(), true).entrySet())
+            points[seriesWindow.pointIndex(entry.getKey())].merge(entry.getValue().accumulator);
+    }
+
+    /**
+     * Merge the aggregate of every live segment into the accumulator of its second
+     *
+     * @param partials The partials collector
+     */
+    @Override
+    public void collectPartials(PartialsCollector partials) {
+        for (final Map.Entry<Long, Segment> entry : segments.tailMap(partials.oldestLiveSecond(), true).entrySet())
+            partials.accumulatorFor(entry.getKey()).merge(entry.getValue().accumulator);
+    }
+
+    /**
+     * Get the number of retained transactions
+     *
+     * @return The number of transactions in segments that have not been evicted yet
+     */
+    @Override
+    public long retainedCount() {
+        long retained = 0L;
+        for (final Segment segment : segments.values())
+            retained += segment.count();
+        return retained;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [segments=%d, retained=%d]", getClass().getSimpleName(), segments.size(), retainedCount());
+    }
+
+    /**
+     * A single second of retained transactions
+     */
+    private static final class Segment {
+
+        private final Queue<StatisticsTransaction> transactions = new ConcurrentLinkedQueue<>();
+        private final AtomicLong count = new AtomicLong();
+        private final StatisticsAccumulator accumulator;
+
+        private Segment(int maxInputScale, boolean distribution) {
+            this.accumulator = new StatisticsAccumulator(maxInputScale, distribution);
+        }
+
+        private void add(StatisticsTransaction transaction) {
+            transactions.add(transaction);
+            accumulator.add(transaction.amount());
+            count.incrementAndGet();
+        }
+
+        private long count() {
+            return count.get();
+        }
+    }
+}
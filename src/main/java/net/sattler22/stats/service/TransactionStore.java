@@ -0,0 +1,87 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.StatisticsTransaction;
+
+/**
+ * Retained Transaction Store
+ * <p>
+ * Retains every live transaction of the list-based engine, so the live window can be rescanned once per second.
+ *
+ * @implNote Appending and collecting must be guarded by the lock of the owning engine, while evicting can be done
+ *           without it
+ * @author Pete Sattler
+ * @since October 2026
+ */
+sealed interface TransactionStore permits TransactionSegments, OffHeapTransactionStore {
+
+    /**
+     * Retain a transaction
+     *
+     * @param transaction The real-time transaction
+     */
+    void add(StatisticsTransaction transaction);
+
+    /**
+     * Evict the expired transactions
+     *
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @return The number of transactions evicted
+     */
+    long evictExpired(long oldestLiveSecond);
+
+    /**
+     * Live transaction existence check
+     *
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @return True if at least one retained transaction has not expired. Otherwise, returns false.
+     */
+    boolean hasTransactions(long oldestLiveSecond);
+
+    /**
+     * Add the amount of every live transaction to the target accumulator
+     *
+     * @param target The accumulator to add to
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     */
+    void collect(StatisticsAccumulator target, long oldestLiveSecond);
+
+    /**
+     * Add the amount of every live transaction to the target accumulator, in parallel once the store retains at least
+     * the threshold number of transactions of the collector
+     *
+     * @param target The accumulator to add to
+     * @param oldestLiveSecond The oldest second that has not expired yet
+     * @param parallelCollector The parallel collector
+     */
+    void collect(StatisticsAccumulator target, long oldestLiveSecond, ParallelCollector parallelCollector);
+
+    /**
+     * Add every transaction from a given second onwards to the target accumulator
+     *
+     * @param target The accumulator to add (or merge) into
+     * @param fromSecond The oldest second to include
+     */
+    void collectAggregates(StatisticsAccumulator target, long fromSecond);
+
+    /**
+     * Add every transaction in the series window to its point
+     *
+     * @param points The point accumulators
+     * @param seriesWindow The series window
+     */
+    void collectSeries(StatisticsAccumulator[] points, SeriesWindow seriesWindow);
+
+    /**
+     * Add every live transaction (including future ones) to the accumulator of its second
+     *
+     * @param partials The partials collector
+     */
+    void collectPartials(PartialsCollector partials);
+
+    /**
+     * Get the number of retained transactions
+     *
+     * @return The number of transactions that have not been evicted yet
+     */
+    long retainedCount();
+}
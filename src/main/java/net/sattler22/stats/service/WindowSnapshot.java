@@ -0,0 +1,74 @@
+package net.sattler22.stats.service;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.math.BigDecimal;
+
+/**
+ * Real-Time Statistics Window Snapshot
+ * <p>
+ * The aggregate of every transaction that is live during a single second. It is rebuilt once when the window slides
+ * (i.e. the first time it is needed in a new second) and from then on kept up to date incrementally as transactions
+ * are added, so repeated collections within the same second do not have to rescan the window.
+ *
+ * @implNote Guarded by the lock of the owning engine
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@NotThreadSafe
+final class WindowSnapshot {
+
+    private static final long UNUSED = Long.MIN_VALUE;
+    private final long expiryIntervalSecs;
+    private final StatisticsAccumulator accumulator;
+    private long second = UNUSED;
+
+    /**
+     * Constructs a new window snapshot
+     *
+     * @param expiryIntervalSecs The real-time transaction expiration interval (in seconds)
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     */
+    WindowSnapshot(long expiryIntervalSecs, int maxInputScale, boolean distribution) {
+        this.expiryIntervalSecs = expiryIntervalSecs;
+        this.accumulator = new StatisticsAccumulator(maxInputScale, distribution);
+    }
+
+    /**
+     * Currency check
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return True if the snapshot covers the window of the given second. Otherwise, returns false.
+     */
+    boolean isCurrent(long now) {
+        return second == now;
+    }
+
+    /**
+     * Add an amount that has just been added to the engine
+     *
+     * @param timestamp The real-time transaction time in seconds from the UNIX epoch
+     * @param amount The real-time transaction amount
+     */
+    void add(long timestamp, BigDecimal amount) {
+        if (second != UNUSED && timestamp >= second - expiryIntervalSecs)
+            accumulator.add(amount);
+    }
+
+    /**
+     * Start rebuilding the snapshot for a new second
+     *
+     * @param now The current time in seconds from the UNIX epoch
+     * @return The (empty) accumulator that every live transaction or bucket must be merged into
+     */
+    StatisticsAccumulator rebuild(long now) {
+        second = now;
+        accumulator.reset();
+        return accumulator;
+    }
+
+    StatisticsAccumulator accumulator() {
+        return accumulator;
+    }
+}
@@ -0,0 +1,227 @@
+package net.sattler22.stats.stream;
+
+import net.jcip.annotations.ThreadSafe;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Real-Time Statistics Stream Publisher
+ * <p>
+ * Pushes the live statistics to every subscriber as Server-Sent Events. The statistics are collected and serialized
+ * only once per tick (by the scheduler) and the same event is handed to every subscriber, so the read cost does not
+ * grow with the number of clients.
+ * <p>
+ * Each subscriber has its own bounded event queue drained by its own virtual thread, so a slow client never holds up
+ * the tick or the other clients. A subscriber whose queue is full is dropped as a slow consumer (it can reconnect).
+ * The sender only starts once Spring MVC has attached the emitter to its response, so a subscription that never gets
+ * attached holds no more than its queue (instead of buffering every early event inside the emitter) until it's dropped.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@ThreadSafe
+public final class StatisticsStreamPublisher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsStreamPublisher.class);
+    private static final String EVENT_NAME = "statistics";
+    private static final int CALC_SCALE = 2;
+    private static final RoundingMode CALC_ROUNDING_MODE = RoundingMode.HALF_UP;
+    private final StatisticsService statisticsService;
+    private final JsonMapper jsonMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberSlots = new AtomicInteger();
+    private final AtomicLong tick = new AtomicLong();
+    private final AtomicLong subscriberSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile Set<DataWithMediaType> latestEvent;
+
+    /**
+     * Constructs a new statistics stream publisher
+     *
+     * @param statisticsService The statistics service
+     * @param jsonMapper The JSON mapper
+     * @param bufferSize The maximum number of events queued per subscriber
+     * @param maxSubscribers The maximum number of concurrent subscribers
+     * @param timeout How long a subscription stays open
+     */
+    public StatisticsStreamPublisher(StatisticsService statisticsService, JsonMapper jsonMapper, int bufferSize,
+                                     int maxSubscribers, Duration timeout) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be at least one");
+        this.statisticsService = Objects.requireNonNull(statisticsService, "Statistics service is required");
+        this.jsonMapper = Objects.requireNonNull(jsonMapper, "JSON mapper is required");
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = Objects.requireNonNull(timeout, "Timeout is required");
+    }
+
+    /**
+     * Subscribe to the statistics stream
+     *
+     * @return The event emitter of the new subscriber (empty if there are already too many subscribers)
+     */
+    public Optional<SseEmitter> subscribe() {
+        //Reserve a slot first, so concurrent subscribers can never exceed the maximum:
+        if (subscriberSlots.incrementAndGet() > maxSubscribers) {
+            subscriberSlots.decrementAndGet();
+            return Optional.empty();
+        }
+        final Subscriber subscriber = new Subscriber(timeout.toMillis(), bufferSize);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(exception -> remove(subscriber));
+        final Set<DataWithMediaType> event = latestEvent;
+        if (event != null)
+            subscriber.events.offer(event);  //New subscribers get the latest statistics right away
+        subscribers.add(subscriber);
+        if (logger.isDebugEnabled())
+            logger.debug("Subscribed, subscriber count: {}", subscribers.size());
+        return Optional.of(subscriber.emitter);
+    }
+
+    /**
+     * Collect the statistics once and push them to every subscriber
+     */
+    @Scheduled(fixedRateString = "${stats-api.stream.tick-interval}")
+    public void publish() {
+        if (subscribers.isEmpty())
+            return;
+        final StatisticsQueryResult queryResult = statisticsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        final Set<DataWithMediaType> event = SseEmitter.event()
+                .id(String.valueOf(tick.incrementAndGet()))
+                .name(EVENT_NAME)
+                .data(jsonMapper.writeValueAsString(queryResult))
+                .build();
+        latestEvent = event;
+        for (final Subscriber subscriber : subscribers)
+            if (!subscriber.events.offer(event))
+                drop(subscriber);
+    }
+
+    /**
+     * Get the number of subscribers
+     *
+     * @return The number of open subscriptions
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Get the number of dropped subscribers
+     *
+     * @return The number of subscribers dropped as slow consumers so far
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Complete every subscription
+     */
+    @Override
+    public void close() {
+        for (final Subscriber subscriber : subscribers)
+            if (remove(subscriber))
+                subscriber.emitter.complete();
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            droppedCount.incrementAndGet();
+            subscriber.emitter.complete();
+            logger.warn("Dropped a slow subscriber after {} queued events", bufferSize);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber))
+            return false;
+        subscriberSlots.decrementAndGet();
+        subscriber.sender.interrupt();
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [subscribers=%d, dropped=%d, bufferSize=%d, maxSubscribers=%d]",
+                getClass().getSimpleName(), subscribers.size(), droppedCount.get(), bufferSize, maxSubscribers);
+    }
+
+    /**
+     * A single subscriber along with its event queue and sender
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> events;
+        private final Thread sender;
+
+        private Subscriber(long timeoutMillis, int bufferSize) {
+            this.emitter = new AttachAwareEmitter(timeoutMillis, this::start);
+            this.events = new ArrayBlockingQueue<>(bufferSize);
+            this.sender = Thread.ofVirtual().name("stats-stream-" + subscriberSequence.incrementAndGet()).unstarted(this::send);
+        }
+
+        private void start() {
+            sender.start();
+        }
+
+        private void send() {
+            try {
+                //Also stops if the subscriber was removed before its sender started (the interrupt is then lost):
+                while (!Thread.currentThread().isInterrupted() && subscribers.contains(this))
+                    emitter.send(events.take());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (IOException | IllegalStateException e) {
+                //The client has gone away (or the emitter has completed):
+                remove(this);
+            }
+        }
+    }
+
+    /**
+     * An emitter that reports when Spring MVC attaches it to the response
+     */
+    private static final class AttachAwareEmitter extends SseEmitter {
+
+        private final Runnable onAttach;
+
+        private AttachAwareEmitter(long timeoutMillis, Runnable onAttach) {
+            super(timeoutMillis);
+            this.onAttach = onAttach;
+        }
+
+        @Override
+        protected void extendResponse(ServerHttpResponse outputMessage) {
+            super.extendResponse(outputMessage);
+            onAttach.run();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package net.sattler22.stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Application Start-up Test
+ * <p>
+ * Tracks the sub-second start-up target of the lean profile. Start-up times depend on the machine, so the test only
+ * runs when a budget is given (e.g. {@code ./mvnw test -Dtest=StatisticsApplicationStartupTest -Dstartup.budget=PT1S}).
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+@EnabledIfSystemProperty(named = StatisticsApplicationStartupTest.BUDGET_PROPERTY, matches = ".+")
+final class StatisticsApplicationStartupTest {
+
+    static final String BUDGET_PROPERTY = "startup.budget";
+
+    @Test
+    void testStartupWithinBudget() {
+        final Duration budget = Duration.parse(System.getProperty(BUDGET_PROPERTY));
+        final long startNanos = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StatisticsApplication.class)
+                .profiles("lean")
+                .run("--server.port=0")) {
+            final Duration startup = Duration.ofNanos(System.nanoTime() - startNanos);
+            assertTrue(context.isRunning());
+            assertTrue(startup.compareTo(budget) <= 0, String.format("Started in %d ms (budget is %d ms)",
+                    startup.toMillis(), budget.toMillis()));
+        }
+    }
+}
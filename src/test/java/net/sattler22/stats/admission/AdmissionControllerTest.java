@@ -0,0 +1,105 @@
+package net.sattler22.stats.admission;
+
+import net.sattler22.stats.exception.AdmissionException;
+import net.sattler22.stats.exception.BatchTooLargeException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Admission Controller Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class AdmissionControllerTest {
+
+    private static final double RATE = 0.01;  //One transaction every 100 seconds, so the bucket never refills during a test
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(2);
+
+    @Test
+    void testRateLimitAllowsBurst() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 3L, 0, RETRY_AFTER, false);
+        for (int i = 0; i < 3; i++)
+            admissionController.acquire(1L).close();
+        final AdmissionException exception = assertThrows(AdmissionException.class, () -> admissionController.acquire(1L));
+        assertTrue(exception.isRateLimited());
+        assertTrue(exception.retryAfter().compareTo(Duration.ofSeconds(90)) > 0, "Retry after: " + exception.retryAfter());
+        assertEquals(1L, admissionController.rateLimitedCount());
+    }
+
+    @Test
+    void testRateLimitChargesWholeBatch() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 3L, 0, RETRY_AFTER, false);
+        admissionController.acquire(1L).close();
+        admissionController.acquireStrict(3L).close();  //Admitted while the bucket is not empty, then runs into debt
+        assertThrows(AdmissionException.class, () -> admissionController.acquire(1L));
+    }
+
+    @Test
+    void testRateLimitRejectsBatchAboveBurst() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 3L, 0, RETRY_AFTER, false);
+        assertThrows(BatchTooLargeException.class, () -> admissionController.acquireStrict(4L));
+        admissionController.acquire(1L).close();  //Not charged
+        assertEquals(0L, admissionController.rateLimitedCount());
+    }
+
+    @Test
+    void testRefund() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 1L, 0, RETRY_AFTER, false);
+        admissionController.acquireStrict(1L).close();
+        admissionController.refund(1L);
+        admissionController.acquire(1L).close();  //Would have been rate limited without the refund
+        assertThrows(AdmissionException.class, () -> admissionController.acquire(1L));
+    }
+
+    @Test
+    void testConcurrencyLimitDoesNotCharge() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 2L, 1, RETRY_AFTER, false);
+        try (AdmissionController.Permit permit = admissionController.acquire(1L)) {
+            final AdmissionException exception = assertThrows(AdmissionException.class, () -> admissionController.acquire(1L));
+            assertFalse(exception.isRateLimited());
+        }
+        admissionController.acquire(1L).close();  //Would have been rate limited if the saturated request had been charged
+        assertTrue(assertThrows(AdmissionException.class, () -> admissionController.acquire(1L)).isRateLimited());
+        assertEquals(0, admissionController.inFlight());  //Released by the rate-limited request
+    }
+
+    @Test
+    void testConcurrencyLimit() {
+        final AdmissionController admissionController = new AdmissionController(0.0, 0L, 2, RETRY_AFTER, false);
+        try (AdmissionController.Permit permit1 = admissionController.acquire(1L);
+             AdmissionController.Permit permit2 = admissionController.acquire(1L)) {
+            assertEquals(2, admissionController.inFlight());
+            final AdmissionException exception = assertThrows(AdmissionException.class, () -> admissionController.acquire(1L));
+            assertFalse(exception.isRateLimited());
+            assertEquals(RETRY_AFTER, exception.retryAfter());
+        }
+        assertEquals(0, admissionController.inFlight());
+        admissionController.acquire(1L).close();
+        assertEquals(1L, admissionController.saturatedCount());
+    }
+
+    @Test
+    void testLossyMode() {
+        final AdmissionController admissionController = new AdmissionController(RATE, 1L, 0, RETRY_AFTER, true);
+        assertFalse(admissionController.acquire(1L).isLossy());
+        assertTrue(admissionController.acquire(1L).isLossy());
+        assertThrows(AdmissionException.class, () -> admissionController.acquireStrict(1L));
+        assertEquals(1L, admissionController.lossyCount());
+    }
+
+    @Test
+    void testUnlimited() {
+        for (int i = 0; i < 1_000; i++)
+            try (AdmissionController.Permit permit = AdmissionController.UNLIMITED.acquire(1_000L)) {
+                assertFalse(permit.isLossy());
+            }
+        assertEquals(0L, AdmissionController.UNLIMITED.rateLimitedCount());
+    }
+}
@@ -0,0 +1,158 @@
+package net.sattler22.stats.cluster;
+
+import com.sun.net.httpserver.HttpServer;
+import net.sattler22.stats.dto.StatisticsPartials;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.service.StatisticsServiceImpl;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Cluster Coordinator Unit Tests
+ * <p>
+ * Every peer node is a statistics service exporting its partials from a local HTTP server.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class StatisticsCoordinatorTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+    private static final String PARTIALS_PATH = "/stats-api/v2" + StatisticsCoordinator.PARTIALS_PATH;
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        for (final HttpServer server : servers)
+            server.stop(0);
+    }
+
+    @Test
+    void testCollectMergesPeerPartials() throws IOException {
+        final long now = TestUtils.epoch();
+        final StatisticsService local = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        final StatisticsService peer1 = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL, 1);
+        final StatisticsService peer2 = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        final StatisticsService expected = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        add(local, expected, new BigDecimal("10.25"), now);
+        add(peer1, expected, new BigDecimal("-3"), now - 5L);
+        add(peer1, expected, new BigDecimal("7.5"), now);
+        add(peer2, expected, new BigDecimal("123.456"), now - 30L);
+        add(local, expected, new BigDecimal("4"), now + 10L);  //Future seconds count the same as locally
+        add(peer2, expected, new BigDecimal("0.5"), now + 300L);
+        try (StatisticsCoordinator coordinator = new StatisticsCoordinator(local,
+                List.of(startPeer(peer1, new AtomicInteger()), startPeer(peer2, new AtomicInteger())), TIMEOUT, Duration.ZERO)) {
+            assertEquals(expected.collect(2, RoundingMode.HALF_UP), coordinator.collect(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void testCollectCachesPeerPartials() throws IOException {
+        final long now = TestUtils.epoch();
+        final StatisticsService local = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        final StatisticsService peer = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        peer.add(new StatisticsTransaction(BigDecimal.ONE, now));
+        final AtomicInteger requestCount = new AtomicInteger();
+        try (StatisticsCoordinator coordinator = new StatisticsCoordinator(local, List.of(startPeer(peer, requestCount)),
+                TIMEOUT, Duration.ofMinutes(1))) {
+            assertEquals(1L, coordinator.collect(2, RoundingMode.HALF_UP).count());
+            peer.add(new StatisticsTransaction(BigDecimal.TWO, now));
+            assertEquals(1L, coordinator.collect(2, RoundingMode.HALF_UP).count());
+            assertEquals(1, requestCount.get());
+        }
+    }
+
+    @Test
+    void testCollectSkipsEmptyPeerBuckets() {
+        final long now = TestUtils.epoch();
+        final StatisticsService local = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        local.add(new StatisticsTransaction(BigDecimal.TEN, now));
+        final StatisticsPartials peerPartials = new StatisticsPartials(now, List.of(
+                new StatisticsPartials.Bucket(now, null, null, null, 0L),
+                new StatisticsPartials.Bucket(now, BigDecimal.ONE, null, null, 1L),
+                new StatisticsPartials.Bucket(now, BigDecimal.TWO, BigDecimal.TWO, BigDecimal.TWO, 1L)));
+        final StatisticsQueryResult queryResult = local.collect(List.of(peerPartials), 2, RoundingMode.HALF_UP);
+        assertEquals(2L, queryResult.count());
+        assertEquals(new BigDecimal("12"), queryResult.sum());
+    }
+
+    @Test
+    void testCollectBoundsSlowPeers() throws IOException {
+        final long now = TestUtils.epoch();
+        final StatisticsService local = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        local.add(new StatisticsTransaction(BigDecimal.TEN, now));
+        final HttpServer slowPeer = startServer();
+        slowPeer.createContext(PARTIALS_PATH, exchange -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        try (StatisticsCoordinator coordinator = new StatisticsCoordinator(local, List.of(baseUri(slowPeer)),
+                TIMEOUT, Duration.ZERO)) {
+            final long startNanos = System.nanoTime();
+            final StatisticsQueryResult queryResult = coordinator.collect(2, RoundingMode.HALF_UP);
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            assertEquals(1L, queryResult.count());
+            assertTrue(elapsed.compareTo(TIMEOUT.multipliedBy(4)) < 0, "Elapsed time: " + elapsed);
+        }
+    }
+
+    private static void add(StatisticsService node, StatisticsService expected, BigDecimal amount, long timestamp) {
+        node.add(new StatisticsTransaction(amount, timestamp));
+        expected.add(new StatisticsTransaction(amount, timestamp));
+    }
+
+    private URI startPeer(StatisticsService peer, AtomicInteger requestCount) throws IOException {
+        final StatisticsCoordinator peerCoordinator = new StatisticsCoordinator(peer, List.of(), TIMEOUT, Duration.ZERO);
+        final HttpServer server = startServer();
+        server.createContext(PARTIALS_PATH, exchange -> {
+            requestCount.incrementAndGet();
+            final byte[] body = peerCoordinator.exportPartials();
+            exchange.getResponseHeaders().set("Content-Type", "application/cbor");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        return baseUri(server);
+    }
+
+    private HttpServer startServer() throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(command -> Thread.ofVirtual().start(command));
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static URI baseUri(HttpServer server) {
+        return URI.create(String.format("http://%s:%d/", server.getAddress().getHostString(), server.getAddress().getPort()));
+    }
+}
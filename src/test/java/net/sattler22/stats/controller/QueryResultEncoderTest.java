@@ -0,0 +1,80 @@
+package net.sattler22.stats.controller;
+
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Real-Time Statistics Query Result Encoder Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class QueryResultEncoderTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final QueryResultEncoder encoder = new QueryResultEncoder(jsonMapper);
+
+    @Test
+    void testEncodeReusesBodyWhileResultIsUnchanged() {
+        final StatisticsQueryResult queryResult = queryResult(3L);
+        final QueryResultEncoder.EncodedQueryResult first =
+                encoder.encode(queryResult, QueryResultEncoder.Encoding.JSON, 2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE);
+        final QueryResultEncoder.EncodedQueryResult second =
+                encoder.encode(queryResult, QueryResultEncoder.Encoding.JSON, 2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE);
+        assertSame(first, second);
+        assertArrayEquals(jsonMapper.writeValueAsBytes(queryResult), first.body());
+        assertEquals(MediaType.APPLICATION_JSON, first.mediaType());
+    }
+
+    @Test
+    void testEncodeRefreshesBodyOnceResultChanges() {
+        final QueryResultEncoder.EncodedQueryResult first =
+                encoder.encode(queryResult(3L), QueryResultEncoder.Encoding.JSON, 2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE);
+        final QueryResultEncoder.EncodedQueryResult second =
+                encoder.encode(queryResult(4L), QueryResultEncoder.Encoding.JSON, 2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE);
+        assertNotSame(first, second);
+        assertNotEquals(first.eTag(), second.eTag());
+    }
+
+    @Test
+    void testEncodeBinaryRoundTrip() {
+        final StatisticsQueryResult queryResult = queryResult(3L);
+        final QueryResultEncoder.EncodedQueryResult cbor = encoder.encode(queryResult, QueryResultEncoder.Encoding.CBOR);
+        final QueryResultEncoder.EncodedQueryResult smile = encoder.encode(queryResult, QueryResultEncoder.Encoding.SMILE);
+        assertEquals(queryResult, CBORMapper.builder().build().readValue(cbor.body(), StatisticsQueryResult.class));
+        assertEquals(queryResult, SmileMapper.builder().build().readValue(smile.body(), StatisticsQueryResult.class));
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.mediaType());
+        assertNotEquals(cbor.eTag(), smile.eTag());
+    }
+
+    @Test
+    void testSelect() {
+        assertEquals(QueryResultEncoder.Encoding.JSON, QueryResultEncoder.select(MediaType.parseMediaTypes("*/*")));
+        assertEquals(QueryResultEncoder.Encoding.CBOR, QueryResultEncoder.select(MediaType.parseMediaTypes("application/cbor")));
+        assertEquals(QueryResultEncoder.Encoding.SMILE,
+                QueryResultEncoder.select(MediaType.parseMediaTypes("application/json;q=0.5, application/x-jackson-smile")));
+        assertEquals(QueryResultEncoder.Encoding.JSON,
+                QueryResultEncoder.select(MediaType.parseMediaTypes("application/cbor;q=0.5, application/json")));
+        assertEquals(QueryResultEncoder.Encoding.SMILE,
+                QueryResultEncoder.select(MediaType.parseMediaTypes("application/*;q=0.8, application/x-jackson-smile")));
+    }
+
+    private static StatisticsQueryResult queryResult(long count) {
+        return new StatisticsQueryResult(new BigDecimal("6.00"), new BigDecimal("2.00"), new BigDecimal("3.00"),
+                new BigDecimal("1.00"), count);
+    }
+}
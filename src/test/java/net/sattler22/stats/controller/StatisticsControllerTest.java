@@ -0,0 +1,229 @@
+package net.sattler22.stats.controller;
+
+import net.sattler22.stats.admission.AdmissionController;
+import net.sattler22.stats.advice.StatisticsControllerAdvice;
+import net.sattler22.stats.cluster.StatisticsCoordinator;
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.ingest.AsyncTransactionIngestor;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.stream.StatisticsStreamPublisher;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.accept.ContentNegotiationManager;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Real-Time Statistics Controller Unit Tests
+ * <p>
+ * The controller runs in a standalone MockMvc set up along with the controller advice, so every status code and
+ * header is produced the same way as in the application.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class StatisticsControllerTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final String STATISTICS_PATH = "/stats-api/v2/statistics";
+    private static final String TRANSACTIONS_PATH = "/stats-api/v2/transactions";
+    private static final String BATCH_PATH = "/stats-api/v2/transactions:batch";
+    private static final double RATE = 0.01;  //One transaction every 100 seconds, so the bucket never refills during a test
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(2);
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private StatisticsService statsService;
+    private StatisticsStreamPublisher streamPublisher;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void init() {
+        statsService = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL);
+        streamPublisher = new StatisticsStreamPublisher(statsService, jsonMapper, 1, 1, Duration.ofMinutes(1));
+        mockMvc = mockMvc(AdmissionController.UNLIMITED);
+        statsService.add(new StatisticsTransaction(BigDecimal.TEN, TestUtils.epoch()));
+    }
+
+    @AfterEach
+    void close() {
+        streamPublisher.close();
+    }
+
+    @Test
+    void testCollectStatisticsSuccessAsJson() throws Exception {
+        final MvcResult mvcResult = collectStatistics(MediaType.APPLICATION_JSON);
+        assertEquals(expectedQueryResult(), jsonMapper.readValue(mvcResult.getResponse().getContentAsByteArray(),
+                StatisticsQueryResult.class));
+    }
+
+    @Test
+    void testCollectStatisticsSuccessAsCbor() throws Exception {
+        final MvcResult mvcResult = collectStatistics(MediaType.APPLICATION_CBOR);
+        assertEquals(expectedQueryResult(), decode(CBORMapper.builder().build(), mvcResult));
+    }
+
+    @Test
+    void testCollectStatisticsSuccessAsSmile() throws Exception {
+        final MvcResult mvcResult = collectStatistics(QueryResultEncoder.APPLICATION_SMILE);
+        assertEquals(expectedQueryResult(), decode(SmileMapper.builder().build(), mvcResult));
+    }
+
+    @Test
+    void testCollectStatisticsSuccessWithEntityTagPerEncoding() throws Exception {
+        final String jsonETag = collectStatistics(MediaType.APPLICATION_JSON).getResponse().getHeader(HttpHeaders.ETAG);
+        final String cborETag = collectStatistics(MediaType.APPLICATION_CBOR).getResponse().getHeader(HttpHeaders.ETAG);
+        final String smileETag = collectStatistics(QueryResultEncoder.APPLICATION_SMILE).getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(jsonETag, cborETag);
+        assertNotEquals(jsonETag, smileETag);
+        assertNotEquals(cborETag, smileETag);
+    }
+
+    @Test
+    void testCollectStatisticsNotModified() throws Exception {
+        for (final MediaType mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, QueryResultEncoder.APPLICATION_SMILE)) {
+            final String eTag = collectStatistics(mediaType).getResponse().getHeader(HttpHeaders.ETAG);
+            mockMvc.perform(get(STATISTICS_PATH).accept(mediaType).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                   .andExpect(status().isNotModified())
+                   .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        }
+    }
+
+    @Test
+    void testCollectStatisticsSuccessWithPreferredEncoding() throws Exception {
+        mockMvc.perform(get(STATISTICS_PATH).header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get(STATISTICS_PATH).header(HttpHeaders.ACCEPT, "*/*"))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testCollectStatisticsFailsWhenEncodingIsNotAcceptable() throws Exception {
+        mockMvc.perform(get(STATISTICS_PATH).accept(MediaType.TEXT_PLAIN))
+               .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testAddTransactionRateLimited() throws Exception {
+        mockMvc = mockMvc(new AdmissionController(RATE, 1L, 0, RETRY_AFTER, false));
+        addTransaction().andExpect(status().isCreated());
+        addTransaction().andExpect(status().isTooManyRequests())
+                        .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertEquals(2L, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+
+    @Test
+    void testAddTransactionSaturated() throws Exception {
+        final AdmissionController admissionController = new AdmissionController(0.0, 0L, 1, RETRY_AFTER, false);
+        mockMvc = mockMvc(admissionController);
+        try (AdmissionController.Permit permit = admissionController.acquire(1L)) {
+            addTransaction().andExpect(status().isServiceUnavailable())
+                            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        }
+        addTransaction().andExpect(status().isCreated());
+    }
+
+    @Test
+    void testAddTransactionLossy() throws Exception {
+        mockMvc = mockMvc(new AdmissionController(RATE, 1L, 0, RETRY_AFTER, true));
+        addTransaction().andExpect(status().isCreated());
+        addTransaction().andExpect(status().isAccepted())
+                        .andExpect(header().doesNotExist(HttpHeaders.LOCATION));
+        assertEquals(3L, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+
+    @Test
+    void testAddTransactionsSuccess() throws Exception {
+        mockMvc = mockMvc(new AdmissionController(RATE, 3L, 0, RETRY_AFTER, false));
+        final String transaction = transactionJson();
+        mockMvc.perform(post(BATCH_PATH).contentType(MediaType.APPLICATION_JSON)
+                                        .content(String.join(",", "[" + transaction, transaction, transaction + "]")))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.accepted").value(3));
+        assertEquals(4L, statsService.collect(2, RoundingMode.HALF_UP).count());
+        addTransaction().andExpect(status().isTooManyRequests());  //Charged the whole batch
+    }
+
+    @Test
+    void testAddTransactionsRateLimitedBeforeReading() throws Exception {
+        mockMvc = mockMvc(new AdmissionController(RATE, 1L, 0, RETRY_AFTER, false));
+        addTransaction().andExpect(status().isCreated());
+        //Malformed, so only a batch that is read would be answered with a 400 (Bad Request):
+        mockMvc.perform(post(BATCH_PATH).contentType(MediaType.APPLICATION_JSON).content("[{"))
+               .andExpect(status().isTooManyRequests())
+               .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testAddTransactionsExceedsBurst() throws Exception {
+        mockMvc = mockMvc(new AdmissionController(RATE, 1L, 0, RETRY_AFTER, false));
+        final String transaction = transactionJson();
+        mockMvc.perform(post(BATCH_PATH).contentType(MediaType.APPLICATION_JSON).content("[" + transaction + "," + transaction + "]"))
+               .andExpect(status().is(HttpStatus.CONTENT_TOO_LARGE.value()));
+        assertEquals(1L, statsService.collect(2, RoundingMode.HALF_UP).count());
+        addTransaction().andExpect(status().isCreated());  //The rejected batch was refunded, so the bucket is still full
+    }
+
+    private MockMvc mockMvc(AdmissionController admissionController) {
+        final StatisticsController controller = new StatisticsController(statsService, jsonMapper, streamPublisher,
+                new StatisticsCoordinator(statsService, List.of(), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                admissionController, new StaticListableBeanFactory().getBeanProvider(AsyncTransactionIngestor.class),
+                new ContentNegotiationManager());
+        return MockMvcBuilders.standaloneSetup(controller)
+                              .setControllerAdvice(new StatisticsControllerAdvice())
+                              .build();
+    }
+
+    private ResultActions addTransaction() throws Exception {
+        return mockMvc.perform(post(TRANSACTIONS_PATH).contentType(MediaType.APPLICATION_JSON).content(transactionJson()));
+    }
+
+    private static String transactionJson() {
+        return String.format("{\"amount\": 10, \"timestamp\": %d}", TestUtils.epoch());
+    }
+
+    private MvcResult collectStatistics(MediaType mediaType) throws Exception {
+        return mockMvc.perform(get(STATISTICS_PATH).accept(mediaType))
+                      .andExpect(status().isOk())
+                      .andExpect(content().contentType(mediaType))
+                      .andExpect(header().exists(HttpHeaders.ETAG))
+                      .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                      .andReturn();
+    }
+
+    private StatisticsQueryResult expectedQueryResult() {
+        return statsService.collect(2, RoundingMode.HALF_UP);
+    }
+
+    private static StatisticsQueryResult decode(ObjectMapper mapper, MvcResult mvcResult) {
+        return mapper.readValue(mvcResult.getResponse().getContentAsByteArray(), StatisticsQueryResult.class);
+    }
+}
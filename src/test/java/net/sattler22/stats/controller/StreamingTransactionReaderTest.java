@@ -0,0 +1,95 @@
+package net.sattler22.stats.controller;
+
+import jakarta.validation.ValidationException;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Real-Time Statistics Streaming Transaction Reader Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class StreamingTransactionReaderTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(5);
+    private static final int CHUNK_SIZE = 2;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private StatisticsService statsService;
+
+    @BeforeEach
+    void init() {
+        statsService = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL);
+    }
+
+    @Test
+    void testReadSuccessAcrossSeveralChunks() {
+        final long now = TestUtils.epoch();
+        final String body = String.format("""
+                {"amount": 1.5, "timestamp": %1$d}
+                {"timestamp": %1$d, "amount": "2.5"}
+                {"amount": 3, "timestamp": %2$d}
+                {"amount": 4, "timestamp": %1$d, "ignored": {"nested": [1, 2]}}
+                {"amount": 5, "timestamp": %1$d}
+                """, now, now - EXPIRY_INTERVAL.toSeconds() - 1L);
+        final StatisticsBatchResult result = new StreamingTransactionReader(statsService, CHUNK_SIZE).read(jsonMapper, toStream(body));
+        assertEquals(new StatisticsBatchResult(4L, 1L), result);
+        assertEquals(4L, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+
+    @Test
+    void testReadSuccessWithKeys() {
+        final long now = TestUtils.epoch();
+        final String body = String.format("""
+                {"amount": 1, "timestamp": %1$d, "key": "EUR"}
+                {"amount": 2, "timestamp": %1$d}
+                {"amount": 3, "timestamp": %1$d, "key": "EUR"}
+                {"amount": 4, "timestamp": %1$d, "key": null}
+                {"amount": 5, "timestamp": %1$d, "key": "USD"}
+                """, now);
+        final StatisticsBatchResult result = new StreamingTransactionReader(statsService, CHUNK_SIZE).read(jsonMapper, toStream(body));
+        assertEquals(new StatisticsBatchResult(5L, 0L), result);
+        assertEquals(2L, statsService.collect("EUR", 2, RoundingMode.HALF_UP).count());
+        assertEquals(1L, statsService.collect("USD", 2, RoundingMode.HALF_UP).count());
+        assertEquals(5L, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+
+    @Test
+    void testReadFailsWhenKeyIsBlank() {
+        final String body = String.format("{\"amount\": 1, \"timestamp\": %d, \"key\": \" \"}%n", TestUtils.epoch());
+        final StreamingTransactionReader reader = new StreamingTransactionReader(statsService, CHUNK_SIZE);
+        assertThrows(ValidationException.class, () -> reader.read(jsonMapper, toStream(body)));
+    }
+
+    @Test
+    void testReadFailsWhenAmountIsMissing() {
+        final String body = String.format("{\"timestamp\": %d}%n", TestUtils.epoch());
+        final StreamingTransactionReader reader = new StreamingTransactionReader(statsService, CHUNK_SIZE);
+        assertThrows(ValidationException.class, () -> reader.read(jsonMapper, toStream(body)));
+    }
+
+    @Test
+    void testReadFailsWhenAmountIsNotANumber() {
+        final String body = String.format("{\"amount\": \"abc\", \"timestamp\": %d}%n", TestUtils.epoch());
+        final StreamingTransactionReader reader = new StreamingTransactionReader(statsService, CHUNK_SIZE);
+        assertThrows(ValidationException.class, () -> reader.read(jsonMapper, toStream(body)));
+    }
+
+    private static InputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
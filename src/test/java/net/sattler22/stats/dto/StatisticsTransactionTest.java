@@ -7,7 +7,9 @@ import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -16,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  *
  * @author Pete Sattler
  * @since March 2022
- * @version November 2025
+ * @version October 2026
  */
 final class StatisticsTransactionTest {
 
@@ -38,11 +40,35 @@ final class StatisticsTransactionTest {
         assertTrue(transaction.isExpired(Math.negateExact(EXPIRY_INTERVAL_SECS)));
     }
 
+    @Test
+    void testSuccessWhenIdsAreUnique() {
+        final StatisticsTransaction transaction1 = new StatisticsTransaction(AMOUNT, TIMESTAMP);
+        final StatisticsTransaction transaction2 = new StatisticsTransaction(AMOUNT, TIMESTAMP);
+        assertNotEquals(transaction1.id(), transaction2.id());
+        assertNotEquals(transaction1, transaction2);
+        assertEquals(transaction1.id(), transaction1.id());
+    }
+
     @Test
     void testFailsWhenAmountIsNull() {
         assertThrows(NullPointerException.class, () -> new StatisticsTransaction(null, TIMESTAMP));
     }
 
+    @Test
+    void testSuccessWithKey() {
+        final StatisticsTransaction transaction = new StatisticsTransaction(AMOUNT, TIMESTAMP, "EUR");
+        assertSuccessMandatoryFields(transaction);
+        assertEquals("EUR", transaction.key());
+        assertNull(new StatisticsTransaction(AMOUNT, TIMESTAMP).key());
+    }
+
+    @Test
+    void testFailsWhenKeyIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new StatisticsTransaction(AMOUNT, TIMESTAMP, " "));
+        final String longKey = "k".repeat(StatisticsTransaction.MAX_KEY_LENGTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> new StatisticsTransaction(AMOUNT, TIMESTAMP, longKey));
+    }
+
     private static void assertSuccessMandatoryFields(final StatisticsTransaction transaction) {
         assertNotNull(transaction.id());
         assertEquals(AMOUNT, transaction.amount());
@@ -0,0 +1,123 @@
+package net.sattler22.stats.ingest;
+
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.ingest.AsyncTransactionIngestor.WaitStrategy;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.service.StatisticsServiceImpl;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asynchronous Transaction Ingestor Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class AsyncTransactionIngestorTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+    private static final int PUBLISHER_COUNT = 4;
+    private static final int TRANSACTIONS_PER_PUBLISHER = 5_000;
+    private static final Duration CLOSE_RACE_WAIT = Duration.ofMillis(200);
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    void testCloseDrainsEveryPublishedTransaction(WaitStrategy waitStrategy) throws InterruptedException {
+        final StatisticsService statsService = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        final long now = TestUtils.epoch();
+        final AsyncTransactionIngestor ingestor = new AsyncTransactionIngestor(statsService, StatisticsMetricsRecorder.NOOP,
+                32_768, 256, waitStrategy, DRAIN_TIMEOUT);
+        final List<Thread> publishers = new ArrayList<>();
+        for (int i = 0; i < PUBLISHER_COUNT; i++)
+            publishers.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < TRANSACTIONS_PER_PUBLISHER; j++)
+                    assertTrue(ingestor.publish(new StatisticsTransaction(BigDecimal.ONE, now)));
+            }));
+        for (final Thread publisher : publishers)
+            publisher.join();
+        ingestor.close();
+        assertEquals(0L, ingestor.queueDepth());
+        assertEquals((long) PUBLISHER_COUNT * TRANSACTIONS_PER_PUBLISHER, statsService.collect(2, RoundingMode.HALF_UP).count());
+        assertFalse(ingestor.publish(new StatisticsTransaction(BigDecimal.ONE, now)));
+        assertEquals(1L, ingestor.rejectedCount());
+    }
+
+    @Test
+    void testCloseDrainsTransactionPublishedWhileClosing() throws InterruptedException {
+        final StatisticsService statsService = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        final CountDownLatch claiming = new CountDownLatch(1);
+        final CountDownLatch claim = new CountDownLatch(1);
+        final AtomicBoolean firstRead = new AtomicBoolean(true);
+        //Holds the publisher after it has seen the ingestor accepting, but before it claims its slot:
+        final LongSupplier nanoTime = () -> {
+            if (firstRead.compareAndSet(true, false)) {
+                claiming.countDown();
+                awaitUninterruptibly(claim);
+            }
+            return System.nanoTime();
+        };
+        final AsyncTransactionIngestor ingestor = new AsyncTransactionIngestor(statsService, StatisticsMetricsRecorder.NOOP,
+                1_024, 64, WaitStrategy.BLOCKING, DRAIN_TIMEOUT, nanoTime);
+        final AtomicBoolean published = new AtomicBoolean();
+        final Thread publisher = Thread.ofPlatform().start(() ->
+                published.set(ingestor.publish(new StatisticsTransaction(BigDecimal.ONE, TestUtils.epoch()))));
+        claiming.await();
+        final Thread closer = Thread.ofPlatform().start(ingestor::close);
+        closer.join(CLOSE_RACE_WAIT);  //Long enough for a writer that ignores the publisher to see an empty ring and exit
+        claim.countDown();
+        publisher.join();
+        closer.join();
+        assertTrue(published.get());
+        assertEquals(1L, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+
+    @Test
+    void testPublishFailsWhenRingBufferIsFull() {
+        final IngestRingBuffer ringBuffer = new IngestRingBuffer(4);
+        for (int i = 0; i < ringBuffer.capacity(); i++)
+            assertTrue(ringBuffer.tryPublish(i, BigDecimal.ONE, null, System.nanoTime()));
+        assertFalse(ringBuffer.tryPublish(4L, BigDecimal.ONE, null, System.nanoTime()));
+        final long[] timestamps = new long[2];
+        final BigDecimal[] amounts = new BigDecimal[2];
+        final String[] keys = new String[2];
+        assertEquals(2, ringBuffer.drainTo(timestamps, amounts, keys, 2));
+        assertEquals(0L, timestamps[0]);
+        assertEquals(1L, timestamps[1]);
+        assertEquals(2L, ringBuffer.depth());
+        assertTrue(ringBuffer.tryPublish(4L, BigDecimal.ONE, null, System.nanoTime()));
+    }
+
+    @Test
+    void testBufferSizeMustBePowerOfTwo() {
+        final StatisticsService statsService = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        assertThrows(IllegalArgumentException.class, () -> new AsyncTransactionIngestor(statsService,
+                StatisticsMetricsRecorder.NOOP, 1_000, 100, WaitStrategy.BLOCKING, DRAIN_TIMEOUT));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package net.sattler22.stats.journal;
+
+import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Real-Time Statistics Memory-Mapped Transaction Journal Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class MappedTransactionJournalTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final long SEGMENT_SIZE = 4 * MappedTransactionJournal.SLOT_SIZE;
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testRecoverRestoresStatistics() {
+        final long now = TestUtils.epoch();
+        final StatisticsService original;
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            original = newService(journal);
+            journal.recover(original::addAll);
+            original.add(new StatisticsTransaction(new BigDecimal("10.25"), now));
+            original.add(new StatisticsTransaction(new BigDecimal("-3"), now - 5L, "EUR"));
+            original.add(new StatisticsTransaction(new BigDecimal("123456789012345678901234567890.123"), now, "USD"));
+            original.add(new StatisticsTransaction(new BigDecimal("7.5"), now - 1L));
+            original.add(new StatisticsTransaction(new BigDecimal("1"), now - 2L));
+            journal.flush();
+        }
+        final StatisticsService recovered;
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            recovered = newService(journal);
+            assertEquals(5L, journal.recover(recovered::addAll));
+        }
+        assertEquals(original.collect(2, RoundingMode.HALF_UP), recovered.collect(2, RoundingMode.HALF_UP));
+        assertEquals(original.collect("EUR", 2, RoundingMode.HALF_UP), recovered.collect("EUR", 2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void testRecoverStopsAtTornRecord() throws IOException {
+        final long now = TestUtils.epoch();
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            journal.recover((timestamps, amounts, keys, length) -> { });
+            journal.append(now, new BigDecimal("1.5"), null);
+            journal.append(now, new BigDecimal("2.5"), null);
+            journal.append(now, new BigDecimal("3.5"), null);
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(segmentPaths().getFirst().toFile(), "rw")) {
+            segment.seek(MappedTransactionJournal.SLOT_SIZE + 8L);  //Corrupt the timestamp of the second record
+            segment.writeLong(0L);
+        }
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            final StatisticsService recovered = newService(journal);
+            assertEquals(1L, journal.recover(recovered::addAll));
+            final StatisticsQueryResult queryResult = recovered.collect(2, RoundingMode.HALF_UP);
+            assertEquals(new BigDecimal("1.5"), queryResult.sum());
+        }
+    }
+
+    @Test
+    void testRecoverDeletesExpiredSegments() throws IOException {
+        final long now = TestUtils.epoch();
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            journal.recover((timestamps, amounts, keys, length) -> { });
+            for (int i = 0; i < 5; i++)  //Fills the first segment
+                journal.append(now - EXPIRY_INTERVAL.toSeconds() - 10L, BigDecimal.ONE, null);
+        }
+        assertEquals(2, segmentPaths().size());
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            assertEquals(0L, journal.recover((timestamps, amounts, keys, length) -> { }));
+            assertEquals(1, journal.segmentCount());
+        }
+        assertEquals(1, segmentPaths().size());
+    }
+
+    @Test
+    void testRecoverTwice() {
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            journal.recover((timestamps, amounts, keys, length) -> { });
+            assertThrows(IllegalStateException.class, () -> journal.recover((timestamps, amounts, keys, length) -> { }));
+        }
+    }
+
+    @Test
+    void testAppendBeforeRecover() {
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            assertThrows(IllegalStateException.class, () -> journal.append(TestUtils.epoch(), BigDecimal.ONE, null));
+        }
+    }
+
+    @Test
+    void testRecoverConcurrentAppends() throws InterruptedException {
+        final long now = TestUtils.epoch();
+        final int threadCount = 4;
+        final int appendsPerThread = 100;
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            journal.recover((timestamps, amounts, keys, length) -> { });
+            final List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++)
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int j = 0; j < appendsPerThread; j++)
+                        journal.append(now, BigDecimal.ONE, j % 2 == 0 ? null : "EUR");
+                }));
+            for (final Thread thread : threads)
+                thread.join();
+            journal.flush();
+        }
+        try (MappedTransactionJournal journal = new MappedTransactionJournal(directory, EXPIRY_INTERVAL, SEGMENT_SIZE)) {
+            final StatisticsService recovered = newService(journal);
+            assertEquals(threadCount * appendsPerThread, journal.recover(recovered::addAll));
+            assertEquals(BigDecimal.valueOf(threadCount * appendsPerThread), recovered.collect(0, RoundingMode.HALF_UP).sum());
+        }
+    }
+
+    private static StatisticsService newService(TransactionJournal journal) {
+        return new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL, 1, StatisticsService.DECIMAL_ARITHMETIC,
+                StatisticsMetricsRecorder.NOOP, journal);
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.sorted().toList();
+        }
+    }
+}
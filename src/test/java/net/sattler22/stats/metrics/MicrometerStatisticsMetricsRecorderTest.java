@@ -0,0 +1,66 @@
+package net.sattler22.stats.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.exception.ExpirationException;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Real-Time Statistics Micrometer Metrics Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class MicrometerStatisticsMetricsRecorderTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(5);
+    private static final int STRIPES = 2;
+    private MeterRegistry meterRegistry;
+    private StatisticsService statsService;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        statsService = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL, STRIPES, StatisticsService.DECIMAL_ARITHMETIC,
+                new MicrometerStatisticsMetricsRecorder(meterRegistry));
+        new StatisticsServiceMeterBinder(statsService).bindTo(meterRegistry);
+    }
+
+    @Test
+    void testSuccessServiceOperationsAreTimed() {
+        statsService.add(new StatisticsTransaction(BigDecimal.TEN, TestUtils.epoch()));
+        statsService.collect(2, RoundingMode.HALF_UP);
+        statsService.removeIfExpired();
+        assertEquals(1L, meterRegistry.get("stats.service.add").timer().count());
+        assertEquals(1L, meterRegistry.get("stats.service.collect").timer().count());
+        assertEquals(1L, meterRegistry.get("stats.service.remove-if-expired").timer().count());
+    }
+
+    @Test
+    void testSuccessExpiredTransactionsAreCounted() {
+        final StatisticsTransaction expiredTransaction =
+                new StatisticsTransaction(BigDecimal.TEN, TestUtils.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L);
+        assertThrows(ExpirationException.class, () -> statsService.add(expiredTransaction));
+        assertEquals(1.0, meterRegistry.get("stats.service.transactions.expired").counter().count());
+    }
+
+    @Test
+    void testSuccessGaugesTrackRetainedTransactions() {
+        statsService.add(new StatisticsTransaction(BigDecimal.ONE, TestUtils.epoch()));
+        statsService.add(new StatisticsTransaction(BigDecimal.ONE, TestUtils.epoch()));
+        assertEquals(2.0, meterRegistry.get("stats.service.transactions.retained").gauge().value());
+        assertEquals(STRIPES, meterRegistry.get("stats.service.stripe.buckets.occupied").gauges().size());
+    }
+}
@@ -0,0 +1,95 @@
+package net.sattler22.stats.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Mergeable Distribution Sketch Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class DistributionSketchTest {
+
+    private static final double[] QUANTILES = { 0.0, 0.01, 0.25, 0.5, 0.75, 0.95, 0.99, 1.0 };
+
+    @Test
+    void testQuantilesAreWithinRelativeAccuracy() {
+        final Random random = new Random(42L);
+        final double[] values = new double[10_000];
+        final DistributionSketch sketch = new DistributionSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (random.nextDouble() - 0.25) * 1_000.0;  //Negative, positive and (rounded) zero amounts
+            if (i % 100 == 0)
+                values[i] = 0.0;
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (final double quantile : QUANTILES) {
+            final double expected = values[(int) Math.floor(quantile * (values.length - 1))];
+            assertEquals(expected, sketch.quantile(quantile), Math.abs(expected) * DistributionSketch.RELATIVE_ACCURACY);
+        }
+    }
+
+    @Test
+    void testMomentsMatchTwoPassCalculation() {
+        final double[] values = { 1.9, 0.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0 };
+        final DistributionSketch sketch = new DistributionSketch();
+        Arrays.stream(values).forEach(sketch::add);
+        final double mean = Arrays.stream(values).average().orElseThrow();
+        final double variance = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum() / values.length;
+        assertEquals(variance, sketch.variance(), 1e-12);
+    }
+
+    @Test
+    void testMergeMatchesSingleSketch() {
+        final Random random = new Random(7L);
+        final DistributionSketch single = new DistributionSketch();
+        final DistributionSketch[] parts = { new DistributionSketch(), new DistributionSketch(), new DistributionSketch() };
+        for (int i = 0; i < 5_000; i++) {
+            final double value = Math.exp(random.nextGaussian() * 3.0) - 1.0;
+            single.add(value);
+            parts[random.nextInt(parts.length)].add(value);
+        }
+        final DistributionSketch merged = new DistributionSketch();
+        for (final DistributionSketch part : parts)
+            merged.merge(part);
+        assertEquals(single.count(), merged.count());
+        assertEquals(single.variance(), merged.variance(), single.variance() * 1e-9);
+        for (final double quantile : QUANTILES)
+            assertEquals(single.quantile(quantile), merged.quantile(quantile));
+    }
+
+    @Test
+    void testCollapsingKeepsHighQuantiles() {
+        final DistributionSketch sketch = new DistributionSketch();
+        for (int exponent = -200; exponent <= 200; exponent++)
+            sketch.add(Math.pow(10.0, exponent / 5.0));  //Eighty orders of magnitude
+        assertEquals(1e40, sketch.quantile(1.0));
+        assertEquals(Math.pow(10.0, 39.2), sketch.quantile(0.99), Math.pow(10.0, 39.2) * DistributionSketch.RELATIVE_ACCURACY);
+        assertEquals(1e-40, sketch.quantile(0.0));
+    }
+
+    @Test
+    void testResetSuccess() {
+        final DistributionSketch sketch = new DistributionSketch();
+        sketch.add(1_000.0);
+        sketch.add(-1_000.0);
+        sketch.reset();
+        assertEquals(0L, sketch.count());
+        assertEquals(0.0, sketch.quantile(0.5));
+        sketch.add(5.0);
+        assertEquals(5.0, sketch.quantile(0.5));
+        assertEquals(0.0, sketch.variance());
+    }
+
+    @Test
+    void testQuantileFailsWhenOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new DistributionSketch().quantile(1.5));
+    }
+}
@@ -0,0 +1,82 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.test.util.TestEngines;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Event-Time Ingestion Policy Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class EventTimePolicyTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration ALLOWED_LATENESS = Duration.ofSeconds(10);
+    private static final Duration ALLOWED_SKEW = Duration.ofSeconds(2);
+    private static final long NOW = 1_800_000_000L;
+
+    @Test
+    void testAdmit() {
+        final EventTimePolicy policy = new EventTimePolicy(EXPIRY_INTERVAL, ALLOWED_LATENESS, ALLOWED_SKEW);
+        assertTrue(policy.admit(NOW - 10L, NOW));
+        assertTrue(policy.admit(NOW + 2L, NOW));
+        assertFalse(policy.admit(NOW - 11L, NOW));
+        assertFalse(policy.admit(NOW + 3L, NOW));
+        assertEquals(1L, policy.lateCount());
+        assertEquals(1L, policy.futureCount());
+    }
+
+    @Test
+    void testWatermarkNeverMovesBackwards() {
+        final EventTimePolicy policy = new EventTimePolicy(EXPIRY_INTERVAL, ALLOWED_LATENESS, ALLOWED_SKEW);
+        assertEquals(NOW - 10L, policy.advance(NOW));
+        assertEquals(NOW - 10L, policy.advance(NOW - 5L));  //The clock stepped back
+        assertFalse(policy.admit(NOW - 12L, NOW - 5L));
+        assertEquals(NOW - 10L, policy.watermark());
+    }
+
+    @Test
+    void testAllowedLatenessExceedsExpiryInterval() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventTimePolicy(EXPIRY_INTERVAL, EXPIRY_INTERVAL.plusSeconds(1), ALLOWED_SKEW));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Engine.class)
+    void testLateAndFutureTransactionsAreCounted(Engine engine) {
+        final EventTimePolicy policy = new EventTimePolicy(EXPIRY_INTERVAL, ALLOWED_LATENESS, ALLOWED_SKEW);
+        final StatisticsService statsService = TestEngines.newService(engine, EXPIRY_INTERVAL, 4,
+                StatisticsService.DECIMAL_ARITHMETIC, policy, Clock.systemUTC(), false);
+        final long now = TestUtils.epoch();
+        assertTrue(statsService.add(new StatisticsTransaction(BigDecimal.ONE, now)));
+        assertFalse(statsService.add(new StatisticsTransaction(BigDecimal.ONE, now - 30L)));  //Late, but not expired
+        assertFalse(statsService.add(new StatisticsTransaction(BigDecimal.ONE, now + 30L)));  //Future
+        final StatisticsBatchResult batchResult = statsService.addAll(List.of(
+                new StatisticsTransaction(BigDecimal.TWO, now),
+                new StatisticsTransaction(BigDecimal.TWO, now - 30L),
+                new StatisticsTransaction(BigDecimal.TWO, now + 30L),
+                new StatisticsTransaction(BigDecimal.TWO, now + 3_600L)));
+        assertEquals(new StatisticsBatchResult(1L, 1L, 2L), batchResult);
+        assertEquals(2L, statsService.collect(2, RoundingMode.HALF_UP).count());
+        assertEquals(2L, policy.lateCount());
+        assertEquals(3L, policy.futureCount());
+    }
+}
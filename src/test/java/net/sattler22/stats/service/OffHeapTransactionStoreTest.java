@@ -0,0 +1,82 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Off-Heap Transaction Store Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class OffHeapTransactionStoreTest {
+
+    private static final long NOW = 1_800_000_000L;
+    private final OffHeapTransactionStore store = new OffHeapTransactionStore();
+
+    @Test
+    void testCollectMatchesOnHeapSegments() {
+        final TransactionSegments segments = new TransactionSegments(StatisticsService.DECIMAL_ARITHMETIC, true);
+        final BigDecimal[] amounts = {
+                new BigDecimal("12.30"), new BigDecimal("-0.001"), new BigDecimal("1E+3"),
+                new BigDecimal("123456789012345678901234567890.5"), new BigDecimal("7")
+        };
+        for (int i = 0; i < amounts.length; i++) {
+            final StatisticsTransaction transaction = new StatisticsTransaction(amounts[i], NOW - i);
+            store.add(transaction);
+            segments.add(transaction);
+        }
+        final StatisticsAccumulator expected = new StatisticsAccumulator();
+        segments.collect(expected, NOW - 3L);
+        final StatisticsAccumulator actual = new StatisticsAccumulator();
+        store.collect(actual, NOW - 3L);
+        assertEquals(expected.toQueryResult(2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE),
+                actual.toQueryResult(2, RoundingMode.HALF_UP, StatisticsQueryOptions.NONE));
+    }
+
+    @Test
+    void testEvictExpiredFreesWholeChunks() {
+        for (int i = 0; i < OffHeapTransactionStore.CHUNK_CAPACITY; i++)
+            store.add(new StatisticsTransaction(BigDecimal.ONE, NOW - 10L));
+        store.add(new StatisticsTransaction(BigDecimal.TEN, NOW));
+        assertEquals(2L * OffHeapTransactionStore.CHUNK_CAPACITY * 16, store.offHeapBytes());
+        assertEquals(OffHeapTransactionStore.CHUNK_CAPACITY, store.evictExpired(NOW - 5L));
+        assertEquals(1L, store.retainedCount());
+        assertEquals(OffHeapTransactionStore.CHUNK_CAPACITY * 16L, store.offHeapBytes());
+    }
+
+    @Test
+    void testEvictExpiredCompactsStraddlingChunk() {
+        store.add(new StatisticsTransaction(BigDecimal.ONE, NOW - 10L));
+        store.add(new StatisticsTransaction(BigDecimal.TWO, NOW));
+        store.add(new StatisticsTransaction(new BigDecimal("1234567890123456789012345"), NOW - 10L));
+        assertEquals(2L, store.evictExpired(NOW - 5L));
+        assertEquals(1L, store.retainedCount());
+        assertTrue(store.hasTransactions(NOW - 5L));
+        final StatisticsAccumulator accumulator = new StatisticsAccumulator();
+        store.collect(accumulator, NOW - 5L);
+        assertEquals(BigDecimal.TWO, accumulator.sum());
+        assertEquals(1L, store.evictExpired(NOW + 1L));
+        assertFalse(store.hasTransactions(NOW + 1L));
+        assertEquals(0L, store.offHeapBytes());
+    }
+
+    @Test
+    void testEvictExpiredLateTransactionInNewerChunk() {
+        for (int i = 0; i < OffHeapTransactionStore.CHUNK_CAPACITY; i++)
+            store.add(new StatisticsTransaction(BigDecimal.ONE, NOW));
+        store.add(new StatisticsTransaction(BigDecimal.TEN, NOW - 10L));  //Late, so it lands in the second chunk
+        assertEquals(0L, store.evictExpired(NOW - 20L));
+        assertEquals(1L, store.evictExpired(NOW - 5L));
+        assertEquals(OffHeapTransactionStore.CHUNK_CAPACITY, store.retainedCount());
+        assertEquals(0L, store.evictExpired(NOW - 5L));
+    }
+}
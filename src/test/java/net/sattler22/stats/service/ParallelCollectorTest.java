@@ -0,0 +1,74 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.StatisticsQueryOptions;
+import net.sattler22.stats.dto.StatisticsTransaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Real-Time Statistics Parallel Fork-Join Collector Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class ParallelCollectorTest {
+
+    private static final long NOW = 1_800_000_000L;
+    private static final int TRANSACTION_COUNT = 50_000;
+    private static final int MAX_INPUT_SCALE = 4;
+    private static final StatisticsQueryOptions QUERY_OPTIONS = new StatisticsQueryOptions(false, List.of(50.0, 99.0));
+
+    @Test
+    void testIsParallel() {
+        try (ParallelCollector parallelCollector = new ParallelCollector(2, 100L, MAX_INPUT_SCALE, true)) {
+            assertFalse(parallelCollector.isParallel(99L));
+            assertTrue(parallelCollector.isParallel(100L));
+        }
+    }
+
+    @Test
+    void testCollectSegmentsMatchesSequential() {
+        for (final int maxInputScale : new int[] { StatisticsService.DECIMAL_ARITHMETIC, MAX_INPUT_SCALE })
+            assertMatchesSequential(new TransactionSegments(maxInputScale, true), maxInputScale);
+    }
+
+    @Test
+    void testCollectOffHeapMatchesSequential() {
+        for (final int maxInputScale : new int[] { StatisticsService.DECIMAL_ARITHMETIC, MAX_INPUT_SCALE }) {
+            final OffHeapTransactionStore store = new OffHeapTransactionStore();
+            assertMatchesSequential(store, maxInputScale);
+            store.evictExpired(Long.MAX_VALUE);
+        }
+    }
+
+    private static void assertMatchesSequential(TransactionStore store, int maxInputScale) {
+        final Random random = new Random(42L);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            //Mix of scales (including ties between equal amounts of different scales) and a few huge amounts:
+            final BigDecimal amount = i % 997 == 0 ?
+                    new BigDecimal("123456789012345678901234567890.12345") :
+                    BigDecimal.valueOf(random.nextInt(2_000_000) - 1_000_000L, random.nextInt(6));
+            store.add(new StatisticsTransaction(amount, NOW - random.nextInt(60)));
+        }
+        final StatisticsAccumulator expected = new StatisticsAccumulator(maxInputScale);
+        store.collect(expected, NOW - 30L);
+        final StatisticsAccumulator actual = new StatisticsAccumulator(maxInputScale);
+        try (ParallelCollector parallelCollector = new ParallelCollector(4, 1L, maxInputScale, true)) {
+            store.collect(actual, NOW - 30L, parallelCollector);
+        }
+        for (final RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY)
+                continue;
+            assertEquals(expected.toQueryResult(2, roundingMode, QUERY_OPTIONS),
+                    actual.toQueryResult(2, roundingMode, QUERY_OPTIONS), roundingMode.name());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package net.sattler22.stats.service;
+
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Real-Time Statistics Service Allocation Unit Tests
+ * <p>
+ * Uses the HotSpot per-thread allocation counter to make sure the bucketed ingestion path does not allocate on
+ * every transaction (no identifiers, stop watches or log messages).
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class StatisticsServiceAllocationTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(60);
+    private static final int MAX_INPUT_SCALE = 4;
+    private static final int WARM_UP_COUNT = 200_000;
+    private static final int MEASURED_COUNT = 100_000;
+    private static final long MAX_BYTES_PER_ADD = 16L;
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    @BeforeAll
+    static void init() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "HotSpot thread allocation counter is not available");
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "Thread allocated memory is not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void testAddAllocatesNearlyNothingWithScaledLongBuckets() {
+        final StatisticsService statsService = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL, 1, MAX_INPUT_SCALE);
+        final StatisticsTransaction[] transactions = new StatisticsTransaction[1_024];
+        for (int i = 0; i < transactions.length; i++)
+            transactions[i] = new StatisticsTransaction(new BigDecimal("12.34"), TestUtils.epoch());
+        for (int i = 0; i < WARM_UP_COUNT; i++)  //Let the JIT compile the ingestion path
+            statsService.add(transactions[i % transactions.length]);
+        final long threadId = Thread.currentThread().threadId();
+        final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_COUNT; i++)
+            statsService.add(transactions[i % transactions.length]);
+        final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        final long bytesPerAdd = allocatedBytes / MEASURED_COUNT;
+        assertTrue(bytesPerAdd <= MAX_BYTES_PER_ADD, String.format("Allocated %d bytes per add", bytesPerAdd));
+        assertEquals(WARM_UP_COUNT + MEASURED_COUNT, statsService.collect(2, RoundingMode.HALF_UP).count());
+    }
+}
@@ -1,44 +1,79 @@
 package net.sattler22.stats.service;
 
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.config.StatisticsServiceProperties.NumericMode;
+import net.sattler22.stats.dto.KeyedStatisticsResult;
+import net.sattler22.stats.dto.StatisticsBatchResult;
+import net.sattler22.stats.dto.StatisticsQueryOptions;
 import net.sattler22.stats.dto.StatisticsQueryResult;
+import net.sattler22.stats.dto.StatisticsSeriesPoint;
 import net.sattler22.stats.dto.StatisticsTransaction;
 import net.sattler22.stats.exception.ExpirationException;
-import net.sattler22.stats.test.util.TestUtils;
-import org.awaitility.Awaitility;
+import net.sattler22.stats.test.util.ManualClock;
+import net.sattler22.stats.test.util.TestEngines;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static java.math.BigDecimal.ONE;
 import static java.math.BigDecimal.TEN;
 import static java.math.BigDecimal.ZERO;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Real-Time Statistics Service Unit Tests
  *
  * @author Pete Sattler
  * @since July 2018
- * @version November 2025
+ * @version October 2026
  */
+@ParameterizedClass
+@MethodSource("engines")
 final class StatisticsServiceTest {
 
     private static final BigDecimal AMOUNT = BigDecimal.TEN;
     private static final int CALC_SCALE = 9;
     private static final RoundingMode CALC_ROUNDING_MODE= RoundingMode.HALF_UP;
     private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(5);
+    private static final int STRIPES = 4;
+    private static final int MAX_INPUT_SCALE = 4;
+    private final Engine engine;
+    private final NumericMode numericMode;
+    private final ManualClock clock = new ManualClock();
     private StatisticsService statsService;
 
+    StatisticsServiceTest(Engine engine, NumericMode numericMode) {
+        this.engine = engine;
+        this.numericMode = numericMode;
+    }
+
+    /**
+     * Every engine in every numeric mode
+     */
+    static Stream<Arguments> engines() {
+        return Arrays.stream(Engine.values())
+                     .flatMap(engine -> Arrays.stream(NumericMode.values()).map(numericMode -> Arguments.of(engine, numericMode)));
+    }
+
     @BeforeEach
     void init() {
-        statsService = new StatisticsServiceImpl(EXPIRY_INTERVAL);
+        statsService = TestEngines.newService(engine, EXPIRY_INTERVAL, STRIPES,
+                TestEngines.maxInputScale(numericMode, MAX_INPUT_SCALE), null, clock, true);
     }
 
     @Test
@@ -47,6 +82,34 @@ final class StatisticsServiceTest {
         assertEquals(1L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
     }
 
+    @Test
+    void testAddTransactionSuccessWithConcurrentThreads() throws InterruptedException {
+        final int threadCount = 8;
+        final int transactionsPerThread = 1_000;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+            threads[i] = Thread.ofPlatform().start(() -> addTransactionImpl(AMOUNT, transactionsPerThread));
+        for (final Thread thread : threads)
+            thread.join();
+        final long expectedCount = (long) threadCount * transactionsPerThread;
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(AMOUNT.multiply(BigDecimal.valueOf(expectedCount)), TEN, TEN, TEN, expectedCount, queryResult);
+    }
+
+    @Test
+    void testAddTransactionSuccessWithConcurrentVirtualThreads() throws InterruptedException {
+        final int threadCount = 1_000;
+        final int transactionsPerThread = 10;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+            threads[i] = Thread.ofVirtual().start(() -> addTransactionImpl(AMOUNT, transactionsPerThread));
+        for (final Thread thread : threads)
+            thread.join();
+        final long expectedCount = (long) threadCount * transactionsPerThread;
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(AMOUNT.multiply(BigDecimal.valueOf(expectedCount)), TEN, TEN, TEN, expectedCount, queryResult);
+    }
+
     @Test
     void testAddTransactionFailsWhenTransactionIsNull() {
         assertThrows(NullPointerException.class, () -> statsService.add(null));
@@ -54,11 +117,40 @@ final class StatisticsServiceTest {
 
     @Test
     void testAddTransactionFailsWhenTransactionIsExpired() {
-        final long expiredTimeStamp = TestUtils.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L;
+        final long expiredTimeStamp = clock.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L;
         final StatisticsTransaction expiredTransaction = new StatisticsTransaction(AMOUNT, expiredTimeStamp);
         assertThrows(ExpirationException.class, () -> statsService.add(expiredTransaction));
     }
 
+    @Test
+    void testAddAllTransactionsSuccess() {
+        final long expiredTimeStamp = clock.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L;
+        final List<StatisticsTransaction> transactions = List.of(
+                new StatisticsTransaction(ONE, clock.epoch()),
+                new StatisticsTransaction(AMOUNT, expiredTimeStamp),
+                new StatisticsTransaction(TEN, clock.epoch() + EXPIRY_INTERVAL.toSeconds()),
+                new StatisticsTransaction(AMOUNT, expiredTimeStamp));
+        assertEquals(new StatisticsBatchResult(2L, 2L), statsService.addAll(transactions));
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("5.5"), TEN, ONE, 2L, queryResult);
+    }
+
+    @Test
+    void testAddAllRawTransactionsSuccess() {
+        final long[] timestamps = { clock.epoch(), clock.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L, clock.epoch(), 0L };
+        final BigDecimal[] amounts = { ONE, AMOUNT, TEN, null };
+        assertEquals(new StatisticsBatchResult(2L, 1L), statsService.addAll(timestamps, amounts, 3));
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("5.5"), TEN, ONE, 2L, queryResult);
+    }
+
+    @Test
+    void testAddAllTransactionsFailsWhenTransactionIsNull() {
+        final List<StatisticsTransaction> transactions = Collections.singletonList(null);
+        assertThrows(NullPointerException.class, () -> statsService.addAll(transactions));
+        assertFalse(statsService.hasTransactions());
+    }
+
     @Test
     void testHasTransactionsReturnsFalseWithNoTransactions() {
         assertFalse(statsService.hasTransactions());
@@ -95,7 +187,7 @@ final class StatisticsServiceTest {
         final BigDecimal expectedSum = new BigDecimal("53.90");
         final BigDecimal expectedAverage = new BigDecimal("5.39");
         Arrays.stream(transactionAmounts)
-              .map(amount -> new StatisticsTransaction(new BigDecimal(amount), TestUtils.epoch()))
+              .map(amount -> new StatisticsTransaction(new BigDecimal(amount), clock.epoch()))
               .forEach(transaction -> statsService.add(transaction));
         final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
         assertSuccessQueryResults(expectedSum, expectedAverage, TEN, ZERO, transactionAmounts.length, queryResult);
@@ -113,12 +205,158 @@ final class StatisticsServiceTest {
         BigDecimal amount = startingAmount;
         for (int i = 0; i < expectedCount; i++) {
             amount = amount.add(incrementAmount);
-            statsService.add(new StatisticsTransaction(amount, TestUtils.epoch()));
+            statsService.add(new StatisticsTransaction(amount, clock.epoch()));
         }
         final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
         assertSuccessQueryResults(expectedSum, expectedAverage, expectedMax, expectedMin, expectedCount, queryResult);
     }
 
+    @Test
+    void testCollectSuccessWithFarFutureTransaction() {
+        statsService.add(new StatisticsTransaction(AMOUNT, clock.epoch() + 10 * EXPIRY_INTERVAL.toSeconds()));
+        addTransactionImpl(AMOUNT, 1);
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(TEN.add(TEN), TEN, TEN, TEN, 2L, queryResult);
+    }
+
+    @Test
+    void testCollectSuccessWhenScaledSumOverflows() {
+        final BigDecimal largeAmount = new BigDecimal("99999999999999.5");  //Fits, but ten of them do not
+        addTransactionImpl(largeAmount, 10);
+        final BigDecimal expectedSum = new BigDecimal("999999999999995.0");
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(expectedSum, largeAmount, largeAmount, largeAmount, 10L, queryResult);
+        assertEquals(expectedSum, queryResult.sum());
+    }
+
+    @Test
+    void testCollectSuccessWhenInputScaleIsExceeded() {
+        addTransactionImpl(new BigDecimal("1.25"), 1);
+        addTransactionImpl(new BigDecimal("0.123456789"), 1);
+        final BigDecimal expectedSum = new BigDecimal("1.373456789");
+        final BigDecimal expectedAverage = new BigDecimal("0.686728395");
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertSuccessQueryResults(expectedSum, expectedAverage, new BigDecimal("1.25"), new BigDecimal("0.123456789"), 2L, queryResult);
+        assertEquals(expectedSum, queryResult.sum());
+    }
+
+    @Test
+    void testCollectSuccessWhenRepeated() {
+        addTransactionImpl(AMOUNT, 2);
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertEquals(queryResult, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE));
+        assertSuccessQueryResults(TEN.add(TEN), TEN, TEN, TEN, 2L, queryResult);
+    }
+
+    @Test
+    void testCollectSuccessWhenTransactionsAreAddedBetweenCollections() {
+        addTransactionImpl(AMOUNT, 1);
+        assertSuccessQueryResults(TEN, TEN, TEN, TEN, 1L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE));
+        addTransactionImpl(ONE, 1);
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("5.5"), TEN, ONE, 2L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE));
+        statsService.addAll(List.of(new StatisticsTransaction(ZERO, clock.epoch())));
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("3.666666667"), TEN, ZERO, 3L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE));
+    }
+
+    @Test
+    void testCollectSuccessWithDifferentCalculationScales() {
+        addTransactionImpl(ONE, 2);
+        addTransactionImpl(ZERO, 1);
+        assertEquals(new BigDecimal("0.666666667"), statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).avg());
+        assertEquals(new BigDecimal("0.67"), statsService.collect(2, CALC_ROUNDING_MODE).avg());
+        assertEquals(new BigDecimal("0.66"), statsService.collect(2, RoundingMode.DOWN).avg());
+    }
+
+    @Test
+    void testCollectSuccessWithoutQueryOptions() {
+        addTransactionImpl(AMOUNT, 1);
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE);
+        assertNull(queryResult.variance());
+        assertNull(queryResult.stdDev());
+        assertNull(queryResult.percentiles());
+    }
+
+    @Test
+    void testCollectSuccessWithDeviationAndPercentiles() {
+        for (int amount = 1; amount <= 100; amount++)
+            addTransactionImpl(BigDecimal.valueOf(amount), 1);
+        final StatisticsQueryOptions queryOptions = new StatisticsQueryOptions(true, List.of(50.0, 95.0, 99.0, 100.0));
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE, queryOptions);
+        assertEquals(0, new BigDecimal("833.25").compareTo(queryResult.variance().setScale(6, CALC_ROUNDING_MODE)));
+        assertEquals(0, new BigDecimal("28.866070").compareTo(queryResult.stdDev().setScale(6, CALC_ROUNDING_MODE)));
+        assertEquals(List.of("p50", "p95", "p99", "p100"), List.copyOf(queryResult.percentiles().keySet()));
+        assertApproximately(50.5, queryResult.percentiles().get("p50"));
+        assertApproximately(95.05, queryResult.percentiles().get("p95"));
+        assertApproximately(99.01, queryResult.percentiles().get("p99"));
+        assertEquals(0, new BigDecimal(100).compareTo(queryResult.percentiles().get("p100")));
+    }
+
+    @Test
+    void testCollectSuccessWithPercentilesAndNoTransactions() {
+        final StatisticsQueryOptions queryOptions = new StatisticsQueryOptions(true, List.of(99.0));
+        final StatisticsQueryResult queryResult = statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE, queryOptions);
+        assertEquals(0, ZERO.compareTo(queryResult.variance()));
+        assertEquals(0, ZERO.compareTo(queryResult.percentiles().get("p99")));
+    }
+
+    @Test
+    void testCollectFailsWhenDeviationIsOutOfRange() {
+        assumeTrue(numericMode == NumericMode.DECIMAL);  //NOTE: Scaled longs can't hold these amounts
+        addTransactionImpl(new BigDecimal("1E+200"), 1);
+        addTransactionImpl(new BigDecimal("-1E+200"), 1);
+        final StatisticsQueryOptions queryOptions = new StatisticsQueryOptions(true, List.of());
+        assertThrows(ArithmeticException.class, () -> statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE, queryOptions));
+    }
+
+    @Test
+    void testCollectSuccessWithLookbackWindow() {
+        statsService.add(new StatisticsTransaction(ONE, clock.epoch() - 3L));
+        statsService.add(new StatisticsTransaction(TEN, clock.epoch()));
+        addTransactionImpl(AMOUNT, 1);
+        final StatisticsQueryOptions queryOptions = new StatisticsQueryOptions(false, List.of(100.0));
+        final StatisticsQueryResult queryResult = statsService.collect(Duration.ofSeconds(2), CALC_SCALE, CALC_ROUNDING_MODE, queryOptions);
+        assertSuccessQueryResults(new BigDecimal(20), TEN, TEN, TEN, 2L, queryResult);
+        assertEquals(0, TEN.compareTo(queryResult.percentiles().get("p100")));
+        assertEquals(statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE),
+                statsService.collect(EXPIRY_INTERVAL, CALC_SCALE, CALC_ROUNDING_MODE, StatisticsQueryOptions.NONE));
+    }
+
+    @Test
+    void testCollectFailsWhenLookbackWindowIsInvalid() {
+        for (final Duration window : List.of(Duration.ZERO, EXPIRY_INTERVAL.plusSeconds(1), Duration.ofMillis(1_500)))
+            assertThrows(IllegalArgumentException.class,
+                    () -> statsService.collect(window, CALC_SCALE, CALC_ROUNDING_MODE, StatisticsQueryOptions.NONE));
+    }
+
+    @Test
+    void testCollectSeriesSuccess() {
+        statsService.add(new StatisticsTransaction(ONE, clock.epoch() - 3L));
+        statsService.add(new StatisticsTransaction(TEN, clock.epoch()));
+        addTransactionImpl(AMOUNT, 1);  //Future transactions are left out of the series
+        final List<StatisticsSeriesPoint> series = statsService.collectSeries(EXPIRY_INTERVAL, Duration.ofSeconds(1), CALC_SCALE, CALC_ROUNDING_MODE);
+        assertEquals(EXPIRY_INTERVAL.toSeconds() + 1, series.size());
+        for (int i = 1; i < series.size(); i++)
+            assertEquals(series.get(i - 1).timestamp() + 1L, series.get(i).timestamp());
+        assertEquals(2L, series.stream().mapToLong(point -> point.statistics().count()).sum());
+        assertEquals(0, new BigDecimal(11).compareTo(series.stream().map(point -> point.statistics().sum()).reduce(ZERO, BigDecimal::add)));
+    }
+
+    @Test
+    void testCollectSeriesSuccessWithCoarseResolution() {
+        statsService.add(new StatisticsTransaction(ONE, clock.epoch() - 3L));
+        statsService.add(new StatisticsTransaction(TEN, clock.epoch()));
+        final List<StatisticsSeriesPoint> series = statsService.collectSeries(EXPIRY_INTERVAL, Duration.ofSeconds(2), CALC_SCALE, CALC_ROUNDING_MODE);
+        for (final StatisticsSeriesPoint point : series)
+            assertEquals(0L, point.timestamp() % 2L);
+        assertEquals(2L, series.stream().mapToLong(point -> point.statistics().count()).sum());
+    }
+
+    @Test
+    void testCollectSeriesFailsWhenResolutionExceedsWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> statsService.collectSeries(Duration.ofSeconds(2), Duration.ofSeconds(3), CALC_SCALE, CALC_ROUNDING_MODE));
+    }
+
     @Test
     void testCollectFailsWhenAverageIsNonTerminatingAndRoundingModeIsUnnecessary() {
         addTransactionImpl(new BigDecimal(".25"), 2);  //NOTE: precision=2, scale=2
@@ -150,12 +388,122 @@ final class StatisticsServiceTest {
 
     @Test
     void testRemoveIfExpiredSuccessWhenSingleTransactionExpires() {
-        statsService.add(new StatisticsTransaction(AMOUNT, TestUtils.epoch()));
-        Awaitility.await().until(() -> !statsService.hasTransactions());
+        statsService.add(new StatisticsTransaction(AMOUNT, clock.epoch()));
+        clock.advance(EXPIRY_INTERVAL.plusSeconds(1));
+        assertFalse(statsService.hasTransactions());
         statsService.removeIfExpired();
         assertEquals(0L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
     }
 
+    @Test
+    void testRemoveIfExpiredSuccessReleasesExpiredTransactions() {
+        statsService.add(new StatisticsTransaction(AMOUNT, clock.epoch()));
+        addTransactionImpl(AMOUNT, 1);
+        assertEquals(2L, statsService.retainedCount());
+        clock.advance(EXPIRY_INTERVAL.plusSeconds(1));
+        assertEquals(1L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
+        statsService.removeIfExpired();
+        assertEquals(1L, statsService.retainedCount());
+    }
+
+    @Test
+    void testCollectByKeySuccess() {
+        final long timestamp = clock.epoch() + EXPIRY_INTERVAL.toSeconds();
+        statsService.add(new StatisticsTransaction(ONE, timestamp, "EUR"));
+        statsService.add(new StatisticsTransaction(TEN, timestamp, "USD"));
+        statsService.add(new StatisticsTransaction(AMOUNT, timestamp, "USD"));
+        addTransactionImpl(AMOUNT, 1);
+        assertSuccessQueryResults(new BigDecimal(20), TEN, TEN, TEN, 2L, statsService.collect("USD", CALC_SCALE, CALC_ROUNDING_MODE));
+        assertSuccessQueryResults(ONE, ONE, ONE, ONE, 1L, statsService.collect("EUR", CALC_SCALE, CALC_ROUNDING_MODE));
+        assertEquals(4L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
+        assertEquals(2L, statsService.activeKeyCount());
+    }
+
+    @Test
+    void testCollectByKeySuccessWithUnknownKey() {
+        addTransactionImpl(AMOUNT, 1);
+        assertSuccessQueryResults(ZERO, ZERO, ZERO, ZERO, 0L, statsService.collect("GBP", CALC_SCALE, CALC_ROUNDING_MODE));
+        assertEquals(0L, statsService.activeKeyCount());
+    }
+
+    @Test
+    void testCollectTopBySumSuccess() {
+        final long timestamp = clock.epoch() + EXPIRY_INTERVAL.toSeconds();
+        for (int i = 1; i <= 5; i++)
+            for (int j = 0; j < i; j++)
+                statsService.add(new StatisticsTransaction(TEN, timestamp - j, "key-" + i));
+        final List<KeyedStatisticsResult> top = statsService.collectTopBySum(3, CALC_SCALE, CALC_ROUNDING_MODE);
+        assertEquals(List.of("key-5", "key-4", "key-3"), top.stream().map(KeyedStatisticsResult::key).toList());
+        assertSuccessQueryResults(new BigDecimal(50), TEN, TEN, TEN, 5L, top.getFirst().statistics());
+        assertEquals(5, statsService.collectTopBySum(10, CALC_SCALE, CALC_ROUNDING_MODE).size());
+    }
+
+    @Test
+    void testCollectTopBySumSuccessWhenRankedOncePerSecond() {
+        statsService.add(new StatisticsTransaction(TEN, clock.epoch(), "EUR"));
+        statsService.add(new StatisticsTransaction(ONE, clock.epoch(), "USD"));
+        assertEquals("EUR", statsService.collectTopBySum(1, CALC_SCALE, CALC_ROUNDING_MODE).getFirst().key());
+        statsService.add(new StatisticsTransaction(new BigDecimal(100), clock.epoch(), "USD"));
+        final List<KeyedStatisticsResult> top = statsService.collectTopBySum(2, CALC_SCALE, CALC_ROUNDING_MODE);
+        assertEquals(List.of("USD", "EUR"), top.stream().map(KeyedStatisticsResult::key).toList());  //Current sums, same ranking
+        assertEquals("EUR", statsService.collectTopBySum(1, CALC_SCALE, CALC_ROUNDING_MODE).getFirst().key());
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("USD", statsService.collectTopBySum(1, CALC_SCALE, CALC_ROUNDING_MODE).getFirst().key());
+    }
+
+    @Test
+    void testCollectTopBySumFailsWhenLimitIsInvalid() {
+        for (final int limit : new int[] { 0, StatisticsService.MAX_TOP_KEYS + 1 })
+            assertThrows(IllegalArgumentException.class, () -> statsService.collectTopBySum(limit, CALC_SCALE, CALC_ROUNDING_MODE));
+    }
+
+    @Test
+    void testAddAllRawKeyedTransactionsSuccess() {
+        final long expiredTimeStamp = clock.epoch() - EXPIRY_INTERVAL.toSeconds() - 1L;
+        final long[] timestamps = { clock.epoch(), expiredTimeStamp, clock.epoch(), clock.epoch() };
+        final BigDecimal[] amounts = { ONE, AMOUNT, TEN, AMOUNT };
+        final String[] keys = { "EUR", "EUR", "EUR", null };
+        assertEquals(new StatisticsBatchResult(3L, 1L), statsService.addAll(timestamps, amounts, keys, 4));
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("5.5"), TEN, ONE, 2L,
+                statsService.collect("EUR", CALC_SCALE, CALC_ROUNDING_MODE));
+        assertEquals(3L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
+    }
+
+    @Test
+    void testAddAggregateOnlySuccess() {
+        addTransactionImpl(AMOUNT, 1);
+        final long retainedCount = statsService.retainedCount();
+        statsService.addAggregateOnly(new StatisticsTransaction(ONE, clock.epoch(), "EUR"));
+        //The bucketed engines only ever retain aggregates, so they count it like any other transaction:
+        final boolean bucketed = engine == Engine.BUCKETED || engine == Engine.STRIPED;
+        assertEquals(bucketed ? retainedCount + 1L : retainedCount, statsService.retainedCount());
+        assertSuccessQueryResults(new BigDecimal(11), new BigDecimal("5.5"), TEN, ONE, 2L,
+                statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE));
+        assertEquals(2L, statsService.collect(Duration.ofSeconds(1), CALC_SCALE, CALC_ROUNDING_MODE, StatisticsQueryOptions.NONE).count());
+        assertEquals(1L, statsService.collect("EUR", CALC_SCALE, CALC_ROUNDING_MODE).count());
+        clock.advance(EXPIRY_INTERVAL.plusSeconds(1));
+        assertEquals(1L, statsService.collect(CALC_SCALE, CALC_ROUNDING_MODE).count());
+    }
+
+    @Test
+    void testRemoveIfExpiredSuccessEvictsIdleKeys() {
+        statsService.add(new StatisticsTransaction(AMOUNT, clock.epoch(), "EUR"));
+        statsService.add(new StatisticsTransaction(AMOUNT, clock.epoch() + EXPIRY_INTERVAL.toSeconds(), "USD"));
+        assertEquals(2L, statsService.activeKeyCount());
+        clock.advance(EXPIRY_INTERVAL.plusSeconds(1));
+        assertEquals(0L, statsService.collect("EUR", CALC_SCALE, CALC_ROUNDING_MODE).count());
+        statsService.removeIfExpired();
+        assertEquals(1L, statsService.activeKeyCount());
+        assertEquals(1L, statsService.collect("USD", CALC_SCALE, CALC_ROUNDING_MODE).count());
+    }
+
+    /**
+     * Assert an approximate percentile (within twice the sketch's relative accuracy to allow for rank interpolation)
+     */
+    private static void assertApproximately(final double expected, final BigDecimal actual) {
+        assertEquals(expected, actual.doubleValue(), expected * 2 * DistributionSketch.RELATIVE_ACCURACY);
+    }
+
     /**
      * Add one or more transactions
      *
@@ -164,6 +512,6 @@ final class StatisticsServiceTest {
     private void addTransactionImpl(final BigDecimal amount, final int count) {
         assert count > 0;
         for (int i = 0; i < count; i++)
-            statsService.add(new StatisticsTransaction(amount, TestUtils.epoch() + EXPIRY_INTERVAL.toSeconds()));
+            statsService.add(new StatisticsTransaction(amount, clock.epoch() + EXPIRY_INTERVAL.toSeconds()));
     }
 }
@@ -0,0 +1,161 @@
+package net.sattler22.stats.stream;
+
+import net.sattler22.stats.dto.StatisticsTransaction;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.test.util.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Real-Time Statistics Stream Publisher Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class StatisticsStreamPublisherTest {
+
+    private static final Duration EXPIRY_INTERVAL = Duration.ofSeconds(5);
+    private static final int BUFFER_SIZE = 4;
+    private static final int MAX_SUBSCRIBERS = 2;
+    private static final String STREAM_PATH = "/stream";
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(5);
+    private StatisticsService statsService;
+    private StatisticsStreamPublisher streamPublisher;
+
+    @BeforeEach
+    void init() {
+        statsService = new BucketedStatisticsServiceImpl(EXPIRY_INTERVAL);
+        streamPublisher = new StatisticsStreamPublisher(statsService, JsonMapper.builder().build(), BUFFER_SIZE,
+                MAX_SUBSCRIBERS, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void close() {
+        streamPublisher.close();
+    }
+
+    @Test
+    void testSubscribeSuccess() {
+        assertTrue(streamPublisher.subscribe().isPresent());
+        assertEquals(1, streamPublisher.subscriberCount());
+    }
+
+    @Test
+    void testSubscribeFailsWhenMaxSubscribersIsReached() {
+        for (int i = 0; i < MAX_SUBSCRIBERS; i++)
+            assertTrue(streamPublisher.subscribe().isPresent());
+        assertFalse(streamPublisher.subscribe().isPresent());
+        assertEquals(MAX_SUBSCRIBERS, streamPublisher.subscriberCount());
+    }
+
+    @Test
+    void testSubscribeFailsWhenMaxSubscribersIsReachedConcurrently() throws InterruptedException {
+        final int threadCount = 8 * MAX_SUBSCRIBERS;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger subscribed = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++)
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    if (streamPublisher.subscribe().isPresent())
+                        subscribed.incrementAndGet();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        start.countDown();
+        for (final Thread thread : threads)
+            thread.join();
+        assertEquals(MAX_SUBSCRIBERS, subscribed.get());
+        assertEquals(MAX_SUBSCRIBERS, streamPublisher.subscriberCount());
+    }
+
+    @Test
+    void testPublishSuccessWithoutSubscribers() {
+        streamPublisher.publish();
+        assertEquals(0, streamPublisher.subscriberCount());
+    }
+
+    @Test
+    void testPublishSuccessWithSubscribers() {
+        statsService.add(new StatisticsTransaction(BigDecimal.TEN, TestUtils.epoch()));
+        streamPublisher.subscribe();
+        streamPublisher.subscribe();
+        streamPublisher.publish();
+        assertEquals(MAX_SUBSCRIBERS, streamPublisher.subscriberCount());
+        assertEquals(0L, streamPublisher.droppedCount());
+    }
+
+    @Test
+    void testPublishSuccessWhenSubscriberIsAttached() throws Exception {
+        final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(streamPublisher)).build();
+        final MvcResult mvcResult = mockMvc.perform(get(STREAM_PATH)).andExpect(request().asyncStarted()).andReturn();
+        statsService.add(new StatisticsTransaction(BigDecimal.TEN, TestUtils.epoch()));
+        streamPublisher.publish();
+        final long deadline = System.nanoTime() + DELIVERY_TIMEOUT.toNanos();
+        String content;
+        while (!(content = mvcResult.getResponse().getContentAsString()).contains("data:") && System.nanoTime() < deadline)
+            Thread.sleep(10L);
+        assertTrue(content.contains("event:statistics"), content);
+        assertTrue(content.contains("\"sum\":10,"), content);  //Sums keep the scale of the amounts
+        assertTrue(content.contains("\"count\":1"), content);
+        assertEquals(0L, streamPublisher.droppedCount());
+    }
+
+    @Test
+    void testPublishDropsSlowSubscriber() {
+        streamPublisher.subscribe();  //Never attached to a response, so nothing is ever sent
+        for (int i = 0; i <= BUFFER_SIZE; i++)
+            streamPublisher.publish();
+        assertEquals(1L, streamPublisher.droppedCount());
+        assertEquals(0, streamPublisher.subscriberCount());
+        assertTrue(streamPublisher.subscribe().isPresent());
+    }
+
+    @Test
+    void testCloseSuccess() {
+        streamPublisher.subscribe();
+        streamPublisher.close();
+        assertEquals(0, streamPublisher.subscriberCount());
+        assertTrue(streamPublisher.subscribe().isPresent());
+    }
+
+    @RestController
+    static final class StreamController {
+
+        private final StatisticsStreamPublisher streamPublisher;
+
+        StreamController(StatisticsStreamPublisher streamPublisher) {
+            this.streamPublisher = streamPublisher;
+        }
+
+        @GetMapping(STREAM_PATH)
+        SseEmitter stream() {
+            return streamPublisher.subscribe().orElseThrow();
+        }
+    }
+}
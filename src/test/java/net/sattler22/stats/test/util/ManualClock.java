@@ -0,0 +1,82 @@
+package net.sattler22.stats.test.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manual Clock
+ * <p>
+ * A clock that only moves when it is told to, so tests and benchmarks can replay hours of traffic without sleeping.
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class ManualClock extends Clock {
+
+    private final AtomicLong millis;
+
+    /**
+     * Constructs a new manual clock starting at the current system time
+     */
+    public ManualClock() {
+        this(Instant.now());
+    }
+
+    /**
+     * Constructs a new manual clock
+     *
+     * @param start The initial time
+     */
+    public ManualClock(Instant start) {
+        this.millis = new AtomicLong(start.toEpochMilli());
+    }
+
+    /**
+     * Move the clock forward (or backward, if the amount is negative)
+     *
+     * @param amount The amount of time to move the clock by
+     */
+    public void advance(Duration amount) {
+        millis.addAndGet(amount.toMillis());
+    }
+
+    /**
+     * Get UNIX epoch
+     *
+     * @return The number of non-leap seconds that have elapsed since 00:00:00 UTC on 1 January 1970
+     */
+    public long epoch() {
+        return Math.floorDiv(millis.get(), 1000L);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (!ZoneOffset.UTC.equals(zone))
+            throw new UnsupportedOperationException("A manual clock is always in UTC");
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [instant=%s]", getClass().getSimpleName(), instant());
+    }
+}
@@ -0,0 +1,77 @@
+package net.sattler22.stats.test.util;
+
+import net.sattler22.stats.config.StatisticsServiceProperties.Engine;
+import net.sattler22.stats.config.StatisticsServiceProperties.NumericMode;
+import net.sattler22.stats.journal.TransactionJournal;
+import net.sattler22.stats.metrics.StatisticsMetricsRecorder;
+import net.sattler22.stats.service.BucketedStatisticsServiceImpl;
+import net.sattler22.stats.service.EventTimePolicy;
+import net.sattler22.stats.service.StatisticsService;
+import net.sattler22.stats.service.StatisticsServiceImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Real-Time Statistics Engine Factory (shared by the unit tests and the benchmarks)
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+public final class TestEngines {
+
+    private TestEngines() {
+        throw new AssertionError("Cannot be instantiated");
+    }
+
+    /**
+     * Get the maximum input scale of a numeric mode
+     *
+     * @param numericMode The numeric mode
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic
+     * @return The maximum input scale (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     */
+    public static int maxInputScale(NumericMode numericMode, int maxInputScale) {
+        return switch (numericMode) {
+            case DECIMAL -> StatisticsService.DECIMAL_ARITHMETIC;
+            case SCALED_LONG -> maxInputScale;
+        };
+    }
+
+    /**
+     * Construct a new statistics service (using the system clock and without a distribution sketch)
+     *
+     * @param engine The statistics engine
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripes The number of stripes of the striped engine
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @return The statistics service
+     */
+    public static StatisticsService newService(Engine engine, Duration expiryInterval, int stripes, int maxInputScale) {
+        return newService(engine, expiryInterval, stripes, maxInputScale, null, Clock.systemUTC(), false);
+    }
+
+    /**
+     * Construct a new statistics service
+     *
+     * @param engine The statistics engine
+     * @param expiryInterval The real-time transaction expiration interval
+     * @param stripes The number of stripes of the striped engine
+     * @param maxInputScale The maximum amount scale aggregated using scaled-long arithmetic (or {@link StatisticsService#DECIMAL_ARITHMETIC})
+     * @param eventTimePolicy The event-time ingestion policy (or null to accept every transaction that has not expired)
+     * @param clock The clock deciding the current second
+     * @param distribution True to keep a distribution sketch (for the deviation and percentiles). Otherwise, false.
+     * @return The statistics service
+     */
+    public static StatisticsService newService(Engine engine, Duration expiryInterval, int stripes, int maxInputScale,
+                                               EventTimePolicy eventTimePolicy, Clock clock, boolean distribution) {
+        return switch (engine) {
+            case LIST, OFF_HEAP -> new StatisticsServiceImpl(expiryInterval, maxInputScale, StatisticsMetricsRecorder.NOOP,
+                    TransactionJournal.NOOP, engine == Engine.OFF_HEAP, 0, 0L, eventTimePolicy, clock, distribution);
+            case BUCKETED -> new BucketedStatisticsServiceImpl(expiryInterval, 1, maxInputScale,
+                    StatisticsMetricsRecorder.NOOP, TransactionJournal.NOOP, eventTimePolicy, clock, distribution);
+            case STRIPED -> new BucketedStatisticsServiceImpl(expiryInterval, stripes, maxInputScale,
+                    StatisticsMetricsRecorder.NOOP, TransactionJournal.NOOP, eventTimePolicy, clock, distribution);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package net.sattler22.stats.time;
+
+import net.sattler22.stats.test.util.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Coarse Clock Unit Tests
+ *
+ * @author Pete Sattler
+ * @since October 2026
+ */
+final class CoarseClockTest {
+
+    private static final Instant START = Instant.parse("2026-10-01T00:00:00Z");
+    private static final Duration TICK = Duration.ofMillis(1);
+
+    @Test
+    void testMillisFollowsSourceClock() throws InterruptedException {
+        final ManualClock source = new ManualClock(START);
+        try (CoarseClock coarseClock = new CoarseClock(source, TICK)) {
+            assertEquals(START.toEpochMilli(), coarseClock.millis());
+            source.advance(Duration.ofHours(1));
+            awaitMillis(coarseClock, source.millis());
+            assertEquals(START.plus(Duration.ofHours(1)), coarseClock.instant());
+        }
+    }
+
+    @Test
+    void testMillisIsFrozenAfterClose() throws InterruptedException {
+        final ManualClock source = new ManualClock(START);
+        final CoarseClock coarseClock = new CoarseClock(source, TICK);
+        coarseClock.close();
+        Thread.sleep(TICK.multipliedBy(10));  //Let the ticker thread see the close
+        final long frozen = coarseClock.millis();
+        source.advance(Duration.ofMinutes(1));
+        Thread.sleep(TICK.multipliedBy(10));
+        assertEquals(frozen, coarseClock.millis());
+    }
+
+    @Test
+    void testWithZone() {
+        try (CoarseClock coarseClock = new CoarseClock(new ManualClock(START), TICK)) {
+            assertSame(coarseClock, coarseClock.withZone(ZoneOffset.UTC));
+            final ZoneId zone = ZoneId.of("America/New_York");
+            assertEquals(zone, coarseClock.withZone(zone).getZone());
+            assertEquals(coarseClock.millis(), coarseClock.withZone(zone).millis());
+        }
+    }
+
+    @Test
+    void testTickMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(Duration.ZERO));
+    }
+
+    private static void awaitMillis(CoarseClock coarseClock, long expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (coarseClock.millis() != expected && System.nanoTime() < deadline)
+            Thread.sleep(1L);
+    }
+}